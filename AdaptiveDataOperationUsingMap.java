@@ -0,0 +1,1056 @@
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+
+/**
+ * Клас AdaptiveDataOperationUsingMap — варіант BasicDataOperationUsingMap, що обирає внутрішнє
+ * представлення записів за спостережуваною сумішшю операцій і змінює його під час роботи.
+ *
+ * <p>Представлення ({@link Layout}): хеш-таблиця з ланцюжками (java.util.HashMap) — універсальний варіант
+ * для змін; хеш-таблиця з відкритою адресацією — для переважно точкових пошуків; відсортований масив —
+ * для сортувань та запитів за префіксом клички, які в ньому не потребують сортування та повного проходу.
+ * Окремо вмикається індекс власників (OwnerIndex), що прискорює пошук за значенням, але здорожчує зміни.</p>
+ *
+ * <p>У тих самих точках, де тривалість операцій записується в PerformanceTracker, рахуються кількість
+ * і тривалість операцій кожного виду у вікні (до {@link #DECISION_INTERVAL} операцій або
+ * {@link #DECISION_WINDOW_NANOS} нс). Після кожного вікна модель вартості оцінює всі представлення для
+ * суміші вікна та поточного розміру. Міграція починається, коли економія, накопичена кращим представленням
+ * за послідовні вікна, перевищує оцінену вартість копіювання всіх записів, тому короткі сплески
+ * не спричиняють перемикань. Кожне рішення з причиною доступне через {@link #decisions()}.</p>
+ *
+ * <p>Міграція виконується у фоновому потоці: нове представлення заповнюється з поточного, поки читачі
+ * продовжують працювати з ним під спільним блокуванням читання, а записувачі чекають завершення копіювання.
+ * Заміна представлення — одне присвоєння під блокуванням запису, тому читачі не чекають на копіювання.</p>
+ */
+public class AdaptiveDataOperationUsingMap implements AutoCloseable {
+    /**
+     * Максимальна кількість операцій у вікні спостереження.
+     */
+    static final int DECISION_INTERVAL = 4096;
+
+    /**
+     * Максимальна тривалість вікна спостереження (для дорогих операцій, як-от сортування великих Map).
+     */
+    static final long DECISION_WINDOW_NANOS = 100_000_000L;
+
+    /**
+     * Мінімальна відносна економія вікна, з якої інше представлення вважається кращим.
+     */
+    static final double MIN_GAIN = 0.2;
+
+    static final int FIND_BY_KEY_METRIC = PerformanceTracker.metricId("пошук за ключем в адаптивному сховищі");
+    static final int FIND_BY_VALUE_METRIC = PerformanceTracker.metricId("пошук за значенням в адаптивному сховищі");
+    static final int ADD_METRIC = PerformanceTracker.metricId("додавання запису до адаптивного сховища");
+    static final int REMOVE_BY_KEY_METRIC = PerformanceTracker.metricId("видалення за ключем з адаптивного сховища");
+    static final int REMOVE_BY_VALUE_METRIC = PerformanceTracker.metricId("видалення за значенням з адаптивного сховища");
+    static final int SORT_METRIC = PerformanceTracker.metricId("сортування адаптивного сховища за ключами");
+    static final int FIND_BY_PREFIX_METRIC = PerformanceTracker.metricId("пошук за префіксом клички в адаптивному сховищі");
+    static final int MIGRATION_METRIC = PerformanceTracker.metricId("міграція представлення адаптивного сховища");
+
+    /**
+     * Внутрішнє представлення записів.
+     */
+    public enum Layout {
+        CHAINED_HASH, OPEN_ADDRESSING, SORTED_ARRAY
+    }
+
+    /**
+     * Види операцій, з яких складається суміш навантаження.
+     */
+    enum OperationKind {
+        POINT_LOOKUP("пошук за ключем"),
+        VALUE_SEARCH("пошук/видалення за значенням"),
+        WRITE("додавання/видалення за ключем"),
+        SORT("сортування"),
+        PREFIX_SCAN("пошук за префіксом");
+
+        final String label;
+
+        OperationKind(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Рішення про представлення: яке представлення обрано і чому.
+     */
+    public static final class Decision {
+        private final long timeMillis;
+        private final Layout layout;
+        private final boolean ownerIndex;
+        private final String reason;
+
+        Decision(Layout layout, boolean ownerIndex, String reason) {
+            this.timeMillis = System.currentTimeMillis();
+            this.layout = layout;
+            this.ownerIndex = ownerIndex;
+            this.reason = reason;
+        }
+
+        public long getTimeMillis() {
+            return timeMillis;
+        }
+
+        public Layout getLayout() {
+            return layout;
+        }
+
+        public boolean hasOwnerIndex() {
+            return ownerIndex;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return describe(layout, ownerIndex) + ": " + reason;
+        }
+    }
+
+    /**
+     * Представлення записів. Зміни виконуються одним записувачем під блокуванням запису,
+     * читання — під блокуванням читання, тому реалізації не потребують власної синхронізації.
+     */
+    interface Representation {
+        Layout layout();
+
+        int size();
+
+        String get(BasicDataOperationUsingMap.Tortoise key);
+
+        String put(BasicDataOperationUsingMap.Tortoise key, String owner);
+
+        String remove(BasicDataOperationUsingMap.Tortoise key);
+
+        void forEach(BiConsumer<? super BasicDataOperationUsingMap.Tortoise, ? super String> action);
+
+        /**
+         * Додає до out записи, кличка яких починається з prefix (у порядку ключів для SORTED_ARRAY).
+         */
+        void collectNicknamePrefix(String prefix, List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> out);
+    }
+
+    // Записувачі впорядковуються writerLock; міграція тримає його на час копіювання записів,
+    // а блокування запису rwLock — лише на час самої зміни (або заміни представлення)
+    private final ReentrantLock writerLock = new ReentrantLock();
+    private final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+
+    private volatile Representation current;
+    // Індекс власників або null, якщо його вимкнено
+    private volatile OwnerIndex<BasicDataOperationUsingMap.Tortoise> ownerIndex;
+
+    private volatile boolean adaptive;
+    private final LongAdder[] windowCounts = new LongAdder[OperationKind.values().length];
+    private final LongAdder[] windowNanos = new LongAdder[OperationKind.values().length];
+    private final AtomicLong windowOperations = new AtomicLong();
+    private volatile long windowStart = System.nanoTime();
+    private final AtomicBoolean evaluating = new AtomicBoolean();
+
+    // Кандидат на перемикання та економія, накопичена ним за послідовні вікна (змінюються лише під evaluating)
+    private Layout candidateLayout;
+    private boolean candidateIndex;
+    private double candidateSavings;
+    private int candidateWindows;
+
+    private final AtomicBoolean migrating = new AtomicBoolean();
+    private volatile Future<?> migration;
+    private final ExecutorService migrator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "adaptive-map-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<Decision> decisions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Створює адаптивне сховище з копією початкових даних. Початкове представлення — хеш-таблиця
+     * з ланцюжками та індексом власників, як у BasicDataOperationUsingMap.
+     */
+    public AdaptiveDataOperationUsingMap(Map<BasicDataOperationUsingMap.Tortoise, String> initial) {
+        this(initial, Layout.CHAINED_HASH, true, true);
+    }
+
+    /**
+     * Створює сховище з вказаним представленням.
+     *
+     * @param initial початкові дані (ключ: Tortoise, значення: ім'я власника)
+     * @param layout початкове представлення
+     * @param ownerIndex чи підтримувати індекс власників
+     * @param adaptive чи змінювати представлення за сумішшю операцій
+     * @throws NullPointerException якщо initial містить ключ null
+     */
+    public AdaptiveDataOperationUsingMap(Map<BasicDataOperationUsingMap.Tortoise, String> initial,
+                                         Layout layout, boolean ownerIndex, boolean adaptive) {
+        for (BasicDataOperationUsingMap.Tortoise key : initial.keySet()) {
+            requireKey(key);
+        }
+        for (int i = 0; i < windowCounts.length; i++) {
+            windowCounts[i] = new LongAdder();
+            windowNanos[i] = new LongAdder();
+        }
+        this.current = copyOf(layout, toArray(initial));
+        this.ownerIndex = ownerIndex ? new OwnerIndex<>(initial) : null;
+        this.adaptive = adaptive;
+        decisions.add(new Decision(layout, ownerIndex, "початкове представлення"));
+    }
+
+    /**
+     * Вмикає або вимикає зміну представлення за сумішшю операцій.
+     */
+    public void setAdaptive(boolean enabled) {
+        adaptive = enabled;
+    }
+
+    public Layout getLayout() {
+        return current.layout();
+    }
+
+    public boolean hasOwnerIndex() {
+        return ownerIndex != null;
+    }
+
+    /**
+     * Повертає всі рішення про представлення від найстарішого: початкове та кожну завершену міграцію.
+     */
+    public List<Decision> decisions() {
+        return Collections.unmodifiableList(decisions);
+    }
+
+    public Decision getLastDecision() {
+        return decisions.get(decisions.size() - 1);
+    }
+
+    /**
+     * Чекає завершення міграції, що виконується (якщо така є).
+     */
+    public void awaitMigration() throws InterruptedException {
+        Future<?> pending = migration;
+        if (pending != null) {
+            try {
+                pending.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Міграція представлення завершилася помилкою", e.getCause());
+            }
+        }
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Здійснює пошук за ключем.
+     *
+     * @return ім'я власника або null, якщо ключ відсутній
+     * @throws NullPointerException якщо key дорівнює null
+     */
+    public String findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        requireKey(key);
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Representation representation;
+        String value;
+        rwLock.readLock().lock();
+        try {
+            representation = current;
+            value = representation.get(key);
+        } finally {
+            rwLock.readLock().unlock();
+        }
+
+        recordOperation(timeStart, FIND_BY_KEY_METRIC, OperationKind.POINT_LOOKUP);
+        MapOperationEvent.finish(event, FIND_BY_KEY_METRIC, representation.layout().name(), representation.size(),
+                value != null ? 1 : 0);
+        return value;
+    }
+
+    /**
+     * Знаходить усі ключі з вказаним власником: через індекс власників, якщо він увімкнений,
+     * інакше повним проходом по записах.
+     *
+     * @return знайдені ключі
+     */
+    public List<BasicDataOperationUsingMap.Tortoise> findByValue(String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Representation representation;
+        List<BasicDataOperationUsingMap.Tortoise> keys;
+        rwLock.readLock().lock();
+        try {
+            representation = current;
+            keys = keysOf(representation, ownerIndex, owner);
+        } finally {
+            rwLock.readLock().unlock();
+        }
+
+        recordOperation(timeStart, FIND_BY_VALUE_METRIC, OperationKind.VALUE_SEARCH);
+        MapOperationEvent.finish(event, FIND_BY_VALUE_METRIC, representation.layout().name(), representation.size(), keys.size());
+        return keys;
+    }
+
+    /**
+     * Додає або замінює запис.
+     *
+     * @return попереднє значення ключа або null
+     * @throws NullPointerException якщо key дорівнює null
+     */
+    public String addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        requireKey(key);
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Representation representation;
+        String previousValue;
+        writerLock.lock();
+        rwLock.writeLock().lock();
+        try {
+            representation = current;
+            previousValue = representation.put(key, owner);
+            OwnerIndex<BasicDataOperationUsingMap.Tortoise> index = ownerIndex;
+            if (index != null) {
+                index.put(key, previousValue, owner);
+            }
+        } finally {
+            rwLock.writeLock().unlock();
+            writerLock.unlock();
+        }
+
+        recordOperation(timeStart, ADD_METRIC, OperationKind.WRITE);
+        MapOperationEvent.finish(event, ADD_METRIC, representation.layout().name(), representation.size(), 1);
+        return previousValue;
+    }
+
+    /**
+     * Видаляє запис за ключем.
+     *
+     * @return видалене значення або null, якщо ключ відсутній
+     * @throws NullPointerException якщо key дорівнює null
+     */
+    public String removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+        requireKey(key);
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Representation representation;
+        String removedValue;
+        boolean removed;
+        writerLock.lock();
+        rwLock.writeLock().lock();
+        try {
+            representation = current;
+            int sizeBefore = representation.size();
+            removedValue = representation.remove(key);
+            // Присутність ключа визначається за розміром: власник видаленого запису може бути null
+            removed = representation.size() < sizeBefore;
+            OwnerIndex<BasicDataOperationUsingMap.Tortoise> index = ownerIndex;
+            if (index != null && removed) {
+                index.remove(key, removedValue);
+            }
+        } finally {
+            rwLock.writeLock().unlock();
+            writerLock.unlock();
+        }
+
+        recordOperation(timeStart, REMOVE_BY_KEY_METRIC, OperationKind.WRITE);
+        MapOperationEvent.finish(event, REMOVE_BY_KEY_METRIC, representation.layout().name(), representation.size(),
+                removed ? 1 : 0);
+        return removedValue;
+    }
+
+    /**
+     * Видаляє всі записи з вказаним власником. Ключі знаходяться під блокуванням записувачів
+     * (без блокування читачів), а видаляються однією зміною під блокуванням запису.
+     *
+     * @return кількість видалених записів
+     */
+    public int removeByValue(String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Representation representation;
+        int removed;
+        writerLock.lock();
+        try {
+            representation = current;
+            OwnerIndex<BasicDataOperationUsingMap.Tortoise> index = ownerIndex;
+            List<BasicDataOperationUsingMap.Tortoise> keys = keysOf(representation, index, owner);
+            rwLock.writeLock().lock();
+            try {
+                for (BasicDataOperationUsingMap.Tortoise key : keys) {
+                    representation.remove(key);
+                }
+                if (index != null) {
+                    index.removeOwner(owner);
+                }
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+            removed = keys.size();
+        } finally {
+            writerLock.unlock();
+        }
+
+        recordOperation(timeStart, REMOVE_BY_VALUE_METRIC, OperationKind.VALUE_SEARCH);
+        MapOperationEvent.finish(event, REMOVE_BY_VALUE_METRIC, representation.layout().name(), representation.size(), removed);
+        return removed;
+    }
+
+    /**
+     * Повертає записи, відсортовані за Tortoise.KEY_ORDER. Відсортований масив лише копіюється,
+     * хеш-таблиці копіюються під блокуванням читання та сортуються після його зняття
+     * (паралельно від BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD записів).
+     */
+    public List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sort() {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Representation representation;
+        Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] entries;
+        rwLock.readLock().lock();
+        try {
+            representation = current;
+            entries = toArray(representation);
+        } finally {
+            rwLock.readLock().unlock();
+        }
+        if (representation.layout() != Layout.SORTED_ARRAY) {
+            sortByKey(entries);
+        }
+        List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sorted = Arrays.asList(entries);
+
+        recordOperation(timeStart, SORT_METRIC, OperationKind.SORT);
+        MapOperationEvent.finish(event, SORT_METRIC, representation.layout().name(), representation.size(), entries.length);
+        return sorted;
+    }
+
+    /**
+     * Повертає записи, кличка яких починається з prefix, у порядку Tortoise.KEY_ORDER.
+     * У відсортованому масиві — двійковий пошук початку діапазону, O(log n + k);
+     * у хеш-таблицях — повний прохід з подальшим сортуванням знайдених записів.
+     */
+    public List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> findByNicknamePrefix(String prefix) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Representation representation;
+        List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries = new ArrayList<>();
+        rwLock.readLock().lock();
+        try {
+            representation = current;
+            representation.collectNicknamePrefix(prefix, entries);
+        } finally {
+            rwLock.readLock().unlock();
+        }
+        if (representation.layout() != Layout.SORTED_ARRAY) {
+            entries.sort(Map.Entry.comparingByKey(BasicDataOperationUsingMap.Tortoise.KEY_ORDER));
+        }
+
+        recordOperation(timeStart, FIND_BY_PREFIX_METRIC, OperationKind.PREFIX_SCAN);
+        MapOperationEvent.finish(event, FIND_BY_PREFIX_METRIC, representation.layout().name(), representation.size(), entries.size());
+        return entries;
+    }
+
+    /**
+     * Зупиняє потік міграції, дочекавшись поточної міграції.
+     */
+    @Override
+    public void close() {
+        migrator.shutdown();
+        try {
+            migrator.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ===== Спостереження за сумішшю операцій та вибір представлення =====
+
+    /**
+     * Записує тривалість операції в PerformanceTracker і враховує її у вікні спостереження.
+     */
+    private void recordOperation(long timeStart, int metricId, OperationKind kind) {
+        long timeEnd = System.nanoTime();
+        long elapsed = timeEnd - timeStart;
+        PerformanceTracker.record(metricId, elapsed);
+        if (!adaptive) {
+            return;
+        }
+        windowCounts[kind.ordinal()].increment();
+        windowNanos[kind.ordinal()].add(elapsed);
+        long operations = windowOperations.incrementAndGet();
+        if ((operations >= DECISION_INTERVAL || timeEnd - windowStart >= DECISION_WINDOW_NANOS)
+                && evaluating.compareAndSet(false, true)) {
+            try {
+                evaluateWindow(timeEnd);
+            } finally {
+                evaluating.set(false);
+            }
+        }
+    }
+
+    private void evaluateWindow(long timeEnd) {
+        long[] counts = new long[windowCounts.length];
+        long[] nanos = new long[windowNanos.length];
+        long totalCount = 0;
+        long totalNanos = 0;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = windowCounts[i].sumThenReset();
+            nanos[i] = windowNanos[i].sumThenReset();
+            totalCount += counts[i];
+            totalNanos += nanos[i];
+        }
+        windowOperations.set(0);
+        windowStart = timeEnd;
+        if (totalCount == 0 || migrating.get()) {
+            return;
+        }
+
+        int size = current.size();
+        Layout currentLayout = current.layout();
+        boolean currentIndex = ownerIndex != null;
+        double currentCost = windowCost(currentLayout, currentIndex, counts, size);
+        Layout bestLayout = currentLayout;
+        boolean bestIndex = currentIndex;
+        double bestCost = currentCost;
+        // Поточне налаштування індексу перевіряється першим, тому за рівної вартості (наприклад, у вікні
+        // без змін, де індекс нічого не коштує) наявний індекс не скидається і відсутній не будується
+        for (Layout layout : Layout.values()) {
+            for (boolean index : new boolean[]{currentIndex, !currentIndex}) {
+                double cost = windowCost(layout, index, counts, size);
+                if (cost < bestCost) {
+                    bestLayout = layout;
+                    bestIndex = index;
+                    bestCost = cost;
+                }
+            }
+        }
+
+        if (bestCost > currentCost * (1 - MIN_GAIN)) {
+            candidateLayout = null;
+            return;
+        }
+        if (bestLayout == candidateLayout && bestIndex == candidateIndex) {
+            candidateSavings += currentCost - bestCost;
+            candidateWindows++;
+        } else {
+            candidateLayout = bestLayout;
+            candidateIndex = bestIndex;
+            candidateSavings = currentCost - bestCost;
+            candidateWindows = 1;
+        }
+        double migrationCost = migrationCost(bestLayout, bestIndex, currentIndex, size);
+        if (candidateSavings < migrationCost) {
+            return;
+        }
+
+        StringBuilder reason = new StringBuilder();
+        reason.append("суміш вікна (").append(totalCount).append(" операцій, n = ").append(size).append("):");
+        for (OperationKind kind : OperationKind.values()) {
+            int i = kind.ordinal();
+            if (counts[i] > 0) {
+                reason.append(String.format(" %s %.0f%% операцій / %.0f%% часу;", kind.label,
+                        100.0 * counts[i] / totalCount, totalNanos > 0 ? 100.0 * nanos[i] / totalNanos : 0.0));
+            }
+        }
+        reason.append(String.format(" оцінена вартість вікна %.3g замість %.3g для %s;"
+                        + " економія за %d вікон (%.3g) перевищила вартість міграції (%.3g)",
+                bestCost, currentCost, describe(currentLayout, currentIndex),
+                candidateWindows, candidateSavings, migrationCost));
+        candidateLayout = null;
+        startMigration(new Decision(bestLayout, bestIndex, reason.toString()));
+    }
+
+    /**
+     * Оцінена вартість суміші операцій для представлення (в умовних наносекундах).
+     */
+    static double windowCost(Layout layout, boolean ownerIndex, long[] counts, int size) {
+        double cost = 0;
+        for (OperationKind kind : OperationKind.values()) {
+            cost += counts[kind.ordinal()] * operationCost(layout, ownerIndex, kind, size);
+        }
+        return cost;
+    }
+
+    /**
+     * Модель вартості однієї операції: порядок складності з наближеними сталими
+     * (одне порівняння ключів чи проба таблиці — десятки наносекунд, прохід по запису — кілька).
+     */
+    static double operationCost(Layout layout, boolean ownerIndex, OperationKind kind, int size) {
+        double n = Math.max(1, size);
+        double log = Math.log(n + 1) / Math.log(2);
+        switch (kind) {
+            case POINT_LOOKUP:
+                return layout == Layout.SORTED_ARRAY ? 10 * log : layout == Layout.OPEN_ADDRESSING ? 15 : 25;
+            case WRITE: {
+                double cost = layout == Layout.SORTED_ARRAY ? 10 * log + 0.25 * n : layout == Layout.OPEN_ADDRESSING ? 25 : 40;
+                return ownerIndex ? cost + 60 : cost;
+            }
+            case VALUE_SEARCH:
+                return ownerIndex ? 40 : 3 * n;
+            case SORT:
+                return layout == Layout.SORTED_ARRAY ? 2 * n : 2 * n + 10 * n * log;
+            case PREFIX_SCAN:
+                return layout == Layout.SORTED_ARRAY ? 10 * log : 3 * n;
+            default:
+                throw new IllegalArgumentException("Невідомий вид операції: " + kind);
+        }
+    }
+
+    /**
+     * Оцінена вартість копіювання всіх записів у нове представлення. Індекс власників оплачується
+     * лише тоді, коли його треба побудувати: наявний індекс міграція використовує повторно.
+     *
+     * @param ownerIndex чи потрібен індекс власників новому представленню
+     * @param hasOwnerIndex чи є індекс власників зараз
+     */
+    static double migrationCost(Layout layout, boolean ownerIndex, boolean hasOwnerIndex, int size) {
+        double n = Math.max(1, size);
+        double cost = layout == Layout.SORTED_ARRAY ? 10 * n * Math.log(n + 1) / Math.log(2) : 60 * n;
+        return ownerIndex && !hasOwnerIndex ? cost + 60 * n : cost;
+    }
+
+    private void startMigration(Decision decision) {
+        if (migrating.compareAndSet(false, true)) {
+            migration = migrator.submit(() -> migrate(decision));
+        }
+    }
+
+    private void migrate(Decision decision) {
+        long timeStart = System.nanoTime();
+
+        writerLock.lock();
+        try {
+            // Записувачі чекають на writerLock, тому поточне представлення не змінюється;
+            // читачі продовжують працювати з ним паралельно з копіюванням
+            Representation source = current;
+            Representation target = copyOf(decision.getLayout(), toArray(source));
+            OwnerIndex<BasicDataOperationUsingMap.Tortoise> index = null;
+            if (decision.hasOwnerIndex()) {
+                index = ownerIndex;
+                if (index == null) {
+                    index = new OwnerIndex<>(Collections.emptyMap());
+                    OwnerIndex<BasicDataOperationUsingMap.Tortoise> built = index;
+                    target.forEach(built::add);
+                }
+            }
+            rwLock.writeLock().lock();
+            try {
+                current = target;
+                ownerIndex = index;
+            } finally {
+                rwLock.writeLock().unlock();
+            }
+            decisions.add(decision);
+        } finally {
+            writerLock.unlock();
+            migrating.set(false);
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, MIGRATION_METRIC);
+    }
+
+    static String describe(Layout layout, boolean ownerIndex) {
+        return ownerIndex ? layout + " + індекс власників" : layout.toString();
+    }
+
+    // ===== Допоміжні методи =====
+
+    /**
+     * Відхиляє ключ null однаково для всіх представлень: відкрита адресація та відсортований масив
+     * не можуть його зберігати, тому без цієї перевірки поведінка залежала б від поточного представлення.
+     */
+    private static void requireKey(BasicDataOperationUsingMap.Tortoise key) {
+        Objects.requireNonNull(key, "Ключі null не підтримуються");
+    }
+
+    private static List<BasicDataOperationUsingMap.Tortoise> keysOf(Representation representation,
+                                                                   OwnerIndex<BasicDataOperationUsingMap.Tortoise> index,
+                                                                   String owner) {
+        if (index != null) {
+            return new ArrayList<>(index.find(owner));
+        }
+        List<BasicDataOperationUsingMap.Tortoise> keys = new ArrayList<>();
+        representation.forEach((key, value) -> {
+            if (Objects.equals(owner, value)) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] toArray(Representation representation) {
+        Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] entries = new Map.Entry[representation.size()];
+        int[] position = new int[1];
+        representation.forEach((key, value) -> entries[position[0]++] = new AbstractMap.SimpleImmutableEntry<>(key, value));
+        return entries;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] toArray(Map<BasicDataOperationUsingMap.Tortoise, String> map) {
+        Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] entries = new Map.Entry[map.size()];
+        int position = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : map.entrySet()) {
+            entries[position++] = new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue());
+        }
+        return entries;
+    }
+
+    private static void sortByKey(Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] entries) {
+        if (entries.length >= BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(entries, Map.Entry.comparingByKey(BasicDataOperationUsingMap.Tortoise.KEY_ORDER));
+        } else {
+            Arrays.sort(entries, Map.Entry.comparingByKey(BasicDataOperationUsingMap.Tortoise.KEY_ORDER));
+        }
+    }
+
+    /**
+     * Створює представлення з записів. Відсортований масив будується одним сортуванням, а не вставками.
+     */
+    static Representation copyOf(Layout layout, Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] entries) {
+        Representation representation;
+        switch (layout) {
+            case CHAINED_HASH:
+                representation = new ChainedHash(entries.length);
+                break;
+            case OPEN_ADDRESSING:
+                representation = new OpenAddressing(entries.length);
+                break;
+            case SORTED_ARRAY:
+                sortByKey(entries);
+                return new SortedArray(entries);
+            default:
+                throw new IllegalArgumentException("Невідоме представлення: " + layout);
+        }
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : entries) {
+            representation.put(entry.getKey(), entry.getValue());
+        }
+        return representation;
+    }
+
+    private static boolean hasNicknamePrefix(BasicDataOperationUsingMap.Tortoise key, String prefix) {
+        return key.getNickname() != null && key.getNickname().startsWith(prefix);
+    }
+
+    // ===== Представлення =====
+
+    /**
+     * Хеш-таблиця з ланцюжками (java.util.HashMap).
+     */
+    static final class ChainedHash implements Representation {
+        private final HashMap<BasicDataOperationUsingMap.Tortoise, String> map;
+
+        ChainedHash(int expectedSize) {
+            this.map = new HashMap<>(BasicDataOperationUsingMap.capacityFor(expectedSize));
+        }
+
+        @Override
+        public Layout layout() {
+            return Layout.CHAINED_HASH;
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public String get(BasicDataOperationUsingMap.Tortoise key) {
+            return map.get(key);
+        }
+
+        @Override
+        public String put(BasicDataOperationUsingMap.Tortoise key, String owner) {
+            return map.put(key, owner);
+        }
+
+        @Override
+        public String remove(BasicDataOperationUsingMap.Tortoise key) {
+            return map.remove(key);
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super BasicDataOperationUsingMap.Tortoise, ? super String> action) {
+            map.forEach(action);
+        }
+
+        @Override
+        public void collectNicknamePrefix(String prefix, List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> out) {
+            map.forEach((key, value) -> {
+                if (hasNicknamePrefix(key, prefix)) {
+                    out.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+                }
+            });
+        }
+    }
+
+    /**
+     * Хеш-таблиця з відкритою адресацією та лінійним пробуванням: ключі та значення чергуються в одному
+     * масиві, а хеш-коди ключів зберігаються в окремому масиві, тому пробування порівнює цілі числа
+     * в сусідніх комірках і викликає equals() лише при збігу хешу. Заповненість не перевищує 1/2;
+     * видалення зсуває наступні записи ланцюжка назад замість позначок видалення. Ключі null не підтримуються.
+     */
+    static final class OpenAddressing implements Representation {
+        private Object[] table;
+        private int[] hashes;
+        private int mask;
+        private int size;
+
+        OpenAddressing(int expectedSize) {
+            int slots = Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1;
+            this.table = new Object[2 * slots];
+            this.hashes = new int[slots];
+            this.mask = slots - 1;
+        }
+
+        private static int hash(Object key) {
+            int h = key.hashCode() * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+
+        /**
+         * Повертає комірку ключа або -(комірка для вставки) - 1, якщо ключа немає.
+         */
+        private int find(Object key, int hash) {
+            for (int i = hash & mask; ; i = (i + 1) & mask) {
+                Object storedKey = table[2 * i];
+                if (storedKey == null) {
+                    return -i - 1;
+                }
+                if (hashes[i] == hash && storedKey.equals(key)) {
+                    return i;
+                }
+            }
+        }
+
+        @Override
+        public Layout layout() {
+            return Layout.OPEN_ADDRESSING;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String get(BasicDataOperationUsingMap.Tortoise key) {
+            int i = find(key, hash(key));
+            return i >= 0 ? (String) table[2 * i + 1] : null;
+        }
+
+        @Override
+        public String put(BasicDataOperationUsingMap.Tortoise key, String owner) {
+            if (key == null) {
+                throw new NullPointerException("Ключі null не підтримуються");
+            }
+            int hash = hash(key);
+            int i = find(key, hash);
+            if (i >= 0) {
+                String previousValue = (String) table[2 * i + 1];
+                table[2 * i + 1] = owner;
+                return previousValue;
+            }
+            i = -i - 1;
+            table[2 * i] = key;
+            table[2 * i + 1] = owner;
+            hashes[i] = hash;
+            if (++size > (mask + 1) / 2) {
+                resize();
+            }
+            return null;
+        }
+
+        @Override
+        public String remove(BasicDataOperationUsingMap.Tortoise key) {
+            int i = find(key, hash(key));
+            if (i < 0) {
+                return null;
+            }
+            String removedValue = (String) table[2 * i + 1];
+            size--;
+            // Зсуваємо назад записи, чия початкова комірка не лежить між звільненою коміркою та їхньою позицією
+            int gap = i;
+            for (int j = (i + 1) & mask; table[2 * j] != null; j = (j + 1) & mask) {
+                int home = hashes[j] & mask;
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    table[2 * gap] = table[2 * j];
+                    table[2 * gap + 1] = table[2 * j + 1];
+                    hashes[gap] = hashes[j];
+                    gap = j;
+                }
+            }
+            table[2 * gap] = null;
+            table[2 * gap + 1] = null;
+            return removedValue;
+        }
+
+        private void resize() {
+            Object[] oldTable = table;
+            int[] oldHashes = hashes;
+            table = new Object[oldTable.length * 2];
+            hashes = new int[oldHashes.length * 2];
+            mask = hashes.length - 1;
+            for (int i = 0; i < oldHashes.length; i++) {
+                Object key = oldTable[2 * i];
+                if (key != null) {
+                    int j = oldHashes[i] & mask;
+                    while (table[2 * j] != null) {
+                        j = (j + 1) & mask;
+                    }
+                    table[2 * j] = key;
+                    table[2 * j + 1] = oldTable[2 * i + 1];
+                    hashes[j] = oldHashes[i];
+                }
+            }
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super BasicDataOperationUsingMap.Tortoise, ? super String> action) {
+            Object[] entries = table;
+            for (int i = 0; i < entries.length; i += 2) {
+                if (entries[i] != null) {
+                    action.accept((BasicDataOperationUsingMap.Tortoise) entries[i], (String) entries[i + 1]);
+                }
+            }
+        }
+
+        @Override
+        public void collectNicknamePrefix(String prefix, List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> out) {
+            forEach((key, value) -> {
+                if (hasNicknamePrefix(key, prefix)) {
+                    out.add(new AbstractMap.SimpleImmutableEntry<>(key, value));
+                }
+            });
+        }
+    }
+
+    /**
+     * Відсортовані за Tortoise.KEY_ORDER масиви ключів і значень: пошук — двійковий, O(log n);
+     * сортування — копіювання; записи з однаковим префіксом клички утворюють суцільний діапазон.
+     * Зміни зсувають хвіст масиву (O(n)), тому представлення вигідне, коли змін мало.
+     */
+    static final class SortedArray implements Representation {
+        private BasicDataOperationUsingMap.Tortoise[] keys;
+        private String[] values;
+        private int size;
+
+        SortedArray(Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] sortedEntries) {
+            int capacity = Math.max(16, sortedEntries.length + sortedEntries.length / 8);
+            this.keys = new BasicDataOperationUsingMap.Tortoise[capacity];
+            this.values = new String[capacity];
+            for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : sortedEntries) {
+                // Рівні за KEY_ORDER ключі (повтори у вхідних записах) зберігаються один раз
+                if (size > 0 && BasicDataOperationUsingMap.Tortoise.KEY_ORDER.compare(keys[size - 1], entry.getKey()) == 0) {
+                    values[size - 1] = entry.getValue();
+                    continue;
+                }
+                keys[size] = entry.getKey();
+                values[size] = entry.getValue();
+                size++;
+            }
+        }
+
+        private int search(BasicDataOperationUsingMap.Tortoise key) {
+            return Arrays.binarySearch(keys, 0, size, key, BasicDataOperationUsingMap.Tortoise.KEY_ORDER);
+        }
+
+        @Override
+        public Layout layout() {
+            return Layout.SORTED_ARRAY;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public String get(BasicDataOperationUsingMap.Tortoise key) {
+            int i = search(key);
+            return i >= 0 ? values[i] : null;
+        }
+
+        @Override
+        public String put(BasicDataOperationUsingMap.Tortoise key, String owner) {
+            int i = search(key);
+            if (i >= 0) {
+                String previousValue = values[i];
+                values[i] = owner;
+                return previousValue;
+            }
+            int insertion = -i - 1;
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size + (size >> 1));
+                values = Arrays.copyOf(values, keys.length);
+            }
+            System.arraycopy(keys, insertion, keys, insertion + 1, size - insertion);
+            System.arraycopy(values, insertion, values, insertion + 1, size - insertion);
+            keys[insertion] = key;
+            values[insertion] = owner;
+            size++;
+            return null;
+        }
+
+        @Override
+        public String remove(BasicDataOperationUsingMap.Tortoise key) {
+            int i = search(key);
+            if (i < 0) {
+                return null;
+            }
+            String removedValue = values[i];
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(values, i + 1, values, i, size - i - 1);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+            return removedValue;
+        }
+
+        @Override
+        public void forEach(BiConsumer<? super BasicDataOperationUsingMap.Tortoise, ? super String> action) {
+            for (int i = 0; i < size; i++) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+
+        @Override
+        public void collectNicknamePrefix(String prefix, List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> out) {
+            // Клички порівнюються першими в KEY_ORDER (null — на початку), тому шукаємо першу кличку >= prefix
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                String nickname = keys[middle].getNickname();
+                if (nickname == null || nickname.compareTo(prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            for (int i = low; i < size && hasNicknamePrefix(keys[i], prefix); i++) {
+                out.add(new AbstractMap.SimpleImmutableEntry<>(keys[i], values[i]));
+            }
+        }
+    }
+}
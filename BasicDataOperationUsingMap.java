@@ -1,9 +1,17 @@
-import java.util.Collections;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Клас BasicDataOperationUsingMap реалізує операції з колекціями типу Map для зберігання пар ключ-значення.
@@ -21,18 +29,92 @@ import java.util.LinkedHashMap;
  * </ul>
  */
 public class BasicDataOperationUsingMap {
+    /**
+     * Мінімальний розмір Map, з якого сортування за ключами виконується паралельно.
+     */
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 16;
+
+    // Кодування консолі, яке використовує System.out: stdout.encoding (JDK 19+), sun.stdout.encoding (JDK 17),
+    // інакше кодування платформи
+    static final Charset CONSOLE_CHARSET = Charset.forName(System.getProperty("stdout.encoding",
+            System.getProperty("sun.stdout.encoding", Charset.defaultCharset().name())));
+
+    /**
+     * Представлення спільного сховища для узагальнених операцій: назва для повідомлень,
+     * порядок обходу записів, чи шукати за ключем через кеш LRU (якщо його ввімкнено)
+     * та ідентифікатори метрик PerformanceTracker для кожної операції.
+     */
+    static final class MapView {
+        final String name;
+        final TortoiseStore.Order order;
+        final boolean cached;
+        final int printMetric;
+        final int sortMetric;
+        final int findByKeyMetric;
+        final int findByValueMetric;
+        final int addMetric;
+        final int removeByKeyMetric;
+        final int removeByValueMetric;
+        final int addBatchMetric;
+        final int removeByKeysMetric;
+        final int removeByValuesMetric;
+        final int findByPrefixMetric;
+        final int findByThicknessMetric;
+        final int dumpMetric;
+        final int thickestMetric;
+        final int topOwnersMetric;
+        final int countByOwnerMetric;
+
+        MapView(String name, TortoiseStore.Order order, boolean cached) {
+            this.name = name;
+            this.order = order;
+            this.cached = cached;
+            this.printMetric = PerformanceTracker.metricId("виведення пар ключ-значення в " + name);
+            this.sortMetric = PerformanceTracker.metricId("сортування " + name + " за ключами");
+            this.findByKeyMetric = PerformanceTracker.metricId("пошук за ключем в " + name);
+            this.findByValueMetric = PerformanceTracker.metricId("пошук за значенням через індекс в " + name);
+            this.addMetric = PerformanceTracker.metricId("додавання запису до " + name);
+            this.removeByKeyMetric = PerformanceTracker.metricId("видалення за ключем з " + name);
+            this.removeByValueMetric = PerformanceTracker.metricId("видалення за значенням з " + name);
+            this.addBatchMetric = PerformanceTracker.metricId("пакетне додавання записів до " + name);
+            this.removeByKeysMetric = PerformanceTracker.metricId("пакетне видалення за ключами з " + name);
+            this.removeByValuesMetric = PerformanceTracker.metricId("пакетне видалення за значеннями з " + name);
+            this.findByPrefixMetric = PerformanceTracker.metricId("пошук за префіксом клички в " + name);
+            this.findByThicknessMetric = PerformanceTracker.metricId("пошук за діапазоном товщини в " + name);
+            this.dumpMetric = PerformanceTracker.metricId("вивантаження " + name + " у канал");
+            this.thickestMetric = PerformanceTracker.metricId("top-K за товщиною панциря в " + name);
+            this.topOwnersMetric = PerformanceTracker.metricId("top-K власників за кількістю записів в " + name);
+            this.countByOwnerMetric = PerformanceTracker.metricId("кількість записів кожного власника в " + name);
+        }
+    }
+
+    // Представлення сховища: HashMap — без гарантованого порядку, LinkedHashMap — в порядку вставки,
+    // а у впорядкованому режимі — в порядку ключів. Метрики впорядкованого режиму збігаються з LinkedHashMap.
+    // Кеш LRU обслуговує лише пошук за ключем у LinkedHashMap.
+    static final MapView HASH_MAP_VIEW = new MapView("HashMap", TortoiseStore.Order.UNORDERED, false);
+    static final MapView LINKED_HASH_MAP_VIEW = new MapView("LinkedHashMap", TortoiseStore.Order.INSERTION, true);
+    static final MapView ORDERED_LINKED_HASH_MAP_VIEW = new MapView("LinkedHashMap", TortoiseStore.Order.KEY, true);
+
     private final Tortoise KEY_TO_SEARCH_AND_DELETE = new Tortoise("Броня", "shellThickness=3.1");
     private final Tortoise KEY_TO_ADD = new Tortoise("Казка", "shellThickness=3.3");
 
     private final String VALUE_TO_SEARCH_AND_DELETE = "Микола";
     private final String VALUE_TO_ADD = "Аркадій";
 
-    private HashMap<Tortoise, String> HashMap;
-    private LinkedHashMap<Tortoise, String> LinkedHashMap;
+    // Єдине сховище записів, спільне для представлень HashMap та LinkedHashMap
+    private final TortoiseStore store;
+
+    // Представлення для методів LinkedHashMap (ORDERED_LINKED_HASH_MAP_VIEW у впорядкованому режимі)
+    private MapView linkedHashMapView = LINKED_HASH_MAP_VIEW;
+
+    // Багаторазовий writer для виведення Map у консоль (створюється під час першого виведення)
+    private MapDumpWriter consoleWriter;
 
     /**
      * Компаратор для сортування Map.Entry за значеннями String.
      * Використовує метод String.compareTo() для порівняння імен власників.
+     * Пошук за значенням тепер виконується через OwnerIndex; компаратор залишено
+     * для сортування за значеннями та порівняльних бенчмарків.
      */
     static class OwnerValueComparator implements Comparator<Map.Entry<Tortoise, String>> {
         @Override
@@ -53,17 +135,47 @@ public class BasicDataOperationUsingMap {
      * Природний порядок: спочатку за кличкою (nickname) за зростанням, потім за видом (species) за спаданням.
      */
     public static class Tortoise implements Comparable<Tortoise> {
+        /**
+         * Режим розбору атрибутів species.
+         * EAGER — shellThickness розбирається в конструкторі;
+         * LAZY — під час першого звернення (наприклад, першого порівняння).
+         */
+        public enum ParseMode { EAGER, LAZY }
+
+        /**
+         * Повний порядок ключів для відсортованих структур (TreeMap): природний порядок compareTo(),
+         * а при рівності — species як рядок, щоб ключі, нерівні за equals() (наприклад,
+         * "shellThickness=3.1" та "shellThickness=3.10"), не зливалися в один.
+         */
+        static final Comparator<Tortoise> KEY_ORDER = Comparator.<Tortoise>naturalOrder()
+                .thenComparing(Tortoise::getSpecies, Comparator.nullsFirst(Comparator.naturalOrder()));
+
         private final String nickname;
         private final String species;
 
+        // Розібране значення shellThickness; публікується через volatile-прапорець
+        private double shellThickness;
+        private volatile boolean shellThicknessParsed;
+
+        // Кешований хеш-код (аналогічно String: 0 обчислюється повторно лише якщо hashIsZero == false)
+        private int hash;
+        private boolean hashIsZero;
+
         public Tortoise(String nickname) {
-            this.nickname = nickname;
-            this.species = null;
+            this(nickname, null, ParseMode.EAGER);
         }
 
         public Tortoise(String nickname, String species) {
+            this(nickname, species, ParseMode.EAGER);
+        }
+
+        public Tortoise(String nickname, String species, ParseMode parseMode) {
             this.nickname = nickname;
             this.species = species;
+            if (parseMode == ParseMode.EAGER) {
+                this.shellThickness = parseShellThickness(species);
+                this.shellThicknessParsed = true;
+            }
         }
 
         public String getNickname() { 
@@ -74,6 +186,20 @@ public class BasicDataOperationUsingMap {
             return species;
         }
 
+        /**
+         * Повертає товщину панциря, розібрану з species ("shellThickness=3.1").
+         * Рядок розбирається щонайбільше один раз, тому метод не виділяє пам'ять на гарячому шляху.
+         *
+         * @return товщина панциря або Double.MIN_VALUE, якщо її не вдалося розібрати
+         */
+        public double getShellThickness() {
+            if (!shellThicknessParsed) {
+                shellThickness = parseShellThickness(species);
+                shellThicknessParsed = true;
+            }
+            return shellThickness;
+        }
+
         /**
          * Порівнює цей об'єкт Pet з іншим для визначення порядку сортування.
          * Природний порядок: спочатку за кличкою (nickname) за зростанням, потім за видом (species) за спаданням.
@@ -110,17 +236,16 @@ public class BasicDataOperationUsingMap {
                 return nicknameComparison;
             }
 
-            // Товщина панциря (shellThickness) — за зростанням
-            double thicknessThis = parseShellThickness(this.species);
-            double thicknessOther = parseShellThickness(other.species);
-            return Double.compare(thicknessThis, thicknessOther);
+            // Товщина панциря (shellThickness) — за зростанням, використовуємо вже розібрані значення
+            return Double.compare(this.getShellThickness(), other.getShellThickness());
         }
 
         /**
          * Парсить значення shellThickness з рядка species типу "shellThickness=3.1".
          * Якщо не вдалося розпарсити, повертає Double.MIN_VALUE.
+         * Викликається один раз на об'єкт — див. getShellThickness().
          */
-        private static double parseShellThickness(String species) {
+        static double parseShellThickness(String species) {
             if (species == null) return Double.MIN_VALUE;
             try {
                 int idx = species.indexOf("shellThickness=");
@@ -167,9 +292,28 @@ public class BasicDataOperationUsingMap {
          * 
          * Важливо: узгоджений з equals() - якщо два Pet рівні за equals()
          * (мають однакові nickname та species), вони матимуть однаковий hashCode().
+         * Хеш-код обчислюється один раз і кешується, оскільки поля незмінні.
+         * З -Dtortoise.hash=mixed використовується SipHash з випадковим ключем (див. TortoiseHashing).
          */
         @Override
         public int hashCode() {
+            int h = hash;
+            if (h == 0 && !hashIsZero) {
+                h = computeHashCode();
+                if (h == 0) {
+                    hashIsZero = true;
+                } else {
+                    hash = h;
+                }
+            }
+            return h;
+        }
+
+        private int computeHashCode() {
+            if (TortoiseHashing.MODE == TortoiseHashing.Mode.MIXED) {
+                return TortoiseHashing.mixedHash(nickname, species);
+            }
+
             // Початкове значення: хеш-код поля nickname (або 0, якщо nickname == null)
             int result = nickname != null ? nickname.hashCode() : 0;
             
@@ -194,384 +338,940 @@ public class BasicDataOperationUsingMap {
             }
             return "Tortoise{nickname='" + nickname + "', hashCode=" + hashCode() + "}";
         }
+
+        /**
+         * Записує в out той самий текст, що й toString(), без створення проміжних String.
+         * Використовується для вивантаження великих Map через MapDumpWriter.
+         *
+         * @param out призначення (MapDumpWriter, StringBuilder тощо)
+         */
+        public void appendTo(Appendable out) throws IOException {
+            out.append("Tortoise{nickname='").append(nickname);
+            if (species != null) {
+                out.append("', species='").append(species);
+            }
+            out.append("', hashCode=");
+            MapDumpWriter.appendInt(out, hashCode());
+            out.append('}');
+        }
     }
 
     /**
      * Конструктор, який ініціалізує об'єкт з готовими даними.
+     * Записи копіюються в єдине сховище TortoiseStore, над яким працюють і методи HashMap,
+     * і методи LinkedHashMap, тому кожна зміна виконується один раз.
      * 
-     * @param hashtable Hashtable з початковими даними (ключ: Pet, значення: ім'я власника)
-     * @param treeMap TreeMap з початковими даними (ключ: Pet, значення: ім'я власника)
+     * @param initial початкові дані (ключ: Tortoise, значення: ім'я власника)
      */
-    BasicDataOperationUsingMap(HashMap<Tortoise, String> HashMap, LinkedHashMap<Tortoise, String> LinkedHashMap) {
-        this.HashMap = HashMap;
-        this.LinkedHashMap = LinkedHashMap;
+    BasicDataOperationUsingMap(Map<Tortoise, String> initial) {
+        this.store = new TortoiseStore(initial);
+    }
+
+    /**
+     * Розраховує початкову ємність HashMap/LinkedHashMap, за якої expectedSize записів
+     * поміщаються без розширення таблиці.
+     */
+    static int capacityFor(int expectedSize) {
+        return (int) Math.min(1 << 30, (long) (expectedSize / 0.75f) + 1);
+    }
+
+    /**
+     * Виводить записи в System.out через багаторазовий MapDumpWriter у кодуванні консолі.
+     * Writer перемикається на поточний System.out при кожному виклику, тому заміна System.out
+     * (наприклад, у бенчмарках) враховується.
+     */
+    private void dumpToConsole(Iterable<Map.Entry<Tortoise, String>> entries) {
+        try {
+            WritableByteChannel console = Channels.newChannel(System.out);
+            if (consoleWriter == null) {
+                consoleWriter = new MapDumpWriter(console, CONSOLE_CHARSET);
+            } else {
+                consoleWriter.retarget(console);
+            }
+            consoleWriter.writeAll(entries);
+            consoleWriter.flush();
+            System.out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Вмикає впорядкований режим для LinkedHashMap.
+     *
+     * <p>У цьому режимі методи LinkedHashMap працюють з відсортованим представленням сховища:
+     * виведення завжди йде в порядку ключів Tortoise, а sortLinkedHashMap() не перебудовує сховище.
+     * Окрема копія записів не створюється — порядок ключів підтримується навігаційним індексом
+     * сховища, який оновлюється за O(log n) при кожній зміні, тому обхід не потребує сортування.
+     * Пошук за ключем і далі виконується за O(1).</p>
+     */
+    void enableOrderedMode() {
+        linkedHashMapView = ORDERED_LINKED_HASH_MAP_VIEW;
+    }
+
+    /**
+     * Вмикає кеш LRU перед пошуком за ключем у LinkedHashMap.
+     *
+     * <p>findByKeyInLinkedHashMap() спочатку звертається до кешу і лише при промаху шукає у сховищі,
+     * додаючи знайдений запис до кешу. Додавання та видалення записів видаляють
+     * відповідні ключі з кешу (через будь-яке представлення), тому кеш ніколи не повертає
+     * застарілого значення. Пошук у HashMap кеш не використовує.</p>
+     *
+     * @param maxSize максимальна кількість записів у кеші
+     * @param evictionListener викликається для кожного витісненого запису
+     * @return кеш (для читання лічильників влучань, промахів та витіснень)
+     */
+    LruCache<Tortoise, String> enableLinkedHashMapCache(int maxSize, BiConsumer<? super Tortoise, ? super String> evictionListener) {
+        LruCache<Tortoise, String> cache = new LruCache<>(maxSize, evictionListener);
+        store.setCache(cache);
+        return cache;
+    }
+
+    /**
+     * Підключає журнал змін сховища: кожне додавання та видалення спочатку записується в журнал,
+     * а операція завершується відповідно до політики fsync журналу.
+     */
+    void attachLog(MutationLog log) {
+        store.setLog(log);
+    }
+
+    /**
+     * Повертає сховище, спільне для всіх представлень.
+     */
+    TortoiseStore getStore() {
+        return store;
     }
     
     /**
      * Виконує комплексні операції з Map.
      * 
      * Метод виконує різноманітні операції з Map: пошук, додавання, видалення та сортування.
+     * Операції LinkedHashMap виконуються над окремою копією початкових записів, тому зміни,
+     * зроблені в розділі HashMap, на них не впливають.
      */
     public void executeDataOperations() {
+        // Копія початкових записів для розділу LinkedHashMap (у порядку вставки)
+        LinkedHashMap<Tortoise, String> initial = new LinkedHashMap<>(capacityFor(store.size()));
+        for (Map.Entry<Tortoise, String> entry : store.entries(TortoiseStore.Order.INSERTION)) {
+            initial.put(entry.getKey(), entry.getValue());
+        }
+
         // Спочатку працюємо з Hashtable
         System.out.println("========= Операції з HashMap =========");
-        System.out.println("Початковий розмір HashMap: " + HashMap.size());
+        System.out.println("Початковий розмір HashMap: " + store.size());
         
         // Пошук до сортування
         findByKeyInHashMap();
         findByValueInHashMap();
 
         printHashMap();
-        sortHashMap();
-        printHashMap();
+        // HashMap не має порядку, тому сортування повертає записи в порядку ключів, не змінюючи сховища
+        System.out.println("\n=== Пари ключ-значення в HashMap за ключами ===");
+        dumpToConsole(sortHashMap());
 
         // Пошук після сортування
         findByKeyInHashMap();
         findByValueInHashMap();
 
+        // Запити за префіксом клички та діапазоном товщини панциря
+        findByNicknamePrefixInHashMap("Бр").forEach(entry ->
+                System.out.println("Кличка починається з 'Бр': " + entry.getKey() + ", власник: " + entry.getValue()));
+        findByShellThicknessRangeInHashMap(2.5, 3.5).forEach(entry ->
+                System.out.println("Товщина панциря від 2.5 до 3.5: " + entry.getKey() + ", власник: " + entry.getValue()));
+
+        // Агрегати, що підтримуються інкрементально
+        findThickestInHashMap(3).forEach(entry ->
+                System.out.println("Найтовстіший панцир: " + entry.getKey() + ", власник: " + entry.getValue()));
+        findTopOwnersInHashMap(2).forEach(entry ->
+                System.out.println("Власник з найбільшою кількістю черепах: " + entry.getKey() + " (" + entry.getValue() + ")"));
+
         addEntryToHashMap();
         
         removeByKeyFromHashMap();
         removeByValueFromHashMap();
                
-        System.out.println("Кінцевий розмір HashMap: " + HashMap.size());
+        System.out.println("Кінцевий розмір HashMap: " + store.size());
+
+        // Потім обробляємо LinkedHashMap, починаючи з тих самих початкових записів
+        BasicDataOperationUsingMap linked = new BasicDataOperationUsingMap(initial);
+        linked.linkedHashMapView = linkedHashMapView;
 
-        // Потім обробляємо TreeMap
         System.out.println("\n\n========= Операції з LinkedHashMap =========");
-        System.out.println("Початковий розмір LinkedHashMap: " + LinkedHashMap.size());
+        System.out.println("Початковий розмір LinkedHashMap: " + linked.store.size());
         
-        findByKeyInLinkedHashMap();
-        findByValueInLinkedHashMap();
+        linked.findByKeyInLinkedHashMap();
+        linked.findByValueInLinkedHashMap();
 
-        printLinkedHashMap();
+        linked.printLinkedHashMap();
         // Сортування LinkedHashMap за ключами (природний порядок Tortoise)
-        sortLinkedHashMap();
-        printLinkedHashMap();
+        linked.sortLinkedHashMap();
+        linked.printLinkedHashMap();
 
-        addEntryToLinkedHashMap();
+        linked.addEntryToLinkedHashMap();
         
-        removeByKeyFromLinkedHashMap();
-        removeByValueFromLinkedHashMap();
+        linked.removeByKeyFromLinkedHashMap();
+        linked.removeByValueFromLinkedHashMap();
         
-        System.out.println("Кінцевий розмір LinkedHashMap: " + LinkedHashMap.size());
+        System.out.println("Кінцевий розмір LinkedHashMap: " + linked.store.size());
     }
 
-
-    // ===== Методи для Hashtable =====
+    // ===== Узагальнені операції над представленнями сховища =====
 
     /**
-     * Виводить вміст Hashtable без сортування.
-     * Hashtable не гарантує жодного порядку елементів.
+     * Виводить записи представлення в порядку його обходу.
      */
-    private void printHashMap() {
-        System.out.println("\n=== Пари ключ-значення в HashMap ===");
+    void print(MapView view) {
+        System.out.println("\n=== Пари ключ-значення в " + view.name + " ===");
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        for (Map.Entry<Tortoise, String> entry : HashMap.entrySet()) {
-            System.out.println("  " + entry.getKey() + " -> " + entry.getValue());
-        }
+        dumpToConsole(store.entries(view.order));
 
-        PerformanceTracker.displayOperationTime(timeStart, "виведення пари ключ-значення в HashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.printMetric);
+        MapOperationEvent.finish(event, view.printMetric, view.name, store.size(), store.size());
     }
 
     /**
-     * Сортує Hashtable за ключами.
-     * Використовує Collections.sort() з природним порядком Pet (Pet.compareTo()).
-     * Перезаписує hashtable відсортованими даними.
+     * Вивантажує записи представлення у канал через MapDumpWriter без виділення пам'яті на кожен запис.
+     *
+     * @param writer writer з потрібним каналом та форматом (текстовий або двійковий)
+     * @return кількість вивантажених записів
      */
-    private void sortHashMap() {
+    int dump(MapView view, MapDumpWriter writer) throws IOException {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        // Створюємо список ключів і сортуємо за природним порядком Pet
-        LinkedList<Tortoise> sortedKeys = new LinkedList<>(HashMap.keySet());
-        Collections.sort(sortedKeys);
-        
-        // Створюємо нову Hashtable з відсортованими ключами
-        HashMap<Tortoise, String> sortedHashMap = new HashMap<>();
-        for (Tortoise key : sortedKeys) {
-            sortedHashMap.put(key, HashMap.get(key));
-        }
-        
-        // Перезаписуємо оригінальну hashtable
-        HashMap = sortedHashMap;
+        int count = writer.writeAll(store.entries(view.order));
+        writer.flush();
 
-        PerformanceTracker.displayOperationTime(timeStart, "сортування HashMap за ключами");
+        PerformanceTracker.recordOperationTime(timeStart, view.dumpMetric);
+        MapOperationEvent.finish(event, view.dumpMetric, view.name, store.size(), count);
+        return count;
     }
 
     /**
-     * Сортує LinkedHashMap за ключами за природним порядком Tortoise.
-     * Перезаписує LinkedHashMap відсортованими даними.
+     * Повертає записи представлення в порядку ключів за природним порядком Tortoise.
+     *
+     * <p>Для представлення з порядком вставки (LinkedHashMap) сховище перебудовується так, щоб порядок
+     * вставки збігався з порядком ключів. Представлення без порядку (HashMap) не змінює спільного
+     * сховища: повертаються записи в порядку ключів, а порядок вставки для LinkedHashMap зберігається.
+     * Відсортоване представлення вже підтримує порядок ключів, тому для нього перебудова не виконується.</p>
+     *
+     * @return записи в порядку ключів; їх не можна змінювати, а сховище — поки обхід не завершено
      */
-    private void sortLinkedHashMap() {
+    Iterable<Map.Entry<Tortoise, String>> sort(MapView view) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        LinkedList<Tortoise> sortedKeys = new LinkedList<>(LinkedHashMap.keySet());
-        Collections.sort(sortedKeys);
-
-        LinkedHashMap<Tortoise, String> sorted = new LinkedHashMap<>();
-        for (Tortoise key : sortedKeys) {
-            sorted.put(key, LinkedHashMap.get(key));
+        Iterable<Map.Entry<Tortoise, String>> sorted;
+        if (view.order == TortoiseStore.Order.INSERTION) {
+            store.sortByKey();
+            sorted = store.entries(TortoiseStore.Order.INSERTION);
+        } else {
+            sorted = store.entries(TortoiseStore.Order.KEY);
         }
 
-        LinkedHashMap = sorted;
-
-        PerformanceTracker.displayOperationTime(timeStart, "сортування LinkedHashMap за ключами");
+        PerformanceTracker.recordOperationTime(timeStart, view.sortMetric);
+        MapOperationEvent.finish(event, view.sortMetric, view.name, store.size(), store.size());
+        return sorted;
     }
 
     /**
-     * Здійснює пошук елемента за ключем в Hashtable.
-     * Використовує Pet.hashCode() та Pet.equals() для пошуку.
+     * Здійснює пошук елемента за ключем (Tortoise.hashCode() та Tortoise.equals()).
+     *
+     * @param key ключ Tortoise для пошуку
+     * @return ім'я власника або null, якщо ключ відсутній
      */
-    void findByKeyInHashMap() {
+    String findByKey(MapView view, Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        boolean found = HashMap.containsKey(KEY_TO_SEARCH_AND_DELETE);
+        String value = view.cached ? store.getCached(key) : store.get(key);
+        boolean found = value != null || store.containsKey(key);
 
-        PerformanceTracker.displayOperationTime(timeStart, "пошук за ключем в HashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.findByKeyMetric);
+        MapOperationEvent.finish(event, view.findByKeyMetric, view.name, store.size(), found ? 1 : 0);
 
         if (found) {
-            String value = HashMap.get(KEY_TO_SEARCH_AND_DELETE);
-            System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' знайдено. Власник: " + value);
+            System.out.println("Елемент з ключем '" + key + "' знайдено. Власник: " + value);
         } else {
-            System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' відсутній в HashMap.");
+            System.out.println("Елемент з ключем '" + key + "' відсутній в " + view.name + ".");
         }
+
+        return value;
     }
 
     /**
-     * Здійснює пошук елемента за значенням в Hashtable.
-     * Сортує список Map.Entry за значеннями та використовує бінарний пошук.
+     * Здійснює пошук елемента за значенням.
+     * Використовує зворотний індекс власників: O(1) плюс кількість знайдених ключів.
+     *
+     * @param owner ім'я власника
+     * @return незмінна множина знайдених ключів
      */
-    void findByValueInHashMap() {
+    Set<Tortoise> findByValue(MapView view, String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        // Створюємо список Entry та сортуємо за значеннями
-        LinkedList<Map.Entry<Tortoise, String>> entries = new LinkedList<>(HashMap.entrySet());
-        OwnerValueComparator comparator = new OwnerValueComparator();
-        Collections.sort(entries, comparator);
-
-        // Створюємо тимчасовий Entry для пошуку
-        Map.Entry<Tortoise, String> searchEntry = new Map.Entry<Tortoise, String>() {
-            public Tortoise getKey() { return null; }
-            public String getValue() { return VALUE_TO_SEARCH_AND_DELETE; }
-            public String setValue(String value) { return null; }
-        };
-
-        int position = Collections.binarySearch(entries, searchEntry, comparator);
+        Set<Tortoise> keys = store.findByOwner(owner);
 
-        PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук за значенням в HashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.findByValueMetric);
+        MapOperationEvent.finish(event, view.findByValueMetric, view.name, store.size(), keys.size());
 
-        if (position >= 0) {
-            Map.Entry<Tortoise, String> foundEntry = entries.get(position);
-            System.out.println("Власника '" + VALUE_TO_SEARCH_AND_DELETE + "' знайдено. Tortoise: " + foundEntry.getKey());
+        if (!keys.isEmpty()) {
+            System.out.println("Власника '" + owner + "' знайдено. Tortoise: " + keys.iterator().next());
         } else {
-            System.out.println("Власник '" + VALUE_TO_SEARCH_AND_DELETE + "' відсутній в HashMap.");
+            System.out.println("Власник '" + owner + "' відсутній в " + view.name + ".");
         }
+
+        return keys;
     }
 
     /**
-     * Додає новий запис до Hashtable.
+     * Додає новий запис або замінює власника існуючого ключа.
+     *
+     * @param key ключ Tortoise
+     * @param owner ім'я власника
+     * @return попереднє значення ключа або null
      */
-    void addEntryToHashMap() {
+    String addEntry(MapView view, Tortoise key, String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        HashMap.put(KEY_TO_ADD, VALUE_TO_ADD);
+        String previousValue = store.put(key, owner);
 
-        PerformanceTracker.displayOperationTime(timeStart, "додавання запису до HashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.addMetric);
+        MapOperationEvent.finish(event, view.addMetric, view.name, store.size(), 1);
 
-        System.out.println("Додано новий запис: Tortoise='" + KEY_TO_ADD + "', власник='" + VALUE_TO_ADD + "'");
+        System.out.println("Додано новий запис: Tortoise='" + key + "', власник='" + owner + "'");
+
+        return previousValue;
     }
 
     /**
-     * Видаляє запис з Hashtable за ключем.
+     * Видаляє запис за ключем.
+     *
+     * @param key ключ Tortoise для видалення
+     * @return видалене значення або null, якщо ключ відсутній
      */
-    void removeByKeyFromHashMap() {
+    String removeByKey(MapView view, Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        String removedValue = HashMap.remove(KEY_TO_SEARCH_AND_DELETE);
+        String removedValue = store.remove(key);
 
-        PerformanceTracker.displayOperationTime(timeStart, "видалення за ключем з HashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.removeByKeyMetric);
+        MapOperationEvent.finish(event, view.removeByKeyMetric, view.name, store.size(), removedValue != null ? 1 : 0);
 
         if (removedValue != null) {
-            System.out.println("Видалено запис з ключем '" + KEY_TO_SEARCH_AND_DELETE + "'. Власник був: " + removedValue);
+            System.out.println("Видалено запис з ключем '" + key + "'. Власник був: " + removedValue);
         } else {
-            System.out.println("Ключ '" + KEY_TO_SEARCH_AND_DELETE + "' не знайдено для видалення.");
+            System.out.println("Ключ '" + key + "' не знайдено для видалення.");
         }
+
+        return removedValue;
     }
 
     /**
-     * Видаляє записи з Hashtable за значенням.
+     * Видаляє записи за значенням.
+     * Індекс власників одразу повертає всі ключі без повного проходу по сховищу.
+     *
+     * @param owner ім'я власника
+     * @return кількість видалених записів
      */
-    void removeByValueFromHashMap() {
+    int removeByValue(MapView view, String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        LinkedList<Tortoise> keysToRemove = new LinkedList<>();
-        for (Map.Entry<Tortoise, String> entry : HashMap.entrySet()) {
-            if (entry.getValue() != null && entry.getValue().equals(VALUE_TO_SEARCH_AND_DELETE)) {
-                keysToRemove.add(entry.getKey());
-            }
-        }
-        
-        for (Tortoise key : keysToRemove) {
-            HashMap.remove(key);
-        }
+        Set<Tortoise> removedKeys = store.removeOwner(owner);
+
+        PerformanceTracker.recordOperationTime(timeStart, view.removeByValueMetric);
+        MapOperationEvent.finish(event, view.removeByValueMetric, view.name, store.size(), removedKeys.size());
 
-        PerformanceTracker.displayOperationTime(timeStart, "видалення за значенням з HashMap");
+        System.out.println("Видалено " + removedKeys.size() + " записів з власником '" + owner + "'");
 
-        System.out.println("Видалено " + keysToRemove.size() + " записів з власником '" + VALUE_TO_SEARCH_AND_DELETE + "'");
+        return removedKeys.size();
     }
 
-    // ===== Методи для TreeMap =====
+    /**
+     * Додає пакет записів. Тривалість записується один раз на весь пакет.
+     * Якщо пакет більший за поточний розмір сховища, таблиця один раз перебудовується з ємністю
+     * для всіх записів замість кількох послідовних розширень під час додавання.
+     *
+     * @param entries записи (ключ: Tortoise, значення: ім'я власника)
+     * @return кількість нових ключів (заміни значень існуючих ключів не враховуються)
+     */
+    int addEntries(MapView view, Collection<? extends Map.Entry<Tortoise, String>> entries) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        int added = store.putAll(entries);
+
+        PerformanceTracker.recordOperationTime(timeStart, view.addBatchMetric);
+        MapOperationEvent.finish(event, view.addBatchMetric, view.name, store.size(), entries.size());
+
+        System.out.println("Додано пакет з " + entries.size() + " записів до " + view.name + ", нових ключів: " + added);
+
+        return added;
+    }
 
     /**
-     * Виводить вміст TreeMap.
-     * TreeMap автоматично відсортована за ключами (Pet nickname за зростанням, species за спаданням).
+     * Видаляє пакет ключів. Тривалість записується один раз на весь пакет.
+     *
+     * @param keys ключі Tortoise для видалення
+     * @return кількість видалених записів
      */
-    private void printLinkedHashMap() {
-        System.out.println("\n=== Пари ключ-значення в LinkedHashMap ===");
+    int removeByKeys(MapView view, Collection<Tortoise> keys) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        int removed = store.removeAll(keys);
+
+        PerformanceTracker.recordOperationTime(timeStart, view.removeByKeysMetric);
+        MapOperationEvent.finish(event, view.removeByKeysMetric, view.name, store.size(), removed);
+
+        System.out.println("Видалено " + removed + " з " + keys.size() + " ключів пакета з " + view.name);
+
+        return removed;
+    }
 
+    /**
+     * Видаляє всі записи, власник яких входить до пакета власників.
+     * Ключі кожного власника беруться з індексу власників, тому весь пакет обробляється
+     * за кількість видалених записів без жодного проходу по сховищу.
+     *
+     * @param owners імена власників
+     * @return кількість видалених записів
+     */
+    int removeByValues(MapView view, Collection<String> owners) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
-        for (Map.Entry<Tortoise, String> entry : LinkedHashMap.entrySet()) {
-            System.out.println("  " + entry.getKey() + " -> " + entry.getValue());
-        }
 
-        PerformanceTracker.displayOperationTime(timeStart, "виведення пар ключ-значення в TreeMap");
+        int removed = store.removeOwners(owners);
+
+        PerformanceTracker.recordOperationTime(timeStart, view.removeByValuesMetric);
+        MapOperationEvent.finish(event, view.removeByValuesMetric, view.name, store.size(), removed);
+
+        System.out.println("Видалено " + removed + " записів " + owners.size() + " власників пакета з " + view.name);
+
+        return removed;
     }
 
     /**
-     * Здійснює пошук елемента за ключем в TreeMap.
-     * Використовує Pet.compareTo() для навігації по дереву.
+     * Повертає записи, кличка яких починається з prefix, у природному порядку Tortoise.
+     * Під час першого виклику будується TortoiseNavigableIndex, який далі оновлюється
+     * при кожній зміні сховища; кожен наступний запит коштує O(log n + k).
+     *
+     * @param prefix префікс клички, наприклад "Бр"
+     * @return записи (ключ: Tortoise, значення: ім'я власника)
+     * @see #findByNicknamePrefix(MapView, String, int)
      */
-    void findByKeyInLinkedHashMap() {
+    List<Map.Entry<Tortoise, String>> findByNicknamePrefix(MapView view, String prefix) {
+        return findByNicknamePrefix(view, prefix, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Повертає не більше limit перших записів, кличка яких починається з prefix, у природному
+     * порядку Tortoise. Обхід індексу зупиняється після limit записів, тому запит коштує
+     * O(log n + limit) незалежно від кількості відповідних записів. Тривалість вимірюється
+     * разом з читанням записів з індексу.
+     *
+     * @param prefix префікс клички, наприклад "Бр"
+     * @param limit максимальна кількість записів
+     * @return записи (ключ: Tortoise, значення: ім'я власника)
+     */
+    List<Map.Entry<Tortoise, String>> findByNicknamePrefix(MapView view, String prefix, int limit) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        boolean found = LinkedHashMap.containsKey(KEY_TO_SEARCH_AND_DELETE);
+        List<Map.Entry<Tortoise, String>> result = store.byNicknamePrefix(prefix).limit(limit).collect(Collectors.toList());
 
-        PerformanceTracker.displayOperationTime(timeStart, "пошук за ключем в LinkedHashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.findByPrefixMetric);
+        MapOperationEvent.finish(event, view.findByPrefixMetric, view.name, store.size(), result.size());
 
-        if (found) {
-            String value = LinkedHashMap.get(KEY_TO_SEARCH_AND_DELETE);
-            System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' знайдено. Власник: " + value);
-        } else {
-            System.out.println("Елемент з ключем '" + KEY_TO_SEARCH_AND_DELETE + "' відсутній в LinkedHashMap.");
-        }
+        return result;
     }
 
     /**
-     * Здійснює пошук елемента за значенням в TreeMap.
-     * Сортує список Map.Entry за значеннями та використовує бінарний пошук.
+     * Повертає записи з товщиною панциря в діапазоні [from, to], упорядковані за товщиною.
+     *
+     * @param from нижня межа shellThickness (включно)
+     * @param to верхня межа shellThickness (включно)
+     * @return записи (ключ: Tortoise, значення: ім'я власника)
+     * @see #findByNicknamePrefix(MapView, String)
      */
-    void findByValueInLinkedHashMap() {
+    List<Map.Entry<Tortoise, String>> findByShellThicknessRange(MapView view, double from, double to) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        // Створюємо список Entry та сортуємо за значеннями
-        LinkedList<Map.Entry<Tortoise, String>> entries = new LinkedList<>(LinkedHashMap.entrySet());
-        OwnerValueComparator comparator = new OwnerValueComparator();
-        Collections.sort(entries, comparator);
+        List<Map.Entry<Tortoise, String>> result = store.byShellThicknessRange(from, to).collect(Collectors.toList());
 
-        // Створюємо тимчасовий Entry для пошуку
-        Map.Entry<Tortoise, String> searchEntry = new Map.Entry<Tortoise, String>() {
-            public Tortoise getKey() { return null; }
-            public String getValue() { return VALUE_TO_SEARCH_AND_DELETE; }
-            public String setValue(String value) { return null; }
-        };
+        PerformanceTracker.recordOperationTime(timeStart, view.findByThicknessMetric);
+        MapOperationEvent.finish(event, view.findByThicknessMetric, view.name, store.size(), result.size());
 
-        int position = Collections.binarySearch(entries, searchEntry, comparator);
+        return result;
+    }
 
-        PerformanceTracker.displayOperationTime(timeStart, "бінарний пошук за значенням в LinkedHashMap");
+    /**
+     * Повертає k записів з найбільшою товщиною панциря, за спаданням товщини.
+     * Використовує навігаційний індекс сховища, що оновлюється при кожній зміні,
+     * тому запит коштує O(log n + k) без сортування чи повного проходу.
+     *
+     * @param k максимальна кількість записів
+     * @return записи (ключ: Tortoise, значення: ім'я власника)
+     */
+    List<Map.Entry<Tortoise, String>> findThickest(MapView view, int k) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
 
-        if (position >= 0) {
-            Map.Entry<Tortoise, String> foundEntry = entries.get(position);
-            System.out.println("Власника '" + VALUE_TO_SEARCH_AND_DELETE + "' знайдено. Tortoise: " + foundEntry.getKey());
-        } else {
-            System.out.println("Власник '" + VALUE_TO_SEARCH_AND_DELETE + "' відсутній в LinkedHashMap.");
-        }
+        List<Map.Entry<Tortoise, String>> result = store.thickest(k).collect(Collectors.toList());
+
+        PerformanceTracker.recordOperationTime(timeStart, view.thickestMetric);
+        MapOperationEvent.finish(event, view.thickestMetric, view.name, store.size(), result.size());
+
+        return result;
     }
 
     /**
-     * Додає новий запис до TreeMap.
+     * Повертає до k власників з найбільшою кількістю записів, за спаданням кількості.
+     * Кошики "кількість -> власники" оновлюються разом з індексом власників,
+     * тому запит коштує O(log c + k) без підрахунку.
+     *
+     * @param k максимальна кількість власників
+     * @return пари (власник, кількість записів)
      */
-    void addEntryToLinkedHashMap() {
+    List<Map.Entry<String, Integer>> findTopOwners(MapView view, int k) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        LinkedHashMap.put(KEY_TO_ADD, VALUE_TO_ADD);
+        List<Map.Entry<String, Integer>> result = store.topOwners(k);
 
-        PerformanceTracker.displayOperationTime(timeStart, "додавання запису до LinkedHashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.topOwnersMetric);
+        MapOperationEvent.finish(event, view.topOwnersMetric, view.name, store.size(), result.size());
 
-        System.out.println("Додано новий запис: Tortoise='" + KEY_TO_ADD + "', власник='" + VALUE_TO_ADD + "'");
+        return result;
     }
 
     /**
-     * Видаляє запис з TreeMap за ключем.
+     * Повертає кількість записів кожного власника з індексу власників,
+     * за кількість власників без проходу по записах.
      */
-    void removeByKeyFromLinkedHashMap() {
+    Map<String, Integer> countByOwner(MapView view) {
+        MapOperationEvent event = MapOperationEvent.start();
         long timeStart = System.nanoTime();
 
-        String removedValue = LinkedHashMap.remove(KEY_TO_SEARCH_AND_DELETE);
+        Map<String, Integer> result = store.countByOwner();
 
-        PerformanceTracker.displayOperationTime(timeStart, "видалення за ключем з LinkedHashMap");
+        PerformanceTracker.recordOperationTime(timeStart, view.countByOwnerMetric);
+        MapOperationEvent.finish(event, view.countByOwnerMetric, view.name, store.size(), result.size());
 
-        if (removedValue != null) {
-            System.out.println("Видалено запис з ключем '" + KEY_TO_SEARCH_AND_DELETE + "'. Власник був: " + removedValue);
-        } else {
-            System.out.println("Ключ '" + KEY_TO_SEARCH_AND_DELETE + "' не знайдено для видалення.");
-        }
+        return result;
+    }
+
+    // ===== Методи для Hashtable =====
+
+    /**
+     * Виводить вміст HashMap без гарантованого порядку.
+     */
+    void printHashMap() {
+        print(HASH_MAP_VIEW);
     }
 
     /**
-     * Видаляє записи з TreeMap за значенням.
+     * @see #dump(MapView, MapDumpWriter)
+     */
+    int dumpHashMap(MapDumpWriter writer) throws IOException {
+        return dump(HASH_MAP_VIEW, writer);
+    }
+
+    /**
+     * Повертає записи HashMap у порядку ключів, не змінюючи сховища.
+     *
+     * @see #sort(MapView)
+     */
+    Iterable<Map.Entry<Tortoise, String>> sortHashMap() {
+        return sort(HASH_MAP_VIEW);
+    }
+
+    /**
+     * Виконує {@link #findByKeyInHashMap(Tortoise)} для KEY_TO_SEARCH_AND_DELETE.
+     */
+    void findByKeyInHashMap() {
+        findByKeyInHashMap(KEY_TO_SEARCH_AND_DELETE);
+    }
+
+    /**
+     * @see #findByKey(MapView, Tortoise)
+     */
+    String findByKeyInHashMap(Tortoise key) {
+        return findByKey(HASH_MAP_VIEW, key);
+    }
+
+    /**
+     * Виконує {@link #findByValueInHashMap(String)} для VALUE_TO_SEARCH_AND_DELETE.
+     */
+    void findByValueInHashMap() {
+        findByValueInHashMap(VALUE_TO_SEARCH_AND_DELETE);
+    }
+
+    /**
+     * @see #findByValue(MapView, String)
+     */
+    Set<Tortoise> findByValueInHashMap(String owner) {
+        return findByValue(HASH_MAP_VIEW, owner);
+    }
+
+    /**
+     * Виконує {@link #addEntryToHashMap(Tortoise, String)} для KEY_TO_ADD та VALUE_TO_ADD.
+     */
+    void addEntryToHashMap() {
+        addEntryToHashMap(KEY_TO_ADD, VALUE_TO_ADD);
+    }
+
+    /**
+     * @see #addEntry(MapView, Tortoise, String)
+     */
+    String addEntryToHashMap(Tortoise key, String owner) {
+        return addEntry(HASH_MAP_VIEW, key, owner);
+    }
+
+    /**
+     * Виконує {@link #removeByKeyFromHashMap(Tortoise)} для KEY_TO_SEARCH_AND_DELETE.
+     */
+    void removeByKeyFromHashMap() {
+        removeByKeyFromHashMap(KEY_TO_SEARCH_AND_DELETE);
+    }
+
+    /**
+     * @see #removeByKey(MapView, Tortoise)
+     */
+    String removeByKeyFromHashMap(Tortoise key) {
+        return removeByKey(HASH_MAP_VIEW, key);
+    }
+
+    /**
+     * Виконує {@link #removeByValueFromHashMap(String)} для VALUE_TO_SEARCH_AND_DELETE.
+     */
+    void removeByValueFromHashMap() {
+        removeByValueFromHashMap(VALUE_TO_SEARCH_AND_DELETE);
+    }
+
+    /**
+     * @see #removeByValue(MapView, String)
+     */
+    int removeByValueFromHashMap(String owner) {
+        return removeByValue(HASH_MAP_VIEW, owner);
+    }
+
+    // ===== Пакетні операції для HashMap =====
+
+    /**
+     * @see #addEntries(MapView, Collection)
+     */
+    int addEntriesToHashMap(Collection<? extends Map.Entry<Tortoise, String>> entries) {
+        return addEntries(HASH_MAP_VIEW, entries);
+    }
+
+    /**
+     * Додає пакет записів з потоку до HashMap.
+     *
+     * @see #addEntriesToHashMap(Collection)
+     */
+    int addEntriesToHashMap(Stream<? extends Map.Entry<Tortoise, String>> entries) {
+        return addEntriesToHashMap(entries.collect(Collectors.toList()));
+    }
+
+    /**
+     * @see #removeByKeys(MapView, Collection)
+     */
+    int removeByKeysFromHashMap(Collection<Tortoise> keys) {
+        return removeByKeys(HASH_MAP_VIEW, keys);
+    }
+
+    /**
+     * Видаляє пакет ключів з потоку з HashMap.
+     *
+     * @see #removeByKeysFromHashMap(Collection)
+     */
+    int removeByKeysFromHashMap(Stream<Tortoise> keys) {
+        return removeByKeysFromHashMap(keys.collect(Collectors.toList()));
+    }
+
+    /**
+     * @see #removeByValues(MapView, Collection)
+     */
+    int removeByValuesFromHashMap(Collection<String> owners) {
+        return removeByValues(HASH_MAP_VIEW, owners);
+    }
+
+    /**
+     * Видаляє з HashMap записи власників з потоку.
+     *
+     * @see #removeByValuesFromHashMap(Collection)
+     */
+    int removeByValuesFromHashMap(Stream<String> owners) {
+        return removeByValuesFromHashMap(owners.collect(Collectors.toList()));
+    }
+
+    // ===== Запити за префіксом та діапазоном для HashMap =====
+
+    /**
+     * @see #findByNicknamePrefix(MapView, String)
+     */
+    List<Map.Entry<Tortoise, String>> findByNicknamePrefixInHashMap(String prefix) {
+        return findByNicknamePrefix(HASH_MAP_VIEW, prefix);
+    }
+
+    /**
+     * @see #findByNicknamePrefix(MapView, String, int)
+     */
+    List<Map.Entry<Tortoise, String>> findByNicknamePrefixInHashMap(String prefix, int limit) {
+        return findByNicknamePrefix(HASH_MAP_VIEW, prefix, limit);
+    }
+
+    /**
+     * @see #findByShellThicknessRange(MapView, double, double)
+     */
+    List<Map.Entry<Tortoise, String>> findByShellThicknessRangeInHashMap(double from, double to) {
+        return findByShellThicknessRange(HASH_MAP_VIEW, from, to);
+    }
+
+    // ===== Агрегати для HashMap =====
+
+    /**
+     * @see #findThickest(MapView, int)
+     */
+    List<Map.Entry<Tortoise, String>> findThickestInHashMap(int k) {
+        return findThickest(HASH_MAP_VIEW, k);
+    }
+
+    /**
+     * @see #findTopOwners(MapView, int)
+     */
+    List<Map.Entry<String, Integer>> findTopOwnersInHashMap(int k) {
+        return findTopOwners(HASH_MAP_VIEW, k);
+    }
+
+    /**
+     * @see #countByOwner(MapView)
+     */
+    Map<String, Integer> countByOwnerInHashMap() {
+        return countByOwner(HASH_MAP_VIEW);
+    }
+
+    // ===== Методи для TreeMap =====
+
+    /**
+     * Виводить вміст LinkedHashMap в порядку вставки (у впорядкованому режимі — в порядку ключів).
+     */
+    void printLinkedHashMap() {
+        print(linkedHashMapView);
+    }
+
+    /**
+     * @see #dump(MapView, MapDumpWriter)
+     */
+    int dumpLinkedHashMap(MapDumpWriter writer) throws IOException {
+        return dump(linkedHashMapView, writer);
+    }
+
+    /**
+     * Сортує LinkedHashMap за ключами за природним порядком Tortoise.
+     * У впорядкованому режимі порядок вже підтримується сховищем, тому перебудова не виконується.
+     *
+     * @see #sort(MapView)
+     */
+    Iterable<Map.Entry<Tortoise, String>> sortLinkedHashMap() {
+        return sort(linkedHashMapView);
+    }
+
+    /**
+     * Виконує {@link #findByKeyInLinkedHashMap(Tortoise)} для KEY_TO_SEARCH_AND_DELETE.
+     */
+    void findByKeyInLinkedHashMap() {
+        findByKeyInLinkedHashMap(KEY_TO_SEARCH_AND_DELETE);
+    }
+
+    /**
+     * @see #findByKey(MapView, Tortoise)
+     */
+    String findByKeyInLinkedHashMap(Tortoise key) {
+        return findByKey(linkedHashMapView, key);
+    }
+
+    /**
+     * Виконує {@link #findByValueInLinkedHashMap(String)} для VALUE_TO_SEARCH_AND_DELETE.
+     */
+    void findByValueInLinkedHashMap() {
+        findByValueInLinkedHashMap(VALUE_TO_SEARCH_AND_DELETE);
+    }
+
+    /**
+     * @see #findByValue(MapView, String)
+     */
+    Set<Tortoise> findByValueInLinkedHashMap(String owner) {
+        return findByValue(linkedHashMapView, owner);
+    }
+
+    /**
+     * Виконує {@link #addEntryToLinkedHashMap(Tortoise, String)} для KEY_TO_ADD та VALUE_TO_ADD.
+     */
+    void addEntryToLinkedHashMap() {
+        addEntryToLinkedHashMap(KEY_TO_ADD, VALUE_TO_ADD);
+    }
+
+    /**
+     * @see #addEntry(MapView, Tortoise, String)
+     */
+    String addEntryToLinkedHashMap(Tortoise key, String owner) {
+        return addEntry(linkedHashMapView, key, owner);
+    }
+
+    /**
+     * Виконує {@link #removeByKeyFromLinkedHashMap(Tortoise)} для KEY_TO_SEARCH_AND_DELETE.
+     */
+    void removeByKeyFromLinkedHashMap() {
+        removeByKeyFromLinkedHashMap(KEY_TO_SEARCH_AND_DELETE);
+    }
+
+    /**
+     * @see #removeByKey(MapView, Tortoise)
+     */
+    String removeByKeyFromLinkedHashMap(Tortoise key) {
+        return removeByKey(linkedHashMapView, key);
+    }
+
+    /**
+     * Виконує {@link #removeByValueFromLinkedHashMap(String)} для VALUE_TO_SEARCH_AND_DELETE.
      */
     void removeByValueFromLinkedHashMap() {
-        long timeStart = System.nanoTime();
+        removeByValueFromLinkedHashMap(VALUE_TO_SEARCH_AND_DELETE);
+    }
 
-        LinkedList<Tortoise> keysToRemove = new LinkedList<>();
-        for (Map.Entry<Tortoise, String> entry : LinkedHashMap.entrySet()) {
-            if (entry.getValue() != null && entry.getValue().equals(VALUE_TO_SEARCH_AND_DELETE)) {
-                keysToRemove.add(entry.getKey());
-            }
-        }
-        
-        for (Tortoise key : keysToRemove) {
-            LinkedHashMap.remove(key);
-        }
+    /**
+     * @see #removeByValue(MapView, String)
+     */
+    int removeByValueFromLinkedHashMap(String owner) {
+        return removeByValue(linkedHashMapView, owner);
+    }
+
+    // ===== Пакетні операції для LinkedHashMap =====
+
+    /**
+     * @see #addEntries(MapView, Collection)
+     */
+    int addEntriesToLinkedHashMap(Collection<? extends Map.Entry<Tortoise, String>> entries) {
+        return addEntries(linkedHashMapView, entries);
+    }
 
-        PerformanceTracker.displayOperationTime(timeStart, "видалення за значенням з LinkedHashMap");
+    /**
+     * Додає пакет записів з потоку до LinkedHashMap.
+     *
+     * @see #addEntriesToLinkedHashMap(Collection)
+     */
+    int addEntriesToLinkedHashMap(Stream<? extends Map.Entry<Tortoise, String>> entries) {
+        return addEntriesToLinkedHashMap(entries.collect(Collectors.toList()));
+    }
+
+    /**
+     * @see #removeByKeys(MapView, Collection)
+     */
+    int removeByKeysFromLinkedHashMap(Collection<Tortoise> keys) {
+        return removeByKeys(linkedHashMapView, keys);
+    }
 
-        System.out.println("Видалено " + keysToRemove.size() + " записів з власником '" + VALUE_TO_SEARCH_AND_DELETE + "'");
+    /**
+     * Видаляє пакет ключів з потоку з LinkedHashMap.
+     *
+     * @see #removeByKeysFromLinkedHashMap(Collection)
+     */
+    int removeByKeysFromLinkedHashMap(Stream<Tortoise> keys) {
+        return removeByKeysFromLinkedHashMap(keys.collect(Collectors.toList()));
+    }
+
+    /**
+     * @see #removeByValues(MapView, Collection)
+     */
+    int removeByValuesFromLinkedHashMap(Collection<String> owners) {
+        return removeByValues(linkedHashMapView, owners);
+    }
+
+    /**
+     * Видаляє з LinkedHashMap записи власників з потоку.
+     *
+     * @see #removeByValuesFromLinkedHashMap(Collection)
+     */
+    int removeByValuesFromLinkedHashMap(Stream<String> owners) {
+        return removeByValuesFromLinkedHashMap(owners.collect(Collectors.toList()));
+    }
+
+    // ===== Запити за префіксом та діапазоном для LinkedHashMap =====
+
+    /**
+     * @see #findByNicknamePrefix(MapView, String)
+     */
+    List<Map.Entry<Tortoise, String>> findByNicknamePrefixInLinkedHashMap(String prefix) {
+        return findByNicknamePrefix(linkedHashMapView, prefix);
+    }
+
+    /**
+     * @see #findByNicknamePrefix(MapView, String, int)
+     */
+    List<Map.Entry<Tortoise, String>> findByNicknamePrefixInLinkedHashMap(String prefix, int limit) {
+        return findByNicknamePrefix(linkedHashMapView, prefix, limit);
+    }
+
+    /**
+     * @see #findByShellThicknessRange(MapView, double, double)
+     */
+    List<Map.Entry<Tortoise, String>> findByShellThicknessRangeInLinkedHashMap(double from, double to) {
+        return findByShellThicknessRange(linkedHashMapView, from, to);
+    }
+
+    // ===== Агрегати для LinkedHashMap =====
+
+    /**
+     * @see #findThickest(MapView, int)
+     */
+    List<Map.Entry<Tortoise, String>> findThickestInLinkedHashMap(int k) {
+        return findThickest(linkedHashMapView, k);
+    }
+
+    /**
+     * @see #findTopOwners(MapView, int)
+     */
+    List<Map.Entry<String, Integer>> findTopOwnersInLinkedHashMap(int k) {
+        return findTopOwners(linkedHashMapView, k);
+    }
+
+    /**
+     * @see #countByOwner(MapView)
+     */
+    Map<String, Integer> countByOwnerInLinkedHashMap() {
+        return countByOwner(linkedHashMapView);
     }
 
     /**
      * Головний метод для запуску програми.
      */
     public static void main(String[] args) {
-        // Створюємо початкові дані (ключ: Pet, значення: ім'я власника)
-        HashMap<Tortoise, String> HashMap = new HashMap<>();
-        HashMap.put(new Tortoise("Атлант", "shellThickness=2.5"), "Руслан");
-        HashMap.put(new Tortoise("Броня", "shellThickness=3.1"), "Олеся");
-        HashMap.put(new Tortoise("Вічність", "shellThickness=4.2"), "Микола");
-        HashMap.put(new Tortoise("Гном", "shellThickness=1.8"), "Аліна");
-        HashMap.put(new Tortoise("Броня", "shellThickness=2.9"), "Тимур");
-        HashMap.put(new Tortoise("Дзвін", "shellThickness=3.7"), "Микола");
-        HashMap.put(new Tortoise("Еон", "shellThickness=4.5"), "Софія");
-        HashMap.put(new Tortoise("Жук", "shellThickness=2.2"), "Віталій");
-        HashMap.put(new Tortoise("Зевс", "shellThickness=3.9"), "Олеся");
-        HashMap.put(new Tortoise("Ікар", "shellThickness=2.7"), "Надія");
-
-        LinkedHashMap<Tortoise, String> LinkedHashMap = new LinkedHashMap<Tortoise, String>() {{
-            put(new Tortoise("Атлант", "shellThickness=2.5"), "Руслан");
-            put(new Tortoise("Броня", "shellThickness=3.1"), "Олеся");
-            put(new Tortoise("Вічність", "shellThickness=4.2"), "Микола");
-            put(new Tortoise("Гном", "shellThickness=1.8"), "Аліна");
-            put(new Tortoise("Броня", "shellThickness=2.9"), "Тимур");
-            put(new Tortoise("Дзвін", "shellThickness=3.7"), "Микола");
-            put(new Tortoise("Еон", "shellThickness=4.5"), "Софія");
-            put(new Tortoise("Жук", "shellThickness=2.2"), "Віталій");
-            put(new Tortoise("Зевс", "shellThickness=3.9"), "Олеся");
-            put(new Tortoise("Ікар", "shellThickness=2.7"), "Надія");
-        }};
+        // Створюємо початкові дані один раз (ключ: Tortoise, значення: ім'я власника);
+        // методи HashMap та LinkedHashMap працюють з тим самим сховищем
+        LinkedHashMap<Tortoise, String> initial = new LinkedHashMap<>();
+        initial.put(new Tortoise("Атлант", "shellThickness=2.5"), "Руслан");
+        initial.put(new Tortoise("Броня", "shellThickness=3.1"), "Олеся");
+        initial.put(new Tortoise("Вічність", "shellThickness=4.2"), "Микола");
+        initial.put(new Tortoise("Гном", "shellThickness=1.8"), "Аліна");
+        initial.put(new Tortoise("Броня", "shellThickness=2.9"), "Тимур");
+        initial.put(new Tortoise("Дзвін", "shellThickness=3.7"), "Микола");
+        initial.put(new Tortoise("Еон", "shellThickness=4.5"), "Софія");
+        initial.put(new Tortoise("Жук", "shellThickness=2.2"), "Віталій");
+        initial.put(new Tortoise("Зевс", "shellThickness=3.9"), "Олеся");
+        initial.put(new Tortoise("Ікар", "shellThickness=2.7"), "Надія");
 
         // Створюємо об'єкт і виконуємо операції
-        BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(HashMap, LinkedHashMap);
+        BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(initial);
         operations.executeDataOperations();
+
+        PerformanceTracker.printReport();
     }
 }
-
@@ -0,0 +1,422 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Клас ColumnarTortoiseRegistry — компактний стовпцевий реєстр пар Tortoise -> власник
+ * для наборів даних у сотні мільйонів записів.
+ *
+ * <p>Замість об'єкта Tortoise, двох рядків, вузла HashMap.Node та рядка значення на кожен запис
+ * реєстр зберігає рядок таблиці у примітивних масивах-стовпцях:</p>
+ * <ul>
+ *   <li>nicknameIds, ownerIds — ідентифікатори кличок і власників у словниках StringDictionary;</li>
+ *   <li>thickness — розібрана товщина панциря як double;</li>
+ *   <li>speciesIds — {@link #CANONICAL_SPECIES}, якщо species має канонічний вигляд
+ *       "shellThickness=" + Double.toString(thickness) і відновлюється з thickness, інакше —
+ *       ідентифікатор рядка species у словнику.</li>
+ * </ul>
+ *
+ * <p>Пошук за ключем виконується через хеш-таблицю з відкритою адресацією (int[] слотів з
+ * номерами рядків), тому на запис припадає близько 24-32 байтів замість 150+ байтів у HashMap.
+ * Видалені рядки повторно використовуються наступними додаваннями.
+ * Клички, species та власники не можуть бути null. Клас не є потокобезпечним.</p>
+ */
+public class ColumnarTortoiseRegistry {
+    static final int CANONICAL_SPECIES = -1;
+    private static final String SPECIES_PREFIX = "shellThickness=";
+
+    // Значення слотів хеш-таблиці: номер рядка + 1; EMPTY — вільний слот, TOMBSTONE — видалений
+    private static final int EMPTY = 0;
+    private static final int TOMBSTONE = -1;
+    // Значення ownerIds для видаленого рядка
+    private static final int DELETED = -1;
+
+    static final int FIND_BY_KEY_METRIC = PerformanceTracker.metricId("пошук за ключем в ColumnarTortoiseRegistry");
+    static final int FIND_BY_VALUE_METRIC = PerformanceTracker.metricId("пошук за значенням в ColumnarTortoiseRegistry");
+    static final int ADD_METRIC = PerformanceTracker.metricId("додавання запису до ColumnarTortoiseRegistry");
+    static final int REMOVE_BY_KEY_METRIC = PerformanceTracker.metricId("видалення за ключем з ColumnarTortoiseRegistry");
+    static final int REMOVE_BY_VALUE_METRIC = PerformanceTracker.metricId("видалення за значенням з ColumnarTortoiseRegistry");
+    static final int SORT_METRIC = PerformanceTracker.metricId("сортування ColumnarTortoiseRegistry за ключами");
+
+    private final StringDictionary nicknames = new StringDictionary();
+    private final StringDictionary speciesDictionary = new StringDictionary();
+    private final StringDictionary owners = new StringDictionary();
+
+    private int[] nicknameIds;
+    private int[] speciesIds;
+    private int[] ownerIds;
+    private double[] thickness;
+    private int rowCount;
+
+    private int[] freeRows = new int[16];
+    private int freeCount;
+    private int size;
+
+    private int[] slots;
+    private int usedSlots;
+
+    // Результат останнього сортування (null, якщо після нього були зміни)
+    private int[] sortedRows;
+
+    /**
+     * Створює порожній реєстр.
+     *
+     * @param expectedSize очікувана кількість записів (для початкового розміру стовпців)
+     */
+    public ColumnarTortoiseRegistry(int expectedSize) {
+        int capacity = Math.max(16, expectedSize);
+        nicknameIds = new int[capacity];
+        speciesIds = new int[capacity];
+        ownerIds = new int[capacity];
+        thickness = new double[capacity];
+        slots = new int[Integer.highestOneBit(Math.max(8, capacity - 1)) << 2];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Здійснює пошук за ключем.
+     *
+     * @return ім'я власника або null, якщо ключ відсутній
+     */
+    public String findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        long timeStart = System.nanoTime();
+
+        int slot = findSlot(key);
+        String owner = slot >= 0 ? owners.get(ownerIds[slots[slot] - 1]) : null;
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_KEY_METRIC);
+        return owner;
+    }
+
+    /**
+     * Повертає всі ключі власника. Виконує послідовний прохід по стовпцю ownerIds.
+     */
+    public List<BasicDataOperationUsingMap.Tortoise> findByValue(String owner) {
+        long timeStart = System.nanoTime();
+
+        List<BasicDataOperationUsingMap.Tortoise> keys = new ArrayList<>();
+        int ownerId = owners.find(owner);
+        if (ownerId >= 0) {
+            for (int row = 0; row < rowCount; row++) {
+                if (ownerIds[row] == ownerId) {
+                    keys.add(keyAt(row));
+                }
+            }
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_VALUE_METRIC);
+        return keys;
+    }
+
+    /**
+     * Додає або замінює запис.
+     *
+     * @return попереднє значення ключа або null
+     * @throws IllegalArgumentException якщо кличка, species або власник дорівнюють null
+     */
+    public String addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        long timeStart = System.nanoTime();
+
+        if (key.getNickname() == null || key.getSpecies() == null || owner == null) {
+            throw new IllegalArgumentException("ColumnarTortoiseRegistry не підтримує null-значення: " + key + " -> " + owner);
+        }
+        String previousValue = null;
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            int row = slots[slot] - 1;
+            previousValue = owners.get(ownerIds[row]);
+            ownerIds[row] = owners.intern(owner);
+        } else {
+            ensureSlotCapacity();
+            double value = key.getShellThickness();
+            int row = allocateRow();
+            nicknameIds[row] = nicknames.intern(key.getNickname());
+            speciesIds[row] = key.getSpecies().equals(canonicalSpecies(value))
+                    ? CANONICAL_SPECIES : speciesDictionary.intern(key.getSpecies());
+            thickness[row] = value;
+            ownerIds[row] = owners.intern(owner);
+            insertSlot(row);
+            size++;
+            sortedRows = null;
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, ADD_METRIC);
+        return previousValue;
+    }
+
+    /**
+     * Видаляє запис за ключем.
+     *
+     * @return видалене значення або null, якщо ключ відсутній
+     */
+    public String removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+        long timeStart = System.nanoTime();
+
+        String removedValue = null;
+        int slot = findSlot(key);
+        if (slot >= 0) {
+            int row = slots[slot] - 1;
+            removedValue = owners.get(ownerIds[row]);
+            deleteRow(slot, row);
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_KEY_METRIC);
+        return removedValue;
+    }
+
+    /**
+     * Видаляє всі записи власника одним проходом по стовпцю ownerIds.
+     *
+     * @return кількість видалених записів
+     */
+    public int removeByValue(String owner) {
+        long timeStart = System.nanoTime();
+
+        int removed = 0;
+        int ownerId = owners.find(owner);
+        if (ownerId >= 0) {
+            for (int row = 0; row < rowCount; row++) {
+                if (ownerIds[row] == ownerId) {
+                    deleteRow(slotOfRow(row), row);
+                    removed++;
+                }
+            }
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_VALUE_METRIC);
+        return removed;
+    }
+
+    /**
+     * Сортує рядки за природним порядком Tortoise (кличка, потім товщина панциря; при рівності — species).
+     * Клички порівнюються через заздалегідь обчислені ранги в словнику, тому порівняння рядків
+     * виконуються лише для словника, а не для кожної пари записів.
+     *
+     * @return номери рядків у порядку сортування (використовуються в {@link #forEachSorted(BiConsumer)})
+     */
+    public int[] sort() {
+        long timeStart = System.nanoTime();
+
+        int[] nicknameRanks = ranks(nicknames);
+        int[] rows = new int[size];
+        int count = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (ownerIds[row] != DELETED) {
+                rows[count++] = row;
+            }
+        }
+        sortInts(rows, (a, b) -> {
+            int result = Integer.compare(nicknameRanks[nicknameIds[a]], nicknameRanks[nicknameIds[b]]);
+            if (result == 0) {
+                result = Double.compare(thickness[a], thickness[b]);
+            }
+            if (result == 0) {
+                result = speciesAt(a).compareTo(speciesAt(b));
+            }
+            return result;
+        });
+        sortedRows = rows;
+
+        PerformanceTracker.recordOperationTime(timeStart, SORT_METRIC);
+        return rows;
+    }
+
+    /**
+     * Перебирає записи в порядку ключів, створюючи об'єкти Tortoise лише під час перебору.
+     * Якщо після останнього сортування були зміни, спочатку виконується {@link #sort()}.
+     */
+    public void forEachSorted(BiConsumer<BasicDataOperationUsingMap.Tortoise, String> action) {
+        int[] rows = sortedRows != null ? sortedRows : sort();
+        for (int row : rows) {
+            action.accept(keyAt(row), owners.get(ownerIds[row]));
+        }
+    }
+
+    /**
+     * Повертає приблизний обсяг пам'яті стовпців і хеш-таблиці в байтах (без словників).
+     */
+    public long columnBytes() {
+        return (long) nicknameIds.length * (4 + 4 + 4 + 8) + (long) slots.length * 4 + (long) freeRows.length * 4;
+    }
+
+    BasicDataOperationUsingMap.Tortoise keyAt(int row) {
+        return new BasicDataOperationUsingMap.Tortoise(nicknames.get(nicknameIds[row]), speciesAt(row));
+    }
+
+    private String speciesAt(int row) {
+        int id = speciesIds[row];
+        return id == CANONICAL_SPECIES ? canonicalSpecies(thickness[row]) : speciesDictionary.get(id);
+    }
+
+    private static String canonicalSpecies(double value) {
+        return SPECIES_PREFIX + value;
+    }
+
+    private int findSlot(BasicDataOperationUsingMap.Tortoise key) {
+        int nicknameId = nicknames.find(key.getNickname());
+        if (nicknameId < 0 || key.getSpecies() == null) {
+            return -1;
+        }
+        int speciesId = speciesDictionary.find(key.getSpecies());
+        double value = key.getShellThickness();
+        int mask = slots.length - 1;
+        for (int slot = hash(nicknameId, speciesId, value) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == EMPTY) {
+                return -1;
+            }
+            if (entry != TOMBSTONE) {
+                int row = entry - 1;
+                if (nicknameIds[row] == nicknameId && speciesIds[row] == speciesId
+                        && Double.doubleToLongBits(thickness[row]) == Double.doubleToLongBits(value)
+                        && (speciesId != CANONICAL_SPECIES || key.getSpecies().equals(canonicalSpecies(value)))) {
+                    return slot;
+                }
+            }
+        }
+    }
+
+    private int slotOfRow(int row) {
+        int mask = slots.length - 1;
+        int slot = hash(nicknameIds[row], speciesIds[row], thickness[row]) & mask;
+        while (slots[slot] != row + 1) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Перебудовує хеш-таблицю перед вставкою, якщо зайнято (разом з видаленими) більше половини слотів.
+     * Якщо більшість зайнятих слотів — видалені, таблиця очищується без збільшення.
+     */
+    private void ensureSlotCapacity() {
+        if ((usedSlots + 1) * 2 > slots.length) {
+            rehash(size * 4 > slots.length ? slots.length * 2 : slots.length);
+        }
+    }
+
+    private void insertSlot(int row) {
+        int mask = slots.length - 1;
+        int slot = hash(nicknameIds[row], speciesIds[row], thickness[row]) & mask;
+        while (slots[slot] != EMPTY && slots[slot] != TOMBSTONE) {
+            slot = (slot + 1) & mask;
+        }
+        if (slots[slot] == EMPTY) {
+            usedSlots++;
+        }
+        slots[slot] = row + 1;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        usedSlots = 0;
+        int mask = capacity - 1;
+        for (int row = 0; row < rowCount; row++) {
+            if (ownerIds[row] != DELETED) {
+                int slot = hash(nicknameIds[row], speciesIds[row], thickness[row]) & mask;
+                while (slots[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = row + 1;
+                usedSlots++;
+            }
+        }
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (rowCount == ownerIds.length) {
+            int capacity = ownerIds.length * 2;
+            nicknameIds = Arrays.copyOf(nicknameIds, capacity);
+            speciesIds = Arrays.copyOf(speciesIds, capacity);
+            ownerIds = Arrays.copyOf(ownerIds, capacity);
+            thickness = Arrays.copyOf(thickness, capacity);
+        }
+        return rowCount++;
+    }
+
+    private void deleteRow(int slot, int row) {
+        slots[slot] = TOMBSTONE;
+        ownerIds[row] = DELETED;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+        size--;
+        sortedRows = null;
+    }
+
+    private static int hash(int nicknameId, int speciesId, double value) {
+        long h = nicknameId * 0x9E3779B97F4A7C15L ^ speciesId * 0xC2B2AE3D27D4EB4FL ^ Double.doubleToLongBits(value);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    /**
+     * Повертає ранги рядків словника: ranks[id] — позиція рядка id у відсортованому словнику.
+     */
+    static int[] ranks(StringDictionary dictionary) {
+        int[] ids = new int[dictionary.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        sortInts(ids, (a, b) -> dictionary.get(a).compareTo(dictionary.get(b)));
+        int[] ranks = new int[ids.length];
+        for (int rank = 0; rank < ids.length; rank++) {
+            ranks[ids[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    /**
+     * Порівняння двох цілих значень (номерів рядків) без упаковки в Integer.
+     */
+    interface IntComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Стабільне сортування злиттям масиву int з компаратором без упаковки значень.
+     */
+    static void sortInts(int[] values, IntComparator comparator) {
+        int[] buffer = values.clone();
+        mergeSort(buffer, values, 0, values.length, comparator);
+    }
+
+    private static void mergeSort(int[] source, int[] target, int from, int to, IntComparator comparator) {
+        if (to - from <= 16) {
+            for (int i = from + 1; i < to; i++) {
+                int value = target[i];
+                int j = i - 1;
+                while (j >= from && comparator.compare(target[j], value) > 0) {
+                    target[j + 1] = target[j];
+                    j--;
+                }
+                target[j + 1] = value;
+            }
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        mergeSort(target, source, from, middle, comparator);
+        mergeSort(target, source, middle, to, comparator);
+        if (comparator.compare(source[middle - 1], source[middle]) <= 0) {
+            System.arraycopy(source, from, target, from, to - from);
+            return;
+        }
+        for (int i = from, left = from, right = middle; i < to; i++) {
+            if (right >= to || left < middle && comparator.compare(source[left], source[right]) <= 0) {
+                target[i] = source[left++];
+            } else {
+                target[i] = source[right++];
+            }
+        }
+    }
+}
@@ -0,0 +1,221 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Клас ConcurrentDataOperationUsingMap — потокобезпечний варіант BasicDataOperationUsingMap
+ * на основі ConcurrentHashMap для багатьох потоків-читачів і потоків-записувачів.
+ *
+ * <p>Пошук, додавання та видалення за ключем виконуються без глобального блокування:
+ * читання з ConcurrentHashMap не блокуються, записи блокують лише один кошик таблиці.
+ * Пошук та видалення за значенням використовують паралельні bulk-операції
+ * ConcurrentHashMap (search/forEach) з порогом паралелізму {@link #PARALLELISM_THRESHOLD}.
+ * Відсортоване представлення будується як незмінний список і публікується атомарно
+ * (compare-and-set), тому читачі бачать або попередній, або новий порядок повністю.
+ * Кожне сортування отримує номер версії до знімка вмісту, і представлення публікується лише тоді,
+ * коли воно новіше за вже опубліковане: повільне сортування старішого знімка не затирає результат
+ * сортування, яке почалося пізніше.</p>
+ */
+public class ConcurrentDataOperationUsingMap {
+    /**
+     * Мінімальний розмір Map, з якого bulk-операції виконуються паралельно в ForkJoinPool.commonPool().
+     */
+    static final long PARALLELISM_THRESHOLD = 10_000;
+
+    static final int FIND_BY_KEY_METRIC = PerformanceTracker.metricId("пошук за ключем в ConcurrentHashMap");
+    static final int FIND_BY_VALUE_METRIC = PerformanceTracker.metricId("пошук за значенням в ConcurrentHashMap");
+    static final int ADD_METRIC = PerformanceTracker.metricId("додавання запису до ConcurrentHashMap");
+    static final int ADD_BATCH_METRIC = PerformanceTracker.metricId("пакетне додавання записів до ConcurrentHashMap");
+    static final int REMOVE_BY_KEY_METRIC = PerformanceTracker.metricId("видалення за ключем з ConcurrentHashMap");
+    static final int REMOVE_BY_VALUE_METRIC = PerformanceTracker.metricId("видалення за значенням з ConcurrentHashMap");
+    static final int SORT_METRIC = PerformanceTracker.metricId("сортування ConcurrentHashMap за ключами");
+
+    private final ConcurrentHashMap<BasicDataOperationUsingMap.Tortoise, String> map;
+
+    /**
+     * Відсортоване представлення та номер сортування, яке його побудувало.
+     */
+    private static final class SortedView {
+        final long version;
+        final List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries;
+
+        SortedView(long version, List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+            this.version = version;
+            this.entries = entries;
+        }
+    }
+
+    // Номер останнього розпочатого сортування
+    private final AtomicLong sortVersion = new AtomicLong();
+
+    // Найновіше опубліковане відсортоване представлення
+    private final AtomicReference<SortedView> sortedView = new AtomicReference<>(new SortedView(0, Collections.emptyList()));
+
+    /**
+     * Створює об'єкт з копією початкових даних.
+     *
+     * @param initial Map з початковими даними (ключ: Tortoise, значення: ім'я власника)
+     */
+    public ConcurrentDataOperationUsingMap(Map<BasicDataOperationUsingMap.Tortoise, String> initial) {
+        this.map = new ConcurrentHashMap<>(initial);
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    /**
+     * Здійснює пошук за ключем без блокування.
+     *
+     * @return ім'я власника або null, якщо ключ відсутній
+     */
+    public String findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        String value = map.get(key);
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_KEY_METRIC);
+        MapOperationEvent.finish(event, FIND_BY_KEY_METRIC, "ConcurrentHashMap", size(), value != null ? 1 : 0);
+        return value;
+    }
+
+    /**
+     * Здійснює пошук будь-якого ключа з вказаним власником паралельною операцією ConcurrentHashMap.search.
+     *
+     * @return знайдений ключ або null, якщо власника немає
+     */
+    public BasicDataOperationUsingMap.Tortoise findByValue(String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        BasicDataOperationUsingMap.Tortoise found = map.search(PARALLELISM_THRESHOLD,
+                (key, value) -> Objects.equals(owner, value) ? key : null);
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_VALUE_METRIC);
+        MapOperationEvent.finish(event, FIND_BY_VALUE_METRIC, "ConcurrentHashMap", size(), found != null ? 1 : 0);
+        return found;
+    }
+
+    /**
+     * Додає або замінює запис.
+     *
+     * @return попереднє значення ключа або null
+     */
+    public String addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        String previousValue = map.put(key, owner);
+
+        PerformanceTracker.recordOperationTime(timeStart, ADD_METRIC);
+        MapOperationEvent.finish(event, ADD_METRIC, "ConcurrentHashMap", size(), 1);
+        return previousValue;
+    }
+
+    /**
+     * Додає або замінює пакет записів. Тривалість записується один раз на весь пакет.
+     * ConcurrentHashMap не зберігає null-значень, тому null від put() завжди означає новий ключ.
+     *
+     * @return кількість нових ключів
+     */
+    public int addEntries(Collection<? extends Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        int added = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : entries) {
+            if (map.put(entry.getKey(), entry.getValue()) == null) {
+                added++;
+            }
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, ADD_BATCH_METRIC);
+        MapOperationEvent.finish(event, ADD_BATCH_METRIC, "ConcurrentHashMap", size(), entries.size());
+        return added;
+    }
+
+    /**
+     * Видаляє запис за ключем.
+     *
+     * @return видалене значення або null, якщо ключ відсутній
+     */
+    public String removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        String removedValue = map.remove(key);
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_KEY_METRIC);
+        MapOperationEvent.finish(event, REMOVE_BY_KEY_METRIC, "ConcurrentHashMap", size(), removedValue != null ? 1 : 0);
+        return removedValue;
+    }
+
+    /**
+     * Видаляє всі записи з вказаним власником паралельною операцією ConcurrentHashMap.forEach.
+     * Запис видаляється умовно (remove(key, owner)), тому паралельна заміна власника не буде втрачена.
+     *
+     * @return кількість видалених записів
+     */
+    public int removeByValue(String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        LongAdder removed = new LongAdder();
+        map.forEach(PARALLELISM_THRESHOLD, (key, value) -> {
+            if (Objects.equals(owner, value) && map.remove(key, value)) {
+                removed.increment();
+            }
+        });
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_VALUE_METRIC);
+        MapOperationEvent.finish(event, REMOVE_BY_VALUE_METRIC, "ConcurrentHashMap", size(), removed.intValue());
+        return removed.intValue();
+    }
+
+    /**
+     * Будує відсортоване за ключами представлення поточного вмісту та атомарно публікує його,
+     * якщо тим часом не було опубліковано результат сортування, що почалося пізніше.
+     * Записувачі не блокуються: сортується слабко-узгоджений знімок ConcurrentHashMap
+     * (паралельно від BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD записів).
+     *
+     * @return незмінний список записів цього знімка, відсортований за природним порядком Tortoise
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sort() {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        long version = sortVersion.incrementAndGet();
+        List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> snapshot = new ArrayList<>(map.size());
+        map.forEach((key, value) -> snapshot.add(Map.entry(key, value)));
+        Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] entries = snapshot.toArray(new Map.Entry[0]);
+        if (entries.length >= BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD) {
+            Arrays.parallelSort(entries, Map.Entry.comparingByKey());
+        } else {
+            Arrays.sort(entries, Map.Entry.comparingByKey());
+        }
+        List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> published = Collections.unmodifiableList(Arrays.asList(entries));
+        SortedView view = new SortedView(version, published);
+        sortedView.accumulateAndGet(view, (current, candidate) -> candidate.version > current.version ? candidate : current);
+
+        PerformanceTracker.recordOperationTime(timeStart, SORT_METRIC);
+        MapOperationEvent.finish(event, SORT_METRIC, "ConcurrentHashMap", size(), published.size());
+        return published;
+    }
+
+    /**
+     * Повертає останнє опубліковане відсортоване представлення без його перебудови.
+     */
+    public List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> getSortedEntries() {
+        return sortedView.get().entries;
+    }
+}
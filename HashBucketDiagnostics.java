@@ -0,0 +1,159 @@
+import java.lang.reflect.Field;
+import java.util.HashMap;
+
+/**
+ * Клас HashBucketDiagnostics — діагностика розподілу ключів по кошиках HashMap/LinkedHashMap.
+ *
+ * <p>Для кожного ключа кошик обчислюється так само, як у HashMap: {@code (h ^ (h >>> 16)) & (n - 1)},
+ * де n — довжина таблиці. Звіт містить кількість порожніх і зайнятих кошиків, гістограму довжин
+ * ланцюжків, найдовший ланцюжок та кількість кошиків, перетворених на дерево (treeified bins).</p>
+ *
+ * <p>Якщо JVM запущено з {@code --add-opens java.base/java.util=ALL-UNNAMED}, довжина таблиці та
+ * перетворені на дерево кошики читаються з самої HashMap. Інакше довжина таблиці оцінюється як
+ * для Map, що росла додаванням записів (ємність 16, коефіцієнт завантаження 0.75), а кошиком-деревом
+ * вважається ланцюжок з щонайменше 8 ключів у таблиці довжиною від 64 (пороги HashMap).</p>
+ */
+public class HashBucketDiagnostics {
+    static final int TREEIFY_THRESHOLD = 8;
+    static final int MIN_TREEIFY_CAPACITY = 64;
+
+    // Довжини ланцюжків 0..MAX_TRACKED_CHAIN - 1 рахуються окремо, довші — в останній комірці
+    static final int MAX_TRACKED_CHAIN = 16;
+
+    /**
+     * Результат діагностики.
+     */
+    public static final class Report {
+        final int size;
+        final int tableLength;
+        final boolean exact;
+        final long[] chainLengths;
+        final int maxChain;
+        final int treeifiedBins;
+        final double averageProbe;
+
+        Report(int size, int tableLength, boolean exact, long[] chainLengths, int maxChain, int treeifiedBins,
+               double averageProbe) {
+            this.size = size;
+            this.tableLength = tableLength;
+            this.exact = exact;
+            this.chainLengths = chainLengths;
+            this.maxChain = maxChain;
+            this.treeifiedBins = treeifiedBins;
+            this.averageProbe = averageProbe;
+        }
+
+        public int getTableLength() {
+            return tableLength;
+        }
+
+        public long getEmptyBins() {
+            return chainLengths[0];
+        }
+
+        public long getUsedBins() {
+            return tableLength - chainLengths[0];
+        }
+
+        public int getMaxChain() {
+            return maxChain;
+        }
+
+        public int getTreeifiedBins() {
+            return treeifiedBins;
+        }
+
+        /**
+         * Повертає кількість кошиків з ланцюжком довжини length (для останньої комірки — не менше).
+         */
+        public long getBinsWithChain(int length) {
+            return chainLengths[Math.min(length, MAX_TRACKED_CHAIN)];
+        }
+
+        /**
+         * Середня кількість ключів, які переглядає успішний пошук у ланцюжку
+         * (для рівномірного розподілу ≈ 1 + коефіцієнт завантаження / 2). Для кошиків-дерев це оцінка зверху:
+         * пошук у дереві переглядає O(log довжини) ключів, але кожне порівняння — виклик compareTo().
+         */
+        public double getAverageProbe() {
+            return averageProbe;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("записів: %d, довжина таблиці: %d (%s), зайнято кошиків: %d, порожніх: %d%n",
+                    size, tableLength, exact ? "з HashMap" : "оцінка", getUsedBins(), getEmptyBins()));
+            sb.append(String.format("найдовший ланцюжок: %d, кошиків-дерев: %d, середній пошук у ланцюжку: %.2f ключів%n",
+                    maxChain, treeifiedBins, getAverageProbe()));
+            sb.append("ланцюжки:");
+            for (int length = 1; length < chainLengths.length; length++) {
+                if (chainLengths[length] > 0) {
+                    sb.append(' ').append(length).append(length == MAX_TRACKED_CHAIN ? "+" : "").append('=').append(chainLengths[length]);
+                }
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Аналізує розподіл ключів map по кошиках.
+     */
+    public static Report analyze(HashMap<?, ?> map) {
+        Object[] table = readTable(map);
+        boolean exact = table != null;
+        int tableLength = exact ? table.length : estimateTableLength(map.size());
+        if (tableLength == 0) {
+            return new Report(0, 0, exact, new long[MAX_TRACKED_CHAIN + 1], 0, 0, 0);
+        }
+
+        int[] chains = new int[tableLength];
+        for (Object key : map.keySet()) {
+            int h = key == null ? 0 : key.hashCode();
+            chains[(h ^ (h >>> 16)) & (tableLength - 1)]++;
+        }
+
+        long[] chainLengths = new long[MAX_TRACKED_CHAIN + 1];
+        int maxChain = 0;
+        int treeifiedBins = 0;
+        double probes = 0;
+        for (int bin = 0; bin < tableLength; bin++) {
+            int length = chains[bin];
+            chainLengths[Math.min(length, MAX_TRACKED_CHAIN)]++;
+            maxChain = Math.max(maxChain, length);
+            probes += length * (length + 1) / 2.0;
+            if (exact) {
+                if (table[bin] != null && table[bin].getClass().getSimpleName().equals("TreeNode")) {
+                    treeifiedBins++;
+                }
+            } else if (length >= TREEIFY_THRESHOLD && tableLength >= MIN_TREEIFY_CAPACITY) {
+                treeifiedBins++;
+            }
+        }
+        return new Report(map.size(), tableLength, exact, chainLengths, maxChain, treeifiedBins,
+                map.isEmpty() ? 0 : probes / map.size());
+    }
+
+    /**
+     * Оцінює довжину таблиці HashMap, що росла додаванням size записів з ємності 16.
+     */
+    static int estimateTableLength(int size) {
+        int length = 16;
+        while (size > length * 0.75f) {
+            length <<= 1;
+        }
+        return length;
+    }
+
+    private static Object[] readTable(HashMap<?, ?> map) {
+        try {
+            Field field = HashMap.class.getDeclaredField("table");
+            field.setAccessible(true);
+            Object[] table = (Object[]) field.get(map);
+            return table != null ? table : new Object[0];
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // java.util не відкрито для рефлексії — використовуємо оцінку
+            return null;
+        }
+    }
+}
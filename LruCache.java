@@ -0,0 +1,143 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Клас LruCache — обмежений кеш з витісненням найдавніше використаних записів (LRU).
+ *
+ * <p>Побудований на LinkedHashMap з порядком доступу (accessOrder = true): кожне звернення
+ * переміщує запис у кінець списку, а при перевищенні максимального розміру
+ * {@link LinkedHashMap#removeEldestEntry(Map.Entry)} видаляє запис з початку списку за O(1).
+ * Для кожного витісненого запису викликається обробник витіснення. Лічильники влучань, промахів
+ * та витіснень доступні через геттери.</p>
+ *
+ * <p>Клас не є потокобезпечним, як і BasicDataOperationUsingMap, що його використовує.</p>
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значення
+ */
+public class LruCache<K, V> {
+    private final int maxSize;
+    private final BiConsumer<? super K, ? super V> evictionListener;
+    private final LinkedHashMap<K, V> entries;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Створює кеш без обробника витіснення.
+     *
+     * @param maxSize максимальна кількість записів
+     */
+    public LruCache(int maxSize) {
+        this(maxSize, (key, value) -> { });
+    }
+
+    /**
+     * Створює кеш.
+     *
+     * @param maxSize максимальна кількість записів
+     * @param evictionListener викликається для кожного запису, витісненого через перевищення розміру
+     */
+    public LruCache(int maxSize, BiConsumer<? super K, ? super V> evictionListener) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Розмір кешу має бути додатним: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.evictionListener = evictionListener;
+        this.entries = new LinkedHashMap<K, V>(BasicDataOperationUsingMap.capacityFor(maxSize + 1), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= LruCache.this.maxSize) {
+                    return false;
+                }
+                evictions++;
+                LruCache.this.evictionListener.accept(eldest.getKey(), eldest.getValue());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Повертає значення з кешу та позначає запис як щойно використаний.
+     *
+     * @return значення або null, якщо ключа немає в кеші (промах)
+     */
+    public V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return value;
+    }
+
+    /**
+     * Додає або оновлює запис; за потреби витісняє найдавніше використаний запис.
+     * Значення null не кешуються.
+     */
+    public void put(K key, V value) {
+        if (value != null) {
+            entries.put(key, value);
+        }
+    }
+
+    /**
+     * Видаляє запис з кешу (наприклад, після зміни ключа в основному сховищі).
+     */
+    public void invalidate(K key) {
+        entries.remove(key);
+    }
+
+    /**
+     * Видаляє всі записи з кешу. Лічильники не обнуляються.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Повертає частку влучань серед усіх звернень (0, якщо звернень не було).
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Обнуляє лічильники влучань, промахів та витіснень.
+     */
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LruCache{розмір=%d/%d, влучань=%d, промахів=%d, витіснень=%d, частка влучань=%.3f}",
+                entries.size(), maxSize, hits, misses, evictions, getHitRate());
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Map;
+
+/**
+ * Клас MapDumpWriter — вивантаження записів Tortoise -> власник у довільний канал без виділення
+ * пам'яті на кожен запис.
+ *
+ * <p>У текстовому форматі рядки "  Tortoise{...} -> власник" збираються у багаторазовий CharBuffer
+ * (клас реалізує Appendable, а Tortoise записує себе через appendTo()), кодуються багаторазовим
+ * CharsetEncoder у багаторазовий ByteBuffer і записуються в канал великими блоками. Проміжні
+ * String для ключа чи рядка не створюються.</p>
+ *
+ * <p>У двійковому форматі кожен запис — це три рядки nickname, species, owner, кожен як
+ * int довжина в байтах (-1 для null) та байти UTF-8, що кодуються вручну прямо в ByteBuffer.</p>
+ *
+ * <p>Канал не закривається: власником каналу залишається код, що його відкрив.
+ * Після останнього запису потрібно викликати {@link #flush()}.</p>
+ */
+public class MapDumpWriter implements Appendable, Flushable {
+    /**
+     * Формат вивантаження.
+     */
+    public enum Format { TEXT, BINARY }
+
+    private final Format format;
+    private final CharsetEncoder encoder;
+    private final CharBuffer chars = CharBuffer.allocate(8 * 1024);
+    private final ByteBuffer bytes = ByteBuffer.allocate(64 * 1024);
+    private WritableByteChannel channel;
+
+    /**
+     * Створює текстовий writer з кодуванням charset.
+     */
+    public MapDumpWriter(WritableByteChannel channel, Charset charset) {
+        this(channel, charset, Format.TEXT);
+    }
+
+    /**
+     * Створює writer.
+     *
+     * @param channel канал призначення (файл, сокет, Channels.newChannel(OutputStream))
+     * @param charset кодування текстового формату (двійковий формат завжди використовує UTF-8)
+     * @param format формат вивантаження
+     */
+    public MapDumpWriter(WritableByteChannel channel, Charset charset, Format format) {
+        this.channel = channel;
+        this.format = format;
+        this.encoder = charset.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Скидає накопичені дані в поточний канал і перемикає writer на інший канал,
+     * зберігаючи буфери для повторного використання.
+     */
+    public MapDumpWriter retarget(WritableByteChannel channel) throws IOException {
+        flush();
+        this.channel = channel;
+        return this;
+    }
+
+    /**
+     * Записує всі записи у порядку ітерації.
+     *
+     * @return кількість записаних записів
+     */
+    public int writeAll(Iterable<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) throws IOException {
+        int count = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : entries) {
+            writeEntry(entry.getKey(), entry.getValue());
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Записує один запис у форматі writer.
+     */
+    public void writeEntry(BasicDataOperationUsingMap.Tortoise key, String owner) throws IOException {
+        if (format == Format.TEXT) {
+            append("  ");
+            key.appendTo(this);
+            append(" -> ");
+            append(owner);
+            append('\n');
+        } else {
+            putUtf8(key.getNickname());
+            putUtf8(key.getSpecies());
+            putUtf8(owner);
+        }
+    }
+
+    @Override
+    public MapDumpWriter append(CharSequence csq) throws IOException {
+        return append(csq != null ? csq : "null", 0, csq != null ? csq.length() : 4);
+    }
+
+    @Override
+    public MapDumpWriter append(CharSequence csq, int start, int end) throws IOException {
+        if (csq == null) {
+            return append("null", start, end);
+        }
+        int position = start;
+        while (position < end) {
+            if (!chars.hasRemaining()) {
+                encodeChars(false);
+            }
+            int count = Math.min(end - position, chars.remaining());
+            if (csq instanceof String) {
+                // String.getChars копіює символи без проміжних об'єктів
+                ((String) csq).getChars(position, position + count, chars.array(), chars.arrayOffset() + chars.position());
+                chars.position(chars.position() + count);
+            } else {
+                for (int i = position; i < position + count; i++) {
+                    chars.put(csq.charAt(i));
+                }
+            }
+            position += count;
+        }
+        return this;
+    }
+
+    @Override
+    public MapDumpWriter append(char c) throws IOException {
+        if (!chars.hasRemaining()) {
+            encodeChars(false);
+        }
+        chars.put(c);
+        return this;
+    }
+
+    /**
+     * Додає до out десяткове представлення value без створення String.
+     */
+    static void appendInt(Appendable out, int value) throws IOException {
+        long remaining = value;
+        if (remaining < 0) {
+            out.append('-');
+            remaining = -remaining;
+        }
+        long divisor = 1;
+        while (divisor * 10 <= remaining) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + remaining / divisor));
+            remaining %= divisor;
+        }
+    }
+
+    /**
+     * Кодує та записує в канал усі накопичені дані.
+     */
+    @Override
+    public void flush() throws IOException {
+        encodeChars(true);
+        drainBytes();
+    }
+
+    private void encodeChars(boolean endOfInput) throws IOException {
+        chars.flip();
+        while (true) {
+            CoderResult result = encoder.encode(chars, bytes, endOfInput);
+            if (result.isOverflow()) {
+                drainBytes();
+            } else {
+                break;
+            }
+        }
+        if (endOfInput) {
+            while (encoder.flush(bytes).isOverflow()) {
+                drainBytes();
+            }
+            encoder.reset();
+        }
+        chars.compact();
+    }
+
+    private void drainBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+
+    private void putUtf8(String value) throws IOException {
+        if (value == null) {
+            ensureBytes(4);
+            bytes.putInt(-1);
+            return;
+        }
+        int length = utf8Length(value);
+        ensureBytes(4);
+        bytes.putInt(length);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            ensureBytes(4);
+            if (c < 0x80) {
+                bytes.put((byte) c);
+            } else if (c < 0x800) {
+                bytes.put((byte) (0xC0 | c >> 6)).put((byte) (0x80 | c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes.put((byte) (0xF0 | codePoint >> 18))
+                        .put((byte) (0x80 | codePoint >> 12 & 0x3F))
+                        .put((byte) (0x80 | codePoint >> 6 & 0x3F))
+                        .put((byte) (0x80 | codePoint & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                // Непарний сурогат кодується як '?', так само як у String.getBytes(UTF_8)
+                bytes.put((byte) '?');
+            } else {
+                bytes.put((byte) (0xE0 | c >> 12)).put((byte) (0x80 | c >> 6 & 0x3F)).put((byte) (0x80 | c & 0x3F));
+            }
+        }
+    }
+
+    /**
+     * Повертає довжину рядка в байтах UTF-8 (з тими самими правилами, що й putUtf8).
+     */
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private void ensureBytes(int count) throws IOException {
+        if (bytes.remaining() < count) {
+            drainBytes();
+        }
+    }
+}
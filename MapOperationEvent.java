@@ -0,0 +1,142 @@
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import com.sun.management.ThreadMXBean;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.StackTrace;
+
+/**
+ * Клас MapOperationEvent — подія JDK Flight Recorder для однієї операції з Map
+ * (пошук, додавання, видалення, сортування, виведення).
+ *
+ * <p>Подія охоплює операцію від {@link #start()} до {@link #finish(MapOperationEvent, int, String, int, int)}
+ * і містить назву метрики PerformanceTracker, тип Map, розмір Map після операції, кількість знайдених
+ * або змінених записів та кількість байтів, виділених потоком під час операції. У тому ж записі JFR
+ * її можна зіставити з паузами GC, вибірками виділень пам'яті та очікуванням блокувань
+ * (див. MapOperationReport).</p>
+ *
+ * <p>Подія записується, лише якщо її увімкнено і в застосунку ({@link #setEnabled(boolean)},
+ * системна властивість {@code tortoise.profiling}, за замовчуванням увімкнено), і в активному
+ * записі JFR ({@link #startRecording()}, {@code -XX:StartFlightRecording} або {@code jcmd <pid> JFR.start}).
+ * Коли запису немає, {@link #start()} коштує одне читання volatile-поля та перевірку
+ * Event.isEnabled(), яку JIT зводить до константи, і повертає null без виділення пам'яті.</p>
+ */
+@Name(MapOperationEvent.NAME)
+@Label("Операція з Map")
+@Category({"Tortoise", "Map"})
+@Description("Пошук, додавання, видалення, сортування або виведення записів Tortoise -> власник")
+@StackTrace(false)
+public final class MapOperationEvent extends Event {
+    /**
+     * Ім'я типу події в записі JFR.
+     */
+    public static final String NAME = "tortoise.MapOperation";
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("tortoise.profiling", "true"));
+
+    @Label("Операція")
+    String operation;
+
+    @Label("Тип Map")
+    String mapKind;
+
+    @Label("Розмір Map")
+    int mapSize;
+
+    @Label("Знайдено або змінено записів")
+    int matched;
+
+    @Label("Виділено пам'яті")
+    @DataAmount
+    long allocatedBytes;
+
+    // Лічильник виділених потоком байтів на початку операції (не записується в подію)
+    private transient long allocationStart;
+
+    /**
+     * ThreadMXBean завантажується лише при першій записаній події, а не під час ініціалізації класу.
+     */
+    private static final class Threads {
+        static final ThreadMXBean BEAN = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    /**
+     * Вмикає або вимикає запис подій під час роботи застосунку, не зупиняючи запис JFR.
+     */
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isProfilingEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Починає подію для операції. Викликається до {@code System.nanoTime()} операції, щоб
+     * ініціалізація цього класу та JFR при першому виклику не потрапляла в гістограму PerformanceTracker.
+     *
+     * @return подія або null, якщо запис подій вимкнено (тоді finish нічого не робить)
+     */
+    public static MapOperationEvent start() {
+        if (!enabled) {
+            return null;
+        }
+        MapOperationEvent event = new MapOperationEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.allocationStart = Threads.BEAN.getCurrentThreadAllocatedBytes();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Завершує подію та записує її, якщо тривалість перевищує поріг запису JFR.
+     *
+     * @param event подія з {@link #start()} або null
+     * @param metricId ідентифікатор метрики PerformanceTracker (назва операції)
+     * @param mapKind тип Map, наприклад "HashMap"
+     * @param mapSize кількість записів після операції
+     * @param matched кількість знайдених, доданих, видалених або виведених записів
+     */
+    public static void finish(MapOperationEvent event, int metricId, String mapKind, int mapSize, int matched) {
+        if (event == null) {
+            return;
+        }
+        long allocated = Threads.BEAN.getCurrentThreadAllocatedBytes() - event.allocationStart;
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = PerformanceTracker.metricName(metricId);
+            event.mapKind = mapKind;
+            event.mapSize = mapSize;
+            event.matched = matched;
+            event.allocatedBytes = allocated;
+            event.commit();
+        }
+    }
+
+    /**
+     * Запускає запис JFR у поточному процесі з подіями операцій (без порогу тривалості),
+     * паузами GC, вибірками виділень пам'яті та очікуваннями блокувань довше 10 мс,
+     * і вмикає запис подій у застосунку. Запис зберігається викликом Recording.dump(Path)
+     * та зупиняється Recording.close().
+     */
+    public static Recording startRecording() {
+        Recording recording = new Recording();
+        recording.setName("tortoise-map-operations");
+        recording.enable(MapOperationEvent.class).withoutThreshold();
+        recording.enable("jdk.GCPhasePause");
+        recording.enable("jdk.ObjectAllocationSample").with("throttle", "150/s");
+        recording.enable("jdk.JavaMonitorEnter").withThreshold(Duration.ofMillis(10));
+        recording.enable("jdk.ThreadPark").withThreshold(Duration.ofMillis(10));
+        recording.start();
+        setEnabled(true);
+        return recording;
+    }
+}
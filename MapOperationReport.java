@@ -0,0 +1,188 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Клас MapOperationReport — зведення запису JFR з подіями MapOperationEvent у таблицю
+ * тривалостей за операціями.
+ *
+ * <p>Для кожної операції (тип Map + назва метрики) виводяться кількість подій, p50/p99/max тривалості,
+ * середні розмір Map, кількість знайдених чи змінених записів та виділена пам'ять, а також кількість
+ * операцій, що перетнулися з паузою GC (jdk.GCPhasePause) або очікували на блокування в тому ж потоці
+ * (jdk.JavaMonitorEnter, jdk.ThreadPark).</p>
+ *
+ * <p>Запуск: {@code java -XX:StartFlightRecording:filename=ops.jfr BasicDataOperationUsingMap},
+ * потім {@code java MapOperationReport ops.jfr}</p>
+ */
+public class MapOperationReport {
+    /**
+     * Накопичена статистика однієї операції.
+     */
+    static final class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        long count;
+        long totalMapSize;
+        long totalMatched;
+        long totalAllocatedBytes;
+        long duringGcPause;
+        long contended;
+    }
+
+    /**
+     * Інтервали [start, end] у наносекундах від епохи, упорядковані за початком.
+     */
+    static final class Intervals {
+        private long[] starts = new long[16];
+        private long[] ends = new long[16];
+        private int size;
+        private long maxLength;
+
+        void add(long start, long end) {
+            if (size == starts.length) {
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+            maxLength = Math.max(maxLength, end - start);
+        }
+
+        void sort() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+            long[] sortedStarts = new long[size];
+            long[] sortedEnds = new long[size];
+            for (int i = 0; i < size; i++) {
+                sortedStarts[i] = starts[order[i]];
+                sortedEnds[i] = ends[order[i]];
+            }
+            starts = sortedStarts;
+            ends = sortedEnds;
+        }
+
+        /**
+         * Чи перетинається [from, to] хоча б з одним інтервалом. Перевіряються лише інтервали,
+         * що почалися не раніше ніж from - (найдовший інтервал).
+         */
+        boolean overlaps(long from, long to) {
+            int i = lowerBound(from - maxLength);
+            for (; i < size && starts[i] <= to; i++) {
+                if (ends[i] >= from) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int lowerBound(long value) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Використання: java MapOperationReport <запис.jfr>");
+            System.exit(2);
+        }
+        summarize(Paths.get(args[0]), System.out);
+    }
+
+    /**
+     * Читає запис JFR і записує таблицю статистики операцій у out.
+     *
+     * @return статистика за ключем "тип Map | операція"
+     */
+    public static Map<String, OperationStats> summarize(Path recording, Appendable out) throws IOException {
+        List<RecordedEvent> operations = new ArrayList<>();
+        Intervals gcPauses = new Intervals();
+        Map<Long, Intervals> waitsByThread = new HashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case MapOperationEvent.NAME:
+                        operations.add(event);
+                        break;
+                    case "jdk.GCPhasePause":
+                        gcPauses.add(nanos(event.getStartTime()), nanos(event.getEndTime()));
+                        break;
+                    case "jdk.JavaMonitorEnter":
+                    case "jdk.ThreadPark":
+                        waitsByThread.computeIfAbsent(threadId(event), id -> new Intervals())
+                                .add(nanos(event.getStartTime()), nanos(event.getEndTime()));
+                        break;
+                    default:
+                        break;
+                }
+            }
+        }
+        gcPauses.sort();
+        waitsByThread.values().forEach(Intervals::sort);
+
+        Map<String, OperationStats> stats = new TreeMap<>();
+        for (RecordedEvent event : operations) {
+            String key = event.getString("mapKind") + " | " + event.getString("operation");
+            OperationStats operation = stats.computeIfAbsent(key, k -> new OperationStats());
+            long start = nanos(event.getStartTime());
+            long end = nanos(event.getEndTime());
+            operation.latency.record(end - start);
+            operation.count++;
+            operation.totalMapSize += event.getInt("mapSize");
+            operation.totalMatched += event.getInt("matched");
+            operation.totalAllocatedBytes += event.getLong("allocatedBytes");
+            if (gcPauses.overlaps(start, end)) {
+                operation.duringGcPause++;
+            }
+            Intervals waits = waitsByThread.get(threadId(event));
+            if (waits != null && waits.overlaps(start, end)) {
+                operation.contended++;
+            }
+        }
+
+        out.append(String.format("%-75s %10s %12s %12s %12s %12s %12s %14s %8s %8s%n", "Map | операція", "кількість",
+                "p50, нс", "p99, нс", "max, нс", "сер. розмір", "сер. записів", "сер. виділено", "під GC", "блок."));
+        for (Map.Entry<String, OperationStats> entry : stats.entrySet()) {
+            OperationStats operation = entry.getValue();
+            LatencyHistogram.Snapshot latency = operation.latency.snapshot();
+            out.append(String.format("%-75s %10d %12d %12d %12d %12d %12d %12d Б %8d %8d%n", entry.getKey(), operation.count,
+                    latency.getP50(), latency.getP99(), latency.getMax(),
+                    operation.totalMapSize / operation.count, operation.totalMatched / operation.count,
+                    operation.totalAllocatedBytes / operation.count, operation.duringGcPause, operation.contended));
+        }
+        return stats;
+    }
+
+    private static long nanos(Instant instant) {
+        return instant.getEpochSecond() * 1_000_000_000L + instant.getNano();
+    }
+
+    private static long threadId(RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        return thread != null ? thread.getJavaThreadId() : -1;
+    }
+}
@@ -0,0 +1,630 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Клас MutationLog — журнал попереднього запису (write-ahead log) для змін однієї Map Tortoise -> власник:
+ * додавання запису, видалення за ключем та видалення за значенням.
+ *
+ * <p>Записи журналу лише дописуються в кінець файлу. Кожен запис має довжину та контрольну суму CRC32,
+ * тому обірваний запис у кінці файлу (наприклад, після збою живлення) відкидається під час читання.
+ * Фактичний запис на диск виконує фоновий потік, що об'єднує всі записи, які надійшли з моменту
+ * попереднього скидання, в одну операцію write + fsync (group commit). Рівень надійності визначає
+ * {@link FsyncPolicy}.</p>
+ *
+ * <p>Якщо фоновий запис завершився помилкою, наступні append*, commit та close кидають її за будь-якої
+ * політики, тож зміни не підтверджуються, коли журнал уже не пишеться. Незаписані зміни накопичуються
+ * в буфері не більше {@link #MAX_PENDING_BYTES}: коли диск не встигає, append чекає на фоновий запис.</p>
+ *
+ * <p>Відновлення ({@link #recover(Path, Path, int)}) завантажує останній знімок TortoiseSnapshot і
+ * повторює хвіст журналу. Ключі розподіляються між потоками за хешем, і кожен потік повторює зміни
+ * своїх ключів та всі видалення за значенням у порядку журналу, тому бар'єри між потоками не потрібні.
+ * Кожен потік веде власний індекс "власник -> ключі", тож видалення за значенням коштує кількість
+ * ключів власника, а не прохід по всіх ключах потоку.
+ * Результат має той самий порядок вставки, що й послідовне повторення над LinkedHashMap, а власник
+ * може бути null.</p>
+ */
+public class MutationLog implements AutoCloseable {
+    /**
+     * Політика синхронізації журналу з диском.
+     */
+    public enum FsyncPolicy {
+        /**
+         * Без fsync: дані передаються ОС кожні groupCommitMillis, збереження після збою ОС не гарантується.
+         */
+        NEVER,
+        /**
+         * fsync кожні groupCommitMillis; зміна повертається без очікування, можлива втрата останнього інтервалу.
+         */
+        PERIODIC,
+        /**
+         * Кожна зміна повертається лише після fsync; одночасні зміни різних потоків об'єднуються в один fsync.
+         */
+        ALWAYS
+    }
+
+    /**
+     * Максимальний обсяг незаписаних змін; більший запис приймається лише в порожній буфер.
+     */
+    static final int MAX_PENDING_BYTES = 8 << 20;
+
+    static final byte PUT = 1;
+    static final byte REMOVE_KEY = 2;
+    static final byte REMOVE_VALUE = 3;
+
+    static final int APPEND_METRIC = PerformanceTracker.metricId("запис зміни в журнал");
+    static final int FLUSH_METRIC = PerformanceTracker.metricId("скидання журналу на диск (group commit)");
+    static final int RECOVER_METRIC = PerformanceTracker.metricId("відновлення зі знімка та журналу");
+
+    private final Path file;
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long groupCommitMillis;
+    private final Thread flusher;
+    private final Object lock = new Object();
+
+    private ByteBuffer pending = ByteBuffer.allocate(1 << 16);
+    private ByteBuffer writing = ByteBuffer.allocate(1 << 16);
+    private long appendedSequence;
+    private long durableSequence;
+    private boolean checkpointing;
+    // Кількість записувачів, що чекають на місце в буфері (фоновий потік тоді не чекає groupCommitMillis)
+    private int blockedWriters;
+    private boolean closed;
+    private IOException failure;
+
+    /**
+     * Одна зміна, прочитана з журналу.
+     */
+    static final class Record {
+        final byte type;
+        final BasicDataOperationUsingMap.Tortoise key;
+        final String owner;
+
+        Record(byte type, BasicDataOperationUsingMap.Tortoise key, String owner) {
+            this.type = type;
+            this.key = key;
+            this.owner = owner;
+        }
+    }
+
+    /**
+     * Стан ключа під час повторення журналу: поточний власник та номер запису журналу, що додав
+     * ключ востаннє (-1, якщо ключ є у знімку і не видалявся).
+     */
+    private static final class Slot {
+        String owner;
+        final int insertedAt;
+
+        Slot(String owner, int insertedAt) {
+            this.owner = owner;
+            this.insertedAt = insertedAt;
+        }
+    }
+
+    private MutationLog(Path file, FsyncPolicy policy, long groupCommitMillis) throws IOException {
+        this.file = file;
+        this.policy = policy;
+        this.groupCommitMillis = groupCommitMillis;
+        long validLength = read(file, new ArrayList<>());
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        // Відкидаємо обірваний хвіст, щоб нові записи не йшли після пошкодженого запису
+        channel.truncate(validLength);
+        channel.position(validLength);
+        this.flusher = new Thread(this::flushLoop, "mutation-log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Відкриває (або створює) журнал для дописування.
+     *
+     * @param file файл журналу
+     * @param policy політика fsync
+     * @param groupCommitMillis інтервал фонового скидання для NEVER та PERIODIC
+     */
+    public static MutationLog open(Path file, FsyncPolicy policy, long groupCommitMillis) throws IOException {
+        return new MutationLog(file, policy, groupCommitMillis);
+    }
+
+    public FsyncPolicy getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Додає до журналу зміну "додавання запису".
+     *
+     * @return порядковий номер запису для {@link #commit(long)}
+     */
+    public long appendPut(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        return append(PUT, key.getNickname(), key.getSpecies(), owner);
+    }
+
+    /**
+     * Додає до журналу зміну "видалення за ключем".
+     */
+    public long appendRemoveKey(BasicDataOperationUsingMap.Tortoise key) {
+        return append(REMOVE_KEY, key.getNickname(), key.getSpecies(), null);
+    }
+
+    /**
+     * Додає до журналу зміну "видалення за значенням".
+     */
+    public long appendRemoveValue(String owner) {
+        return append(REMOVE_VALUE, null, null, owner);
+    }
+
+    /**
+     * Завершує зміну відповідно до політики: для ALWAYS чекає, поки запис з номером sequence
+     * (і всі попередні) буде збережено fsync; для NEVER та PERIODIC повертається одразу.
+     * Пакетні операції викликають commit один раз для номера останнього запису пакета.
+     */
+    public void commit(long sequence) {
+        if (policy == FsyncPolicy.ALWAYS) {
+            awaitDurable(sequence);
+        } else {
+            synchronized (lock) {
+                throwIfFailed();
+            }
+        }
+    }
+
+    /**
+     * Чекає, поки запис з номером sequence буде записано на диск фоновим потоком.
+     */
+    public void awaitDurable(long sequence) {
+        synchronized (lock) {
+            while (durableSequence < sequence && failure == null) {
+                waitOnLock("Очікування запису журналу перервано");
+            }
+            throwIfFailed();
+        }
+    }
+
+    /**
+     * Кидає помилку фонового запису, якщо вона сталася. Викликається під lock.
+     */
+    private void throwIfFailed() {
+        if (failure != null) {
+            throw new UncheckedIOException("Журнал " + file + " не записано на диск", failure);
+        }
+    }
+
+    /**
+     * Зберігає знімок map і очищує журнал: зміни до цього моменту містяться у знімку.
+     *
+     * <p>Поки триває checkpoint, нові записи в журнал чекають на його завершення, тому фоновий потік
+     * не пише в журнал під час очищення, а зміни, що надійшли під час checkpoint, потрапляють уже
+     * в очищений журнал. Знімок записується в тимчасовий файл із fsync, атомарно замінює попередній,
+     * після чого синхронізується каталог — лише тоді журнал очищується. Тому після збою на будь-якому
+     * кроці recover() знаходить або старий знімок з повним журналом, або новий знімок.</p>
+     *
+     * <p>Під час виклику map не повинна змінюватися.</p>
+     */
+    public void checkpoint(Path snapshotFile, Map<BasicDataOperationUsingMap.Tortoise, String> map) throws IOException {
+        long sequence;
+        synchronized (lock) {
+            while (checkpointing) {
+                waitOnLock("Очікування checkpoint журналу перервано");
+            }
+            checkpointing = true;
+            sequence = appendedSequence;
+        }
+        try {
+            awaitDurable(sequence);
+            Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            TortoiseSnapshot.write(temporary, map);
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(snapshotFile.toAbsolutePath().getParent());
+            synchronized (lock) {
+                // Усі записи вже на диску, а нові чекають на checkpoint, тому фоновий потік простоює
+                channel.truncate(0);
+                channel.position(0);
+                channel.force(true);
+            }
+        } finally {
+            synchronized (lock) {
+                checkpointing = false;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Синхронізує каталог з диском, щоб перейменування файлу в ньому пережило збій.
+     * На платформах, де каталог не можна відкрити як файл (Windows), перейменування
+     * вже є стійким, тому помилку відкриття пропускаємо.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(directory, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (FileChannel opened = channel) {
+            opened.force(true);
+        }
+    }
+
+    private void waitOnLock(String interruptedMessage) {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(interruptedMessage, e);
+        }
+    }
+
+    /**
+     * Скидає всі записи на диск і зупиняє фоновий потік.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        IOException flushFailure;
+        synchronized (lock) {
+            flushFailure = failure;
+        }
+        if (flushFailure != null) {
+            channel.close();
+            throw flushFailure;
+        }
+        channel.force(true);
+        channel.close();
+    }
+
+    private long append(byte type, String nickname, String species, String owner) {
+        long timeStart = System.nanoTime();
+
+        byte[] nicknameBytes = encode(nickname);
+        byte[] speciesBytes = encode(species);
+        byte[] ownerBytes = encode(owner);
+        int bodyLength = 1 + length(nicknameBytes) + length(speciesBytes) + length(ownerBytes);
+        long sequence;
+        synchronized (lock) {
+            while (checkpointing && !closed) {
+                waitOnLock("Очікування checkpoint журналу перервано");
+            }
+            if (closed) {
+                throw new IllegalStateException("Журнал " + file + " закрито");
+            }
+            throwIfFailed();
+            int recordLength = 4 + bodyLength + 4;
+            while (pending.position() > 0 && pending.position() + recordLength > MAX_PENDING_BYTES) {
+                // Буфер заповнено: будимо фоновий потік і чекаємо, поки він забере буфер на запис
+                lock.notifyAll();
+                blockedWriters++;
+                try {
+                    waitOnLock("Очікування місця в буфері журналу перервано");
+                } finally {
+                    blockedWriters--;
+                }
+                if (closed) {
+                    throw new IllegalStateException("Журнал " + file + " закрито");
+                }
+                throwIfFailed();
+            }
+            ensurePending(recordLength);
+            int start = pending.position();
+            pending.putInt(bodyLength).put(type);
+            putBytes(pending, nicknameBytes);
+            putBytes(pending, speciesBytes);
+            putBytes(pending, ownerBytes);
+            CRC32 crc = new CRC32();
+            crc.update(pending.array(), start + 4, bodyLength);
+            pending.putInt((int) crc.getValue());
+            sequence = ++appendedSequence;
+            if (policy == FsyncPolicy.ALWAYS) {
+                lock.notifyAll();
+            }
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, APPEND_METRIC);
+        return sequence;
+    }
+
+    private void ensurePending(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            grown.put(pending);
+            pending = grown;
+        }
+    }
+
+    /**
+     * Цикл фонового потоку: збирає всі записи, що надійшли, і записує їх однією операцією.
+     * Для ALWAYS скидання починається одразу після появи записів, інакше — раз на groupCommitMillis.
+     */
+    private void flushLoop() {
+        while (true) {
+            long sequence;
+            synchronized (lock) {
+                try {
+                    if (policy == FsyncPolicy.ALWAYS) {
+                        while (pending.position() == 0 && !closed) {
+                            lock.wait();
+                        }
+                    } else if (!closed && blockedWriters == 0) {
+                        lock.wait(groupCommitMillis);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (pending.position() == 0) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                ByteBuffer full = pending;
+                pending = writing;
+                writing = full;
+                sequence = appendedSequence;
+                // Буфер звільнено: будимо записувачів, що чекають на місце
+                lock.notifyAll();
+            }
+
+            long timeStart = System.nanoTime();
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                writing.clear();
+                if (policy != FsyncPolicy.NEVER) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                synchronized (lock) {
+                    failure = e;
+                    lock.notifyAll();
+                }
+                return;
+            }
+            PerformanceTracker.recordOperationTime(timeStart, FLUSH_METRIC);
+
+            synchronized (lock) {
+                durableSequence = sequence;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Відновлює вміст Map: завантажує знімок (якщо він існує) та повторює журнал.
+     *
+     * @param snapshotFile файл знімка TortoiseSnapshot (може не існувати)
+     * @param logFile файл журналу (може не існувати)
+     * @param threads кількість потоків для паралельного повторення змін різних ключів
+     * @return відновлені дані в порядку вставки
+     */
+    public static LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> recover(Path snapshotFile, Path logFile, int threads)
+            throws IOException {
+        long timeStart = System.nanoTime();
+
+        LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> snapshotMap = new LinkedHashMap<>();
+        if (Files.exists(snapshotFile)) {
+            try (TortoiseSnapshot snapshot = TortoiseSnapshot.open(snapshotFile)) {
+                snapshotMap = snapshot.toLinkedHashMap();
+            }
+        }
+        List<Record> records = new ArrayList<>();
+        if (Files.exists(logFile)) {
+            read(logFile, records);
+        }
+        LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> result = replay(snapshotMap, records, threads);
+
+        PerformanceTracker.recordOperationTime(timeStart, RECOVER_METRIC);
+        return result;
+    }
+
+    /**
+     * Повторює зміни над записами base і повертає результат у тому порядку вставки, який дало б
+     * послідовне повторення над LinkedHashMap: ключі base, що не видалялися, лишаються на своїх місцях,
+     * а ключі, додані журналом, ідуть за ними в порядку останнього додавання.
+     *
+     * <p>Ключі розбиваються на threads смуг за хешем. Кожна смуга проходить журнал по порядку і застосовує
+     * зміни своїх ключів та кожне видалення за значенням до своїх ключів, тому смуги не мають спільного
+     * стану і виконуються паралельно без бар'єрів.</p>
+     */
+    static LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> replay(
+            Map<BasicDataOperationUsingMap.Tortoise, String> base, List<Record> records, int threads) {
+        int lanes = Math.max(1, threads);
+        int[] laneOf = new int[records.size()];
+        IntStream.range(0, records.size()).parallel().forEach(i -> {
+            Record record = records.get(i);
+            laneOf[i] = record.type == REMOVE_VALUE ? -1 : lane(record.key, lanes);
+        });
+        List<HashMap<BasicDataOperationUsingMap.Tortoise, Slot>> laneSlots = new ArrayList<>(lanes);
+        for (int lane = 0; lane < lanes; lane++) {
+            laneSlots.add(new HashMap<>());
+        }
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : base.entrySet()) {
+            laneSlots.get(lane(entry.getKey(), lanes)).put(entry.getKey(), new Slot(entry.getValue(), -1));
+        }
+
+        IntStream.range(0, lanes).parallel().forEach(lane -> {
+            HashMap<BasicDataOperationUsingMap.Tortoise, Slot> slots = laneSlots.get(lane);
+            // Ключі смуги за власником: видалення за значенням зачіпає лише ключі власника, а не всю смугу
+            HashMap<String, Set<BasicDataOperationUsingMap.Tortoise>> keysByOwner = new HashMap<>();
+            slots.forEach((key, slot) -> keysOf(keysByOwner, slot.owner).add(key));
+            for (int i = 0; i < laneOf.length; i++) {
+                Record record = records.get(i);
+                if (laneOf[i] < 0) {
+                    Set<BasicDataOperationUsingMap.Tortoise> keys = keysByOwner.remove(record.owner);
+                    if (keys != null) {
+                        slots.keySet().removeAll(keys);
+                    }
+                } else if (laneOf[i] == lane) {
+                    Slot slot = slots.get(record.key);
+                    if (slot != null) {
+                        unindex(keysByOwner, slot.owner, record.key);
+                    }
+                    if (record.type == PUT) {
+                        if (slot != null) {
+                            slot.owner = record.owner;
+                        } else {
+                            slots.put(record.key, new Slot(record.owner, i));
+                        }
+                        keysOf(keysByOwner, record.owner).add(record.key);
+                    } else {
+                        slots.remove(record.key);
+                    }
+                }
+            }
+        });
+
+        // Ключі base, що не видалялися, — у порядку base; додані журналом — у порядку номерів записів
+        int size = 0;
+        for (HashMap<BasicDataOperationUsingMap.Tortoise, Slot> slots : laneSlots) {
+            size += slots.size();
+        }
+        LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> result =
+                new LinkedHashMap<>(BasicDataOperationUsingMap.capacityFor(size));
+        for (BasicDataOperationUsingMap.Tortoise key : base.keySet()) {
+            Slot slot = laneSlots.get(lane(key, lanes)).get(key);
+            if (slot != null && slot.insertedAt < 0) {
+                result.put(key, slot.owner);
+            }
+        }
+        BasicDataOperationUsingMap.Tortoise[] insertedKeys = new BasicDataOperationUsingMap.Tortoise[records.size()];
+        String[] insertedOwners = new String[records.size()];
+        for (HashMap<BasicDataOperationUsingMap.Tortoise, Slot> slots : laneSlots) {
+            for (Map.Entry<BasicDataOperationUsingMap.Tortoise, Slot> entry : slots.entrySet()) {
+                int insertedAt = entry.getValue().insertedAt;
+                if (insertedAt >= 0) {
+                    insertedKeys[insertedAt] = entry.getKey();
+                    insertedOwners[insertedAt] = entry.getValue().owner;
+                }
+            }
+        }
+        for (int i = 0; i < insertedKeys.length; i++) {
+            if (insertedKeys[i] != null) {
+                result.put(insertedKeys[i], insertedOwners[i]);
+            }
+        }
+        return result;
+    }
+
+    private static Set<BasicDataOperationUsingMap.Tortoise> keysOf(
+            HashMap<String, Set<BasicDataOperationUsingMap.Tortoise>> keysByOwner, String owner) {
+        return keysByOwner.computeIfAbsent(owner, o -> new HashSet<>());
+    }
+
+    private static void unindex(HashMap<String, Set<BasicDataOperationUsingMap.Tortoise>> keysByOwner,
+                                String owner, BasicDataOperationUsingMap.Tortoise key) {
+        Set<BasicDataOperationUsingMap.Tortoise> keys = keysByOwner.get(owner);
+        if (keys != null && keys.remove(key) && keys.isEmpty()) {
+            keysByOwner.remove(owner);
+        }
+    }
+
+    private static int lane(BasicDataOperationUsingMap.Tortoise key, int lanes) {
+        return (key.hashCode() & 0x7FFFFFFF) % lanes;
+    }
+
+    /**
+     * Читає всі цілі записи журналу до першого обірваного або пошкодженого запису.
+     *
+     * @return довжина коректної частини файлу в байтах
+     */
+    static long read(Path file, List<Record> records) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        long validLength = 0;
+        try (InputStream input = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(input, 1 << 16))) {
+            CRC32 crc = new CRC32();
+            while (true) {
+                int bodyLength;
+                byte[] body;
+                int checksum;
+                try {
+                    bodyLength = in.readInt();
+                    if (bodyLength <= 0 || bodyLength > (1 << 26)) {
+                        break;
+                    }
+                    body = new byte[bodyLength];
+                    in.readFully(body);
+                    checksum = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                crc.reset();
+                crc.update(body);
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                records.add(decode(body));
+                validLength += 4 + bodyLength + 4;
+            }
+        }
+        return validLength;
+    }
+
+    private static Record decode(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        byte type = buffer.get();
+        String nickname = getString(buffer);
+        String species = getString(buffer);
+        String owner = getString(buffer);
+        BasicDataOperationUsingMap.Tortoise key = type == REMOVE_VALUE ? null : new BasicDataOperationUsingMap.Tortoise(nickname, species);
+        return new Record(type, key, owner);
+    }
+
+    private static byte[] encode(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int length(byte[] bytes) {
+        return 4 + (bytes != null ? bytes.length : 0);
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(bytes.length).put(bytes);
+        }
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
@@ -0,0 +1,160 @@
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Клас OwnerIndex підтримує зворотний індекс "власник -> множина ключів" для Map.
+ *
+ * <p>Індекс дозволяє знаходити та видаляти записи за значенням (ім'ям власника)
+ * за O(1) плюс кількість знайдених ключів, замість повного сортування записів Map.
+ * Індекс необхідно оновлювати при кожній зміні Map, яку він описує.</p>
+ *
+ * <p>Разом з індексом підтримуються кошики "кількість ключів -> власники", тому кількість записів
+ * власника доступна за O(1), а власники з найбільшою кількістю записів — за O(log c + k)
+ * (c — кількість різних значень лічильника), без підрахунку та сортування після кожної зміни.
+ * Власники в кошику впорядковані за ім'ям ({@link #OWNER_ORDER}), тому власники з однаковою кількістю
+ * повертаються в тому самому порядку, що й у TortoiseAggregates.</p>
+ *
+ * <p>Власник null індексується як звичайний власник.</p>
+ *
+ * @param <K> тип ключа Map
+ */
+public class OwnerIndex<K> {
+    /**
+     * Порядок власників з однаковою кількістю записів: за ім'ям, власник null — першим.
+     */
+    static final Comparator<String> OWNER_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final HashMap<String, Set<K>> keysByOwner = new HashMap<>();
+    private final TreeMap<Integer, Set<String>> ownersByCount = new TreeMap<>();
+
+    /**
+     * Створює індекс для всіх записів переданої Map.
+     *
+     * @param source Map, для якої будується індекс (ключ: K, значення: ім'я власника)
+     */
+    public OwnerIndex(Map<K, String> source) {
+        for (Map.Entry<K, String> entry : source.entrySet()) {
+            add(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Додає ключ до множини ключів власника.
+     */
+    public void add(K key, String owner) {
+        Set<K> keys = keysByOwner.computeIfAbsent(owner, o -> new LinkedHashSet<>());
+        if (keys.add(key)) {
+            moveOwner(owner, keys.size() - 1, keys.size());
+        }
+    }
+
+    /**
+     * Видаляє ключ з множини ключів власника.
+     * Якщо ключ відсутній в індексі, нічого не відбувається.
+     */
+    public void remove(K key, String owner) {
+        Set<K> keys = keysByOwner.get(owner);
+        if (keys != null && keys.remove(key)) {
+            moveOwner(owner, keys.size() + 1, keys.size());
+            if (keys.isEmpty()) {
+                keysByOwner.remove(owner);
+            }
+        }
+    }
+
+    /**
+     * Оновлює індекс після Map.put(): переносить ключ від попереднього власника до нового.
+     *
+     * @param key ключ, для якого виконано put
+     * @param previousOwner значення, повернуте Map.put() (null, якщо ключа не було)
+     * @param owner нове значення ключа
+     */
+    public void put(K key, String previousOwner, String owner) {
+        remove(key, previousOwner);
+        add(key, owner);
+    }
+
+    /**
+     * Повертає ключі, що належать власнику, у порядку їх додавання до індексу.
+     *
+     * @return незмінна множина ключів (порожня, якщо власника немає)
+     */
+    public Set<K> find(String owner) {
+        Set<K> keys = keysByOwner.get(owner);
+        return keys != null ? Collections.unmodifiableSet(keys) : Collections.emptySet();
+    }
+
+    /**
+     * Видаляє власника з індексу та повертає всі його ключі.
+     *
+     * @return множина ключів власника (порожня, якщо власника немає)
+     */
+    public Set<K> removeOwner(String owner) {
+        Set<K> keys = keysByOwner.remove(owner);
+        if (keys == null) {
+            return Collections.emptySet();
+        }
+        moveOwner(owner, keys.size(), 0);
+        return keys;
+    }
+
+    /**
+     * Повертає кількість ключів власника за O(1).
+     */
+    public int count(String owner) {
+        Set<K> keys = keysByOwner.get(owner);
+        return keys != null ? keys.size() : 0;
+    }
+
+    /**
+     * Повертає кількість ключів кожного власника. Копія будується за кількість власників,
+     * без проходу по записах Map.
+     */
+    public Map<String, Integer> counts() {
+        Map<String, Integer> counts = new HashMap<>(BasicDataOperationUsingMap.capacityFor(keysByOwner.size()));
+        keysByOwner.forEach((owner, keys) -> counts.put(owner, keys.size()));
+        return counts;
+    }
+
+    /**
+     * Повертає до k власників з найбільшою кількістю ключів, за спаданням кількості
+     * (власники з однаковою кількістю — за {@link #OWNER_ORDER}).
+     */
+    public List<Map.Entry<String, Integer>> topOwners(int k) {
+        List<Map.Entry<String, Integer>> top = new ArrayList<>(Math.min(k, keysByOwner.size()));
+        for (Map.Entry<Integer, Set<String>> bucket : ownersByCount.descendingMap().entrySet()) {
+            for (String owner : bucket.getValue()) {
+                if (top.size() == k) {
+                    return top;
+                }
+                top.add(new AbstractMap.SimpleImmutableEntry<>(owner, bucket.getKey()));
+            }
+        }
+        return top;
+    }
+
+    /**
+     * Переносить власника з кошика from до кошика to (0 — власника більше немає).
+     */
+    private void moveOwner(String owner, int from, int to) {
+        if (from > 0) {
+            Set<String> owners = ownersByCount.get(from);
+            owners.remove(owner);
+            if (owners.isEmpty()) {
+                ownersByCount.remove(from);
+            }
+        }
+        if (to > 0) {
+            ownersByCount.computeIfAbsent(to, c -> new TreeSet<>(OWNER_ORDER)).add(owner);
+        }
+    }
+}
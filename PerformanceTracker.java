@@ -1,16 +1,218 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Клас PerformanceTracker відстежує продуктивність операцій з даними.
+ *
+ * <p>Тривалість кожної операції записується в гістограму LatencyHistogram, окрему для кожної
+ * назви операції. Назви операцій реєструються один раз і отримують числовий ідентифікатор метрики
+ * ({@link #metricId(String)}), тому запис тривалості ({@link #recordOperationTime(long, int)})
+ * не виділяє пам'ять і не виконує консольного виводу. Статистику (кількість, p50/p99/p999/max)
+ * можна отримати знімком ({@link #snapshot()}), вивести на вимогу ({@link #printReport()})
+ * або періодично ({@link #startPeriodicExport(long, Appendable)}).
+ * Окремі показники, що не є тривалістю (пропускна здатність, пікова пам'ять), зберігаються як
+ * іменовані значення ({@link #setGauge(String, long)}) і експортуються разом зі статистикою.</p>
+ *
+ * <p>Операції з Map додатково породжують події JFR MapOperationEvent з назвою метрики
+ * ({@link #metricName(int)}), що дозволяє зіставити їх з GC та блокуваннями в записі JFR.</p>
  */
 public class PerformanceTracker {
+    private static final ConcurrentHashMap<String, Integer> METRIC_IDS = new ConcurrentHashMap<>();
+    private static final Object REGISTRATION_LOCK = new Object();
+
+    // Масиви замінюються цілком при реєстрації нової метрики (copy-on-write)
+    private static volatile String[] metricNames = new String[0];
+    private static volatile LatencyHistogram[] histograms = new LatencyHistogram[0];
+
+    private static final ConcurrentHashMap<String, AtomicLong> GAUGES = new ConcurrentHashMap<>();
+
+    private static volatile boolean consoleOutput = false;
+    private static ScheduledExecutorService exporter;
+
     /**
-     * Відображає тривалість виконання операції в наносекундах.
-     * 
+     * Повертає ідентифікатор метрики для назви операції, реєструючи її за потреби.
+     *
+     * @param operationName Назва операції, наприклад "пошук за ключем в HashMap".
+     * @return ідентифікатор метрики для {@link #recordOperationTime(long, int)}
+     */
+    public static int metricId(String operationName) {
+        Integer id = METRIC_IDS.get(operationName);
+        if (id != null) {
+            return id;
+        }
+        synchronized (REGISTRATION_LOCK) {
+            id = METRIC_IDS.get(operationName);
+            if (id == null) {
+                id = metricNames.length;
+                String[] names = Arrays.copyOf(metricNames, id + 1);
+                LatencyHistogram[] grown = Arrays.copyOf(histograms, id + 1);
+                names[id] = operationName;
+                grown[id] = new LatencyHistogram();
+                histograms = grown;
+                metricNames = names;
+                METRIC_IDS.put(operationName, id);
+            }
+            return id;
+        }
+    }
+
+    /**
+     * Повертає назву операції, зареєстровану для ідентифікатора метрики.
+     */
+    public static String metricName(int metricId) {
+        return metricNames[metricId];
+    }
+
+    /**
+     * Записує тривалість операції, що почалася в startTime. Не виділяє пам'ять.
+     *
+     * @param startTime Початковий час операції в наносекундах.
+     * @param metricId Ідентифікатор метрики, отриманий з {@link #metricId(String)}.
+     */
+    public static void recordOperationTime(long startTime, int metricId) {
+        record(metricId, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Записує готову тривалість операції в гістограму метрики.
+     *
+     * @param metricId Ідентифікатор метрики.
+     * @param nanos Тривалість у наносекундах.
+     */
+    public static void record(int metricId, long nanos) {
+        histograms[metricId].record(nanos);
+    }
+
+    /**
+     * Записує тривалість виконання операції в наносекундах.
+     * Якщо увімкнено консольний вивід ({@link #setConsoleOutput(boolean)}), також виводить її.
+     *
      * @param startTime Початковий час операції в наносекундах.
      * @param operationName Назва операції.
      */
     public static void displayOperationTime(long startTime, String operationName) {
-        long finishTime = System.nanoTime();
-        long executionTime = (finishTime - startTime);
-        System.out.println("\n========= Тривалість операції '" + operationName + "': " + executionTime + " нс =========");
+        long executionTime = System.nanoTime() - startTime;
+        record(metricId(operationName), executionTime);
+        if (consoleOutput) {
+            System.out.println("\n========= Тривалість операції '" + operationName + "': " + executionTime + " нс =========");
+        }
+    }
+
+    /**
+     * Встановлює значення іменованого показника (наприклад, "завантаження CSV: записів/с").
+     *
+     * @param name Назва показника.
+     * @param value Поточне значення.
+     */
+    public static void setGauge(String name, long value) {
+        AtomicLong gauge = GAUGES.get(name);
+        if (gauge == null) {
+            gauge = GAUGES.computeIfAbsent(name, n -> new AtomicLong());
+        }
+        gauge.set(value);
+    }
+
+    /**
+     * Повертає поточні значення всіх іменованих показників, упорядковані за назвою.
+     */
+    public static Map<String, Long> gauges() {
+        Map<String, Long> result = new TreeMap<>();
+        GAUGES.forEach((name, value) -> result.put(name, value.get()));
+        return result;
+    }
+
+    /**
+     * Вмикає або вимикає виведення тривалості кожної операції в консоль (за замовчуванням вимкнено).
+     */
+    public static void setConsoleOutput(boolean enabled) {
+        consoleOutput = enabled;
+    }
+
+    /**
+     * Повертає знімки гістограм усіх зареєстрованих метрик у порядку їх реєстрації.
+     */
+    public static Map<String, LatencyHistogram.Snapshot> snapshot() {
+        String[] names = metricNames;
+        LatencyHistogram[] current = histograms;
+        Map<String, LatencyHistogram.Snapshot> result = new LinkedHashMap<>();
+        for (int i = 0; i < names.length; i++) {
+            result.put(names[i], current[i].snapshot());
+        }
+        return result;
+    }
+
+    /**
+     * Обнуляє гістограми всіх метрик (ідентифікатори метрик зберігаються).
+     */
+    public static void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Записує таблицю статистики всіх метрик, що мають хоча б один запис.
+     *
+     * @param out Призначення експорту (наприклад, System.out або StringBuilder).
+     */
+    public static void exportTo(Appendable out) {
+        try {
+            out.append(String.format("%-55s %10s %12s %12s %12s %12s%n", "Операція", "кількість", "p50, нс", "p99, нс", "p999, нс", "max, нс"));
+            for (Map.Entry<String, LatencyHistogram.Snapshot> entry : snapshot().entrySet()) {
+                LatencyHistogram.Snapshot s = entry.getValue();
+                if (s.getCount() > 0) {
+                    out.append(String.format("%-55s %10d %12d %12d %12d %12d%n",
+                            entry.getKey(), s.getCount(), s.getP50(), s.getP99(), s.getP999(), s.getMax()));
+                }
+            }
+            for (Map.Entry<String, Long> gauge : gauges().entrySet()) {
+                out.append(String.format("%-55s %10d%n", gauge.getKey(), gauge.getValue()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Виводить статистику всіх метрик у консоль.
+     */
+    public static void printReport() {
+        System.out.println("\n========= Статистика тривалості операцій =========");
+        exportTo(System.out);
+    }
+
+    /**
+     * Запускає періодичний експорт статистики у фоновому потоці.
+     *
+     * @param periodMillis Період експорту в мілісекундах.
+     * @param out Призначення експорту.
+     */
+    public static synchronized void startPeriodicExport(long periodMillis, Appendable out) {
+        stopPeriodicExport();
+        exporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "performance-tracker-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        exporter.scheduleAtFixedRate(() -> exportTo(out), periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Зупиняє періодичний експорт, якщо він був запущений.
+     */
+    public static synchronized void stopPeriodicExport() {
+        if (exporter != null) {
+            exporter.shutdownNow();
+            exporter = null;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,318 @@
+import java.util.Arrays;
+import java.util.function.BiConsumer;
+
+/**
+ * Клас PersistentHashTrie — незмінна хеш-таблиця у вигляді HAMT (hash array mapped trie).
+ *
+ * <p>Кожен вузол охоплює 5 біт хешу і зберігає лише зайняті з 32 можливих гілок: бітова маска
+ * показує, які гілки присутні, а їхній індекс у компактному масиві — це кількість одиниць маски
+ * нижче біта гілки (Integer.bitCount). Ключі з повністю однаковим хешем зберігаються
+ * у вузлі колізій.</p>
+ *
+ * <p>{@link #plus(Object, Object)} та {@link #minus(Object)} не змінюють поточну таблицю, а повертають
+ * нову, що копіює лише шлях від кореня до зміненого вузла (до ~7 вузлів) і спільно використовує
+ * решту дерева. Тому знімок будь-якої версії коштує O(1), а стара версія залишається
+ * незмінною, поки на неї є посилання.</p>
+ *
+ * <p>Значення null підтримуються: у вузлах вони зберігаються як внутрішній маркер, тому відсутній ключ
+ * і ключ зі значенням null розрізняє {@link #containsKey(Object)}. Ключі null не підтримуються.</p>
+ *
+ * @param <K> тип ключа
+ * @param <V> тип значення
+ */
+public final class PersistentHashTrie<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    // Маркер значення null у вузлах: null у масиві вузла означає "ключа немає" або "дочірній вузол"
+    private static final Object NULL_VALUE = new Object();
+
+    @SuppressWarnings("rawtypes")
+    private static final PersistentHashTrie EMPTY = new PersistentHashTrie<>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Повертає порожню таблицю.
+     */
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashTrie<K, V> empty() {
+        return (PersistentHashTrie<K, V>) EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Повертає значення ключа або null (якщо ключа немає або його значення null).
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        return (V) unmask(root.find(key, hash(key), 0));
+    }
+
+    public boolean containsKey(K key) {
+        return root.find(key, hash(key), 0) != null;
+    }
+
+    /**
+     * Повертає таблицю, в якій key відповідає value (value може бути null).
+     */
+    public PersistentHashTrie<K, V> plus(K key, V value) {
+        boolean[] added = new boolean[1];
+        Node newRoot = root.assoc(key, value != null ? value : NULL_VALUE, hash(key), 0, added);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashTrie<>(newRoot, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * Повертає таблицю без ключа key (або цю саму таблицю, якщо ключа немає).
+     */
+    public PersistentHashTrie<K, V> minus(K key) {
+        Node newRoot = root.without(key, hash(key), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        return new PersistentHashTrie<>(newRoot != null ? newRoot : BitmapNode.EMPTY, size - 1);
+    }
+
+    /**
+     * Обходить усі записи (порядок визначається хешами ключів).
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        root.forEach((key, value) -> action.accept((K) key, (V) unmask(value)));
+    }
+
+    private static Object unmask(Object value) {
+        return value == NULL_VALUE ? null : value;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private abstract static class Node {
+        abstract Object find(Object key, int hash, int shift);
+
+        abstract Node assoc(Object key, Object value, int hash, int shift, boolean[] added);
+
+        /**
+         * @return новий вузол, той самий вузол (ключа немає) або null (вузол став порожнім)
+         */
+        abstract Node without(Object key, int hash, int shift);
+
+        abstract void forEach(BiConsumer<Object, Object> action);
+    }
+
+    /**
+     * Вузол з бітовою маскою. Масив містить пари [ключ, значення]; якщо ключ null,
+     * друга комірка пари — дочірній вузол.
+     */
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        final int bitmap;
+        final Object[] array;
+
+        BitmapNode(int bitmap, Object[] array) {
+            this.bitmap = bitmap;
+            this.array = array;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            int i = 2 * index(bit);
+            Object storedKey = array[i];
+            Object valueOrNode = array[i + 1];
+            if (storedKey == null) {
+                return ((Node) valueOrNode).find(key, hash, shift + BITS);
+            }
+            return key.equals(storedKey) ? valueOrNode : null;
+        }
+
+        @Override
+        Node assoc(Object key, Object value, int hash, int shift, boolean[] added) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            int i = 2 * index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newArray = new Object[array.length + 2];
+                System.arraycopy(array, 0, newArray, 0, i);
+                newArray[i] = key;
+                newArray[i + 1] = value;
+                System.arraycopy(array, i, newArray, i + 2, array.length - i);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, newArray);
+            }
+            Object storedKey = array[i];
+            Object valueOrNode = array[i + 1];
+            if (storedKey == null) {
+                Node child = (Node) valueOrNode;
+                Node newChild = child.assoc(key, value, hash, shift + BITS, added);
+                return newChild == child ? this : withPair(i, null, newChild);
+            }
+            if (key.equals(storedKey)) {
+                return valueOrNode == value ? this : withPair(i, storedKey, value);
+            }
+            added[0] = true;
+            Node child = createNode(storedKey, valueOrNode, hash(storedKey), key, value, hash, shift + BITS);
+            return withPair(i, null, child);
+        }
+
+        @Override
+        Node without(Object key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int i = 2 * index(bit);
+            Object storedKey = array[i];
+            Object valueOrNode = array[i + 1];
+            if (storedKey == null) {
+                Node child = (Node) valueOrNode;
+                Node newChild = child.without(key, hash, shift + BITS);
+                if (newChild == child) {
+                    return this;
+                }
+                if (newChild != null) {
+                    return withPair(i, null, newChild);
+                }
+            } else if (!key.equals(storedKey)) {
+                return this;
+            }
+            if (bitmap == bit) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new BitmapNode(bitmap ^ bit, newArray);
+        }
+
+        private BitmapNode withPair(int i, Object key, Object valueOrNode) {
+            Object[] newArray = array.clone();
+            newArray[i] = key;
+            newArray[i + 1] = valueOrNode;
+            return new BitmapNode(bitmap, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (array[i] == null) {
+                    ((Node) array[i + 1]).forEach(action);
+                } else {
+                    action.accept(array[i], array[i + 1]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Вузол для ключів з однаковим повним хешем: пари [ключ, значення] без маски.
+     */
+    private static final class CollisionNode extends Node {
+        final int hash;
+        final Object[] array;
+
+        CollisionNode(int hash, Object[] array) {
+            this.hash = hash;
+            this.array = array;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < array.length; i += 2) {
+                if (key.equals(array[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int i = indexOf(key);
+            return i >= 0 ? array[i + 1] : null;
+        }
+
+        @Override
+        Node assoc(Object key, Object value, int hash, int shift, boolean[] added) {
+            if (hash != this.hash) {
+                // Новий ключ має інший хеш: розміщуємо вузол колізій як гілку нового вузла з маскою
+                BitmapNode wrapper = new BitmapNode(1 << ((this.hash >>> shift) & MASK), new Object[]{null, this});
+                return wrapper.assoc(key, value, hash, shift, added);
+            }
+            int i = indexOf(key);
+            if (i >= 0) {
+                if (array[i + 1] == value) {
+                    return this;
+                }
+                Object[] newArray = array.clone();
+                newArray[i + 1] = value;
+                return new CollisionNode(hash, newArray);
+            }
+            Object[] newArray = Arrays.copyOf(array, array.length + 2);
+            newArray[array.length] = key;
+            newArray[array.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        Node without(Object key, int hash, int shift) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            if (array.length == 2) {
+                return null;
+            }
+            Object[] newArray = new Object[array.length - 2];
+            System.arraycopy(array, 0, newArray, 0, i);
+            System.arraycopy(array, i + 2, newArray, i, array.length - i - 2);
+            return new CollisionNode(hash, newArray);
+        }
+
+        @Override
+        void forEach(BiConsumer<Object, Object> action) {
+            for (int i = 0; i < array.length; i += 2) {
+                action.accept(array[i], array[i + 1]);
+            }
+        }
+    }
+
+    /**
+     * Створює вузол для двох різних ключів, що потрапили в одну гілку на рівні shift - BITS.
+     */
+    private static Node createNode(Object key1, Object value1, int hash1, Object key2, Object value2, int hash2, int shift) {
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[]{key1, value1, key2, value2});
+        }
+        boolean[] ignored = new boolean[1];
+        return BitmapNode.EMPTY
+                .assoc(key1, value1, hash1, shift, ignored)
+                .assoc(key2, value2, hash2, shift, ignored);
+    }
+}
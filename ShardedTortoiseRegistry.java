@@ -0,0 +1,717 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Клас ShardedTortoiseRegistry — реєстр черепах, розподілений на N шардів за хешем ключа.
+ *
+ * <p>Кожен локальний шард — це власний TortoiseStore, з яким працює лише один потік-записувач.
+ * Операції потрапляють до поштової скриньки шарда (черги), а записувач забирає їх пакетами
+ * до {@link #MAILBOX_BATCH} операцій і виконує без жодних блокувань. Тому записи в різні шарди
+ * виконуються паралельно на різних ядрах, а черга амортизує пробудження записувача.</p>
+ *
+ * <p>Шард може також працювати окремим процесом (TortoiseServer) і бути доступним через
+ * loopback-з'єднання TortoiseClient — так весь реєстр можна перевірити на одній машині
+ * ({@link #startProcesses(Map, int, Partitioning)}) або підключити до вже запущених серверів
+ * ({@link #connect(int[], Partitioning)}).</p>
+ *
+ * <p>API повторює ConcurrentDataOperationUsingMap: пошук, додавання та видалення за ключем
+ * звертаються до одного шарда; пошук та видалення за значенням розсилаються всім шардам;
+ * sort() отримує від кожного шарда відсортований прогін і зливає їх k-шляховим злиттям
+ * за O(n log k).</p>
+ */
+public class ShardedTortoiseRegistry implements AutoCloseable {
+    /**
+     * Максимальна кількість операцій, які записувач шарда забирає з поштової скриньки за раз.
+     */
+    static final int MAILBOX_BATCH = 256;
+
+    /**
+     * Кількість віртуальних вузлів кожного шарда на кільці узгодженого хешування.
+     */
+    static final int VIRTUAL_NODES = 128;
+
+    /**
+     * Максимальна кількість записів в одному запиті ADD_ALL до шарда в окремому процесі.
+     */
+    static final int REMOTE_ADD_BATCH = 1_000;
+
+    static final int FIND_BY_KEY_METRIC = PerformanceTracker.metricId("пошук за ключем у шардованому реєстрі");
+    static final int FIND_BY_VALUE_METRIC = PerformanceTracker.metricId("пошук за значенням у шардованому реєстрі");
+    static final int ADD_METRIC = PerformanceTracker.metricId("додавання запису до шардованого реєстру");
+    static final int ADD_BATCH_METRIC = PerformanceTracker.metricId("пакетне додавання записів до шардованого реєстру");
+    static final int REMOVE_BY_KEY_METRIC = PerformanceTracker.metricId("видалення за ключем з шардованого реєстру");
+    static final int REMOVE_BY_VALUE_METRIC = PerformanceTracker.metricId("видалення за значенням з шардованого реєстру");
+    static final int SORT_METRIC = PerformanceTracker.metricId("сортування шардованого реєстру (k-шляхове злиття)");
+
+    /**
+     * Спосіб розподілу ключів між шардами.
+     * MODULO — залишок від ділення перемішаного хешу ключа на кількість шардів;
+     * CONSISTENT — кільце узгодженого хешування з VIRTUAL_NODES точками на шард: при зміні
+     * кількості шардів переміщується лише ~1/N ключів.
+     */
+    public enum Partitioning { MODULO, CONSISTENT }
+
+    /**
+     * Операції одного шарда. Усі методи асинхронні, щоб запити до кількох шардів виконувались паралельно.
+     */
+    interface Shard extends AutoCloseable {
+        CompletableFuture<String> findByKey(BasicDataOperationUsingMap.Tortoise key);
+
+        CompletableFuture<BasicDataOperationUsingMap.Tortoise> findByValue(String owner);
+
+        CompletableFuture<String> addEntry(BasicDataOperationUsingMap.Tortoise key, String owner);
+
+        /**
+         * @return кількість нових ключів
+         */
+        CompletableFuture<Integer> addEntries(List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries);
+
+        CompletableFuture<String> removeByKey(BasicDataOperationUsingMap.Tortoise key);
+
+        CompletableFuture<Integer> removeByValue(String owner);
+
+        /**
+         * Повертає незмінну копію записів шарда, відсортовану за Tortoise.KEY_ORDER.
+         */
+        CompletableFuture<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> sortedRun();
+
+        CompletableFuture<Integer> size();
+
+        @Override
+        void close();
+    }
+
+    private final Shard[] shards;
+    private final Partitioning partitioning;
+
+    // Кільце узгодженого хешування: відсортовані позиції точок та номери їхніх шардів
+    private final int[] ringPoints;
+    private final int[] ringShards;
+
+    // Процеси шардів, запущені реєстром (порожньо для локальних шардів та connect())
+    private final List<Process> processes;
+
+    /**
+     * Створює реєстр з shardCount локальних шардів і розподіляє між ними початкові дані.
+     */
+    public ShardedTortoiseRegistry(Map<BasicDataOperationUsingMap.Tortoise, String> initial, int shardCount,
+                                   Partitioning partitioning) {
+        this(new Shard[shardCount], partitioning, Collections.emptyList());
+        List<Map<BasicDataOperationUsingMap.Tortoise, String>> parts = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            parts.add(new HashMap<>());
+        }
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : initial.entrySet()) {
+            parts.get(shardOf(entry.getKey())).put(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LocalShard(i, parts.get(i));
+        }
+    }
+
+    private ShardedTortoiseRegistry(Shard[] shards, Partitioning partitioning, List<Process> processes) {
+        if (shards.length == 0) {
+            throw new IllegalArgumentException("Потрібен хоча б один шард");
+        }
+        this.shards = shards;
+        this.partitioning = partitioning;
+        this.processes = processes;
+        if (partitioning == Partitioning.CONSISTENT) {
+            long[] ring = new long[shards.length * VIRTUAL_NODES];
+            for (int shard = 0; shard < shards.length; shard++) {
+                for (int node = 0; node < VIRTUAL_NODES; node++) {
+                    // Позиція в старших 32 бітах, номер шарда — в молодших (для сортування пар)
+                    int position = mix(shard * 0x9E3779B9 + node);
+                    ring[shard * VIRTUAL_NODES + node] = (long) position << 32 | shard;
+                }
+            }
+            Arrays.sort(ring);
+            this.ringPoints = new int[ring.length];
+            this.ringShards = new int[ring.length];
+            for (int i = 0; i < ring.length; i++) {
+                ringPoints[i] = (int) (ring[i] >> 32);
+                ringShards[i] = (int) ring[i];
+            }
+        } else {
+            this.ringPoints = null;
+            this.ringShards = null;
+        }
+    }
+
+    /**
+     * Підключається до вже запущених TortoiseServer (по одному на шард) на loopback-інтерфейсі.
+     * Порядок портів визначає номери шардів, тому всі клієнти реєстру мають передавати однаковий порядок.
+     */
+    public static ShardedTortoiseRegistry connect(int[] ports, Partitioning partitioning) throws IOException {
+        Shard[] shards = new Shard[ports.length];
+        try {
+            for (int i = 0; i < ports.length; i++) {
+                shards[i] = new RemoteShard(new TortoiseClient(ports[i]));
+            }
+        } catch (IOException e) {
+            closeAll(shards);
+            throw e;
+        }
+        return new ShardedTortoiseRegistry(shards, partitioning, Collections.emptyList());
+    }
+
+    /**
+     * Запускає shardCount процесів TortoiseServer з тим самим classpath, підключається до них
+     * і розподіляє початкові дані. Процеси завершуються в {@link #close()}.
+     */
+    public static ShardedTortoiseRegistry startProcesses(Map<BasicDataOperationUsingMap.Tortoise, String> initial,
+                                                         int shardCount, Partitioning partitioning) throws IOException {
+        List<Process> processes = new ArrayList<>(shardCount);
+        Shard[] shards = new Shard[shardCount];
+        ShardedTortoiseRegistry registry;
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                Process process = new ProcessBuilder(
+                        Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                        "-cp", System.getProperty("java.class.path"),
+                        "-Dstdout.encoding=UTF-8", "-Dsun.stdout.encoding=UTF-8",
+                        "TortoiseServer", "0")
+                        .redirectError(ProcessBuilder.Redirect.INHERIT)
+                        .start();
+                processes.add(process);
+                shards[i] = new RemoteShard(new TortoiseClient(readPort(process)));
+            }
+            registry = new ShardedTortoiseRegistry(shards, partitioning, processes);
+        } catch (IOException | RuntimeException e) {
+            closeAll(shards);
+            processes.forEach(Process::destroy);
+            throw e;
+        }
+        try {
+            registry.addEntries(initial.entrySet());
+        } catch (RuntimeException e) {
+            registry.close();
+            throw e;
+        }
+        return registry;
+    }
+
+    /**
+     * Читає порт з першого рядка виводу TortoiseServer ("TortoiseServer слухає 127.0.0.1:порт, ...").
+     */
+    private static int readPort(Process process) throws IOException {
+        BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+        String line = out.readLine();
+        int start = line != null ? line.indexOf("127.0.0.1:") : -1;
+        if (start < 0) {
+            throw new IOException("TortoiseServer не повідомив порт: " + line);
+        }
+        start += "127.0.0.1:".length();
+        int end = start;
+        while (end < line.length() && Character.isDigit(line.charAt(end))) {
+            end++;
+        }
+        return Integer.parseInt(line.substring(start, end));
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    public Partitioning getPartitioning() {
+        return partitioning;
+    }
+
+    /**
+     * Повертає номер шарда ключа. Хеш ключа обчислюється як у TortoiseSnapshot — лише з
+     * String.hashCode() клички та виду, тому розподіл не залежить від реалізації Tortoise.hashCode()
+     * (зокрема від випадкового зерна -Dtortoise.hash=mixed) і однаковий у будь-якій JVM.
+     */
+    int shardOf(BasicDataOperationUsingMap.Tortoise key) {
+        int hash = mix(TortoiseSnapshot.keyHash(key.getNickname(), key.getSpecies()));
+        if (partitioning == Partitioning.MODULO) {
+            return Math.floorMod(hash, shards.length);
+        }
+        int index = Arrays.binarySearch(ringPoints, hash);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return ringShards[index == ringPoints.length ? 0 : index];
+    }
+
+    /**
+     * Фіналізатор MurmurHash3: рівномірно розподіляє біти хешу перед вибором шарда.
+     */
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+
+    public int size() {
+        int size = 0;
+        for (CompletableFuture<Integer> part : broadcast(Shard::size)) {
+            size += await(part);
+        }
+        return size;
+    }
+
+    /**
+     * Здійснює пошук за ключем у шарді ключа.
+     *
+     * @return ім'я власника або null, якщо ключ відсутній
+     */
+    public String findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        long timeStart = System.nanoTime();
+
+        String value = await(shards[shardOf(key)].findByKey(key));
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_KEY_METRIC);
+        return value;
+    }
+
+    /**
+     * Здійснює пошук ключа з вказаним власником паралельно в усіх шардах.
+     *
+     * @return ключ з шарда з найменшим номером або null, якщо власника немає
+     */
+    public BasicDataOperationUsingMap.Tortoise findByValue(String owner) {
+        long timeStart = System.nanoTime();
+
+        BasicDataOperationUsingMap.Tortoise found = null;
+        for (CompletableFuture<BasicDataOperationUsingMap.Tortoise> part : broadcast(shard -> shard.findByValue(owner))) {
+            BasicDataOperationUsingMap.Tortoise key = await(part);
+            if (found == null) {
+                found = key;
+            }
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_VALUE_METRIC);
+        return found;
+    }
+
+    /**
+     * Додає або замінює запис у шарді ключа.
+     *
+     * @return попереднє значення ключа або null
+     */
+    public String addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        long timeStart = System.nanoTime();
+
+        String previousValue = await(shards[shardOf(key)].addEntry(key, owner));
+
+        PerformanceTracker.recordOperationTime(timeStart, ADD_METRIC);
+        return previousValue;
+    }
+
+    /**
+     * Додає пакет записів: записи групуються за шардами, і кожен шард отримує одне
+     * повідомлення з усіма своїми записами. Шарди обробляють свої частини паралельно.
+     *
+     * @return кількість нових ключів
+     */
+    public int addEntries(Collection<? extends Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+        long timeStart = System.nanoTime();
+
+        List<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> parts = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            parts.add(new ArrayList<>(entries.size() / shards.length + 1));
+        }
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : entries) {
+            parts.get(shardOf(entry.getKey())).add(entry);
+        }
+        List<CompletableFuture<Integer>> results = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            if (!parts.get(i).isEmpty()) {
+                results.add(shards[i].addEntries(parts.get(i)));
+            }
+        }
+        int added = 0;
+        for (CompletableFuture<Integer> result : results) {
+            added += await(result);
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, ADD_BATCH_METRIC);
+        return added;
+    }
+
+    /**
+     * Видаляє запис за ключем з шарда ключа.
+     *
+     * @return видалене значення або null, якщо ключ відсутній
+     */
+    public String removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+        long timeStart = System.nanoTime();
+
+        String removedValue = await(shards[shardOf(key)].removeByKey(key));
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_KEY_METRIC);
+        return removedValue;
+    }
+
+    /**
+     * Видаляє записи власника паралельно в усіх шардах.
+     *
+     * @return кількість видалених записів
+     */
+    public int removeByValue(String owner) {
+        long timeStart = System.nanoTime();
+
+        int removed = 0;
+        for (CompletableFuture<Integer> part : broadcast(shard -> shard.removeByValue(owner))) {
+            removed += await(part);
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_VALUE_METRIC);
+        return removed;
+    }
+
+    /**
+     * Сортує весь реєстр: шарди паралельно сортують свої записи, після чого відсортовані
+     * прогони зливаються k-шляховим злиттям.
+     *
+     * @return незмінний список записів, відсортований за Tortoise.KEY_ORDER
+     */
+    public List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sort() {
+        long timeStart = System.nanoTime();
+
+        List<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> runs = new ArrayList<>(shards.length);
+        for (CompletableFuture<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> run : broadcast(Shard::sortedRun)) {
+            runs.add(await(run));
+        }
+        List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> merged =
+                mergeSortedRuns(runs, Map.Entry.comparingByKey(BasicDataOperationUsingMap.Tortoise.KEY_ORDER));
+
+        PerformanceTracker.recordOperationTime(timeStart, SORT_METRIC);
+        return merged;
+    }
+
+    /**
+     * Зливає k відсортованих прогонів в один список за O(n log k): купа містить поточну
+     * голову кожного непорожнього прогону.
+     *
+     * @return незмінний список
+     */
+    static <T> List<T> mergeSortedRuns(List<? extends List<? extends T>> runs, Comparator<? super T> comparator) {
+        int total = 0;
+        for (List<? extends T> run : runs) {
+            total += run.size();
+        }
+        List<T> merged = new ArrayList<>(total);
+        // Курсор: [номер прогону, позиція в прогоні]
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, runs.size()),
+                (a, b) -> comparator.compare(runs.get(a[0]).get(a[1]), runs.get(b[0]).get(b[1])));
+        for (int i = 0; i < runs.size(); i++) {
+            if (!runs.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        while (!heads.isEmpty()) {
+            int[] cursor = heads.poll();
+            List<? extends T> run = runs.get(cursor[0]);
+            merged.add(run.get(cursor[1]));
+            if (++cursor[1] < run.size()) {
+                heads.add(cursor);
+            }
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    private <T> List<CompletableFuture<T>> broadcast(Function<Shard, CompletableFuture<T>> operation) {
+        List<CompletableFuture<T>> results = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            results.add(operation.apply(shard));
+        }
+        return results;
+    }
+
+    /**
+     * Очікує результат шарда; помилка шарда перекидається без обгортки CompletionException.
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof IOException) {
+                throw new UncheckedIOException((IOException) cause);
+            }
+            throw e;
+        }
+    }
+
+    private static void closeAll(Shard[] shards) {
+        for (Shard shard : shards) {
+            if (shard != null) {
+                shard.close();
+            }
+        }
+    }
+
+    /**
+     * Зупиняє записувачів локальних шардів, закриває з'єднання та завершує запущені процеси.
+     */
+    @Override
+    public void close() {
+        closeAll(shards);
+        for (Process process : processes) {
+            process.destroy();
+        }
+        for (Process process : processes) {
+            try {
+                process.waitFor();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Локальний шард: TortoiseStore, з яким працює лише потік-записувач шарда.
+     */
+    static final class LocalShard implements Shard {
+        private static final Task<Void> STOP = new Task<>(() -> null);
+
+        private final TortoiseStore store;
+        private final BlockingQueue<Task<?>> mailbox = new LinkedBlockingQueue<>();
+        private final Thread writer;
+        // Змінюється та читається лише під блокуванням mailbox: після закриття STOP — останній у черзі
+        private boolean closed;
+
+        /**
+         * Операція в черзі шарда: виконується потоком-записувачем або, якщо шард закрито
+         * раніше, завершує майбутній результат помилкою.
+         */
+        private static final class Task<T> {
+            final Supplier<T> operation;
+            final CompletableFuture<T> future = new CompletableFuture<>();
+
+            Task(Supplier<T> operation) {
+                this.operation = operation;
+            }
+
+            void run() {
+                try {
+                    future.complete(operation.get());
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            }
+
+            void reject() {
+                future.completeExceptionally(new IllegalStateException("Шард закрито"));
+            }
+        }
+
+        LocalShard(int index, Map<BasicDataOperationUsingMap.Tortoise, String> initial) {
+            this.store = new TortoiseStore(initial);
+            this.writer = new Thread(this::writerLoop, "tortoise-shard-" + index);
+            this.writer.setDaemon(true);
+            this.writer.start();
+        }
+
+        private <T> CompletableFuture<T> submit(Supplier<T> operation) {
+            Task<T> task = new Task<>(operation);
+            synchronized (mailbox) {
+                if (!closed) {
+                    mailbox.add(task);
+                    return task.future;
+                }
+            }
+            task.reject();
+            return task.future;
+        }
+
+        private void writerLoop() {
+            List<Task<?>> batch = new ArrayList<>(MAILBOX_BATCH);
+            int next = 0;
+            try {
+                while (true) {
+                    batch.add(mailbox.take());
+                    mailbox.drainTo(batch, MAILBOX_BATCH - 1);
+                    for (next = 0; next < batch.size(); next++) {
+                        Task<?> task = batch.get(next);
+                        if (task == STOP) {
+                            return;
+                        }
+                        task.run();
+                    }
+                    batch.clear();
+                    next = 0;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // Операції, що не виконано (після STOP або переривання), завершуються помилкою,
+                // а нові submit() відхиляє, тому жоден виклик не чекає вічно
+                synchronized (mailbox) {
+                    closed = true;
+                }
+                for (int i = next; i < batch.size(); i++) {
+                    batch.get(i).reject();
+                }
+                Task<?> task;
+                while ((task = mailbox.poll()) != null) {
+                    task.reject();
+                }
+            }
+        }
+
+        @Override
+        public CompletableFuture<String> findByKey(BasicDataOperationUsingMap.Tortoise key) {
+            return submit(() -> store.get(key));
+        }
+
+        @Override
+        public CompletableFuture<BasicDataOperationUsingMap.Tortoise> findByValue(String owner) {
+            return submit(() -> {
+                Iterator<BasicDataOperationUsingMap.Tortoise> keys = store.findByOwner(owner).iterator();
+                return keys.hasNext() ? keys.next() : null;
+            });
+        }
+
+        @Override
+        public CompletableFuture<String> addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+            return submit(() -> store.put(key, owner));
+        }
+
+        @Override
+        public CompletableFuture<Integer> addEntries(List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+            return submit(() -> store.putAll(entries));
+        }
+
+        @Override
+        public CompletableFuture<String> removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+            return submit(() -> store.remove(key));
+        }
+
+        @Override
+        public CompletableFuture<Integer> removeByValue(String owner) {
+            return submit(() -> store.removeOwner(owner).size());
+        }
+
+        @Override
+        public CompletableFuture<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> sortedRun() {
+            // Записи копіюються в потоці шарда: після повернення записувач знову змінює сховище
+            return submit(() -> {
+                List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> run = new ArrayList<>(store.size());
+                for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : store.entries(TortoiseStore.Order.KEY)) {
+                    run.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), entry.getValue()));
+                }
+                return run;
+            });
+        }
+
+        @Override
+        public CompletableFuture<Integer> size() {
+            return submit(store::size);
+        }
+
+        @Override
+        public void close() {
+            synchronized (mailbox) {
+                if (!closed) {
+                    closed = true;
+                    mailbox.add(STOP);
+                }
+            }
+        }
+    }
+
+    /**
+     * Шард в окремому процесі TortoiseServer, доступний через конвеєризований TortoiseClient.
+     */
+    static final class RemoteShard implements Shard {
+        private final TortoiseClient client;
+
+        RemoteShard(TortoiseClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public CompletableFuture<String> findByKey(BasicDataOperationUsingMap.Tortoise key) {
+            return client.findByKey(key);
+        }
+
+        @Override
+        public CompletableFuture<BasicDataOperationUsingMap.Tortoise> findByValue(String owner) {
+            return client.findByValue(owner);
+        }
+
+        @Override
+        public CompletableFuture<String> addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+            return client.addEntry(key, owner);
+        }
+
+        @Override
+        public CompletableFuture<Integer> addEntries(List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+            // Пакет ділиться на запити ADD_ALL по REMOTE_ADD_BATCH записів; запити конвеєризуються,
+            // а кількість нових ключів кожної частини рахує сам сервер
+            List<CompletableFuture<Integer>> results = new ArrayList<>(entries.size() / REMOTE_ADD_BATCH + 1);
+            for (int from = 0; from < entries.size(); from += REMOTE_ADD_BATCH) {
+                results.add(client.addEntries(entries.subList(from, Math.min(entries.size(), from + REMOTE_ADD_BATCH))));
+            }
+            return CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[0])).thenApply(ignored -> {
+                int added = 0;
+                for (CompletableFuture<Integer> result : results) {
+                    added += result.join();
+                }
+                return added;
+            });
+        }
+
+        @Override
+        public CompletableFuture<String> removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+            return client.removeByKey(key);
+        }
+
+        @Override
+        public CompletableFuture<Integer> removeByValue(String owner) {
+            return client.removeByValue(owner);
+        }
+
+        @Override
+        public CompletableFuture<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> sortedRun() {
+            // Прогін повертає сам SORT: окремий SCAN прочитав би спільне представлення сервера,
+            // яке тим часом міг замінити SORT іншого клієнта
+            return client.sortAndScan(0, Integer.MAX_VALUE);
+        }
+
+        @Override
+        public CompletableFuture<Integer> size() {
+            return client.size();
+        }
+
+        @Override
+        public void close() {
+            try {
+                client.close();
+            } catch (IOException e) {
+                // З'єднання вже закрите або процес шарда завершився
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Клас SnapshotDataOperationUsingMap — варіант BasicDataOperationUsingMap з версіонованими
+ * незмінними знімками (MVCC) на основі PersistentHashTrie.
+ *
+ * <p>Кожна зміна створює нову версію таблиці, що спільно використовує з попередньою все, крім
+ * шляху до зміненого вузла, і публікує її одним volatile-записом. Читачі та довгі проходи
+ * (сортування, виведення, пошук за значенням) беруть знімок {@link #snapshot()} за O(1) і працюють
+ * з узгодженою версією, не блокуючи записувачів і не бачачи половинчастих змін. Записувачі
+ * впорядковуються між собою коротким блокуванням на час копіювання шляху (O(log32 n)).</p>
+ *
+ * <p>Як і в BasicDataOperationUsingMap, власник може бути null.</p>
+ */
+public class SnapshotDataOperationUsingMap {
+    static final int FIND_BY_KEY_METRIC = PerformanceTracker.metricId("пошук за ключем у знімку HAMT");
+    static final int FIND_BY_VALUE_METRIC = PerformanceTracker.metricId("пошук за значенням у знімку HAMT");
+    static final int ADD_METRIC = PerformanceTracker.metricId("додавання запису до HAMT");
+    static final int REMOVE_BY_KEY_METRIC = PerformanceTracker.metricId("видалення за ключем з HAMT");
+    static final int REMOVE_BY_VALUE_METRIC = PerformanceTracker.metricId("видалення за значенням з HAMT");
+    static final int SORT_METRIC = PerformanceTracker.metricId("сортування знімка HAMT за ключами");
+    static final int DUMP_METRIC = PerformanceTracker.metricId("вивантаження знімка HAMT у канал");
+
+    /**
+     * Незмінна версія даних.
+     */
+    public static final class Snapshot {
+        private final long version;
+        private final PersistentHashTrie<BasicDataOperationUsingMap.Tortoise, String> map;
+
+        Snapshot(long version, PersistentHashTrie<BasicDataOperationUsingMap.Tortoise, String> map) {
+            this.version = version;
+            this.map = map;
+        }
+
+        /**
+         * Номер версії: збільшується на 1 з кожною зміною, що змінила дані.
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return map.size();
+        }
+
+        public String get(BasicDataOperationUsingMap.Tortoise key) {
+            return map.get(key);
+        }
+
+        public boolean containsKey(BasicDataOperationUsingMap.Tortoise key) {
+            return map.containsKey(key);
+        }
+
+        public void forEach(BiConsumer<? super BasicDataOperationUsingMap.Tortoise, ? super String> action) {
+            map.forEach(action);
+        }
+
+        /**
+         * Повертає записи цієї версії, відсортовані за Tortoise.KEY_ORDER
+         * (паралельно від BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD записів).
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sorted() {
+            Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] entries = new Map.Entry[map.size()];
+            int[] position = new int[1];
+            map.forEach((key, value) -> entries[position[0]++] = new AbstractMap.SimpleImmutableEntry<>(key, value));
+            if (entries.length >= BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD) {
+                Arrays.parallelSort(entries, Map.Entry.comparingByKey(BasicDataOperationUsingMap.Tortoise.KEY_ORDER));
+            } else {
+                Arrays.sort(entries, Map.Entry.comparingByKey(BasicDataOperationUsingMap.Tortoise.KEY_ORDER));
+            }
+            return Arrays.asList(entries);
+        }
+    }
+
+    private final Object writeLock = new Object();
+    private volatile Snapshot current;
+
+    /**
+     * Створює об'єкт з копією початкових даних (версія 0).
+     */
+    public SnapshotDataOperationUsingMap(Map<BasicDataOperationUsingMap.Tortoise, String> initial) {
+        PersistentHashTrie<BasicDataOperationUsingMap.Tortoise, String> map = PersistentHashTrie.empty();
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : initial.entrySet()) {
+            map = map.plus(entry.getKey(), entry.getValue());
+        }
+        this.current = new Snapshot(0, map);
+    }
+
+    /**
+     * Повертає поточну версію даних за O(1). Знімок не змінюється подальшими записами.
+     */
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Здійснює пошук за ключем в останній версії без блокування.
+     */
+    public String findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Snapshot snapshot = current;
+        String value = snapshot.get(key);
+        boolean found = value != null || snapshot.containsKey(key);
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_KEY_METRIC);
+        MapOperationEvent.finish(event, FIND_BY_KEY_METRIC, "HAMT", snapshot.size(), found ? 1 : 0);
+        return value;
+    }
+
+    /**
+     * Знаходить усі ключі з вказаним власником в одній узгодженій версії.
+     */
+    public List<BasicDataOperationUsingMap.Tortoise> findByValue(String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Snapshot snapshot = current;
+        List<BasicDataOperationUsingMap.Tortoise> keys = keysOf(snapshot, owner);
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_VALUE_METRIC);
+        MapOperationEvent.finish(event, FIND_BY_VALUE_METRIC, "HAMT", snapshot.size(), keys.size());
+        return keys;
+    }
+
+    /**
+     * Додає або замінює запис і публікує нову версію.
+     *
+     * @return попереднє значення ключа або null
+     */
+    public String addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        String previousValue;
+        Snapshot published;
+        synchronized (writeLock) {
+            Snapshot snapshot = current;
+            previousValue = snapshot.get(key);
+            published = publish(snapshot, snapshot.map.plus(key, owner));
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, ADD_METRIC);
+        MapOperationEvent.finish(event, ADD_METRIC, "HAMT", published.size(), 1);
+        return previousValue;
+    }
+
+    /**
+     * Видаляє запис за ключем і публікує нову версію.
+     *
+     * @return видалене значення або null, якщо ключ відсутній
+     */
+    public String removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        String removedValue;
+        Snapshot snapshot;
+        Snapshot published;
+        synchronized (writeLock) {
+            snapshot = current;
+            removedValue = snapshot.get(key);
+            published = publish(snapshot, snapshot.map.minus(key));
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_KEY_METRIC);
+        MapOperationEvent.finish(event, REMOVE_BY_KEY_METRIC, "HAMT", published.size(), published != snapshot ? 1 : 0);
+        return removedValue;
+    }
+
+    /**
+     * Видаляє всі записи з вказаним власником однією новою версією: читачі бачать або всі записи
+     * власника, або жодного.
+     *
+     * @return кількість видалених записів
+     */
+    public int removeByValue(String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        int removed;
+        Snapshot published;
+        synchronized (writeLock) {
+            Snapshot snapshot = current;
+            List<BasicDataOperationUsingMap.Tortoise> keys = keysOf(snapshot, owner);
+            PersistentHashTrie<BasicDataOperationUsingMap.Tortoise, String> map = snapshot.map;
+            for (BasicDataOperationUsingMap.Tortoise key : keys) {
+                map = map.minus(key);
+            }
+            published = publish(snapshot, map);
+            removed = keys.size();
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, REMOVE_BY_VALUE_METRIC);
+        MapOperationEvent.finish(event, REMOVE_BY_VALUE_METRIC, "HAMT", published.size(), removed);
+        return removed;
+    }
+
+    /**
+     * Сортує знімок поточної версії. Записувачі продовжують працювати під час сортування.
+     *
+     * @return записи знімка, відсортовані за ключами
+     */
+    public List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sort() {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Snapshot snapshot = current;
+        List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sorted = snapshot.sorted();
+
+        PerformanceTracker.recordOperationTime(timeStart, SORT_METRIC);
+        MapOperationEvent.finish(event, SORT_METRIC, "HAMT", snapshot.size(), sorted.size());
+        return sorted;
+    }
+
+    /**
+     * Вивантажує знімок поточної версії через MapDumpWriter.
+     *
+     * @return кількість вивантажених записів
+     */
+    public int dump(MapDumpWriter writer) throws IOException {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Snapshot snapshot = current;
+        IOException[] failure = new IOException[1];
+        snapshot.forEach((key, value) -> {
+            if (failure[0] == null) {
+                try {
+                    writer.writeEntry(key, value);
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        writer.flush();
+
+        PerformanceTracker.recordOperationTime(timeStart, DUMP_METRIC);
+        MapOperationEvent.finish(event, DUMP_METRIC, "HAMT", snapshot.size(), snapshot.size());
+        return snapshot.size();
+    }
+
+    /**
+     * Публікує нову версію, якщо map відрізняється від таблиці snapshot.
+     *
+     * @return версія, що стала поточною (snapshot, якщо дані не змінилися)
+     */
+    private Snapshot publish(Snapshot snapshot, PersistentHashTrie<BasicDataOperationUsingMap.Tortoise, String> map) {
+        if (map == snapshot.map) {
+            return snapshot;
+        }
+        Snapshot published = new Snapshot(snapshot.version + 1, map);
+        current = published;
+        return published;
+    }
+
+    private static List<BasicDataOperationUsingMap.Tortoise> keysOf(Snapshot snapshot, String owner) {
+        List<BasicDataOperationUsingMap.Tortoise> keys = new ArrayList<>();
+        snapshot.forEach((key, value) -> {
+            if (Objects.equals(owner, value)) {
+                keys.add(key);
+            }
+        });
+        return keys;
+    }
+}
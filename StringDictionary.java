@@ -0,0 +1,93 @@
+import java.util.Arrays;
+
+/**
+ * Клас StringDictionary — словник рядків для словникового кодування: кожен різний рядок
+ * отримує послідовний цілий ідентифікатор (0, 1, 2, ...).
+ *
+ * <p>Ідентифікатори зберігаються у відкритій адресації (int[] з лінійним зондуванням),
+ * тому словник не створює окремих об'єктів на кожен запис, на відміну від HashMap&lt;String, Integer&gt;.
+ * Значення null не підтримуються.</p>
+ */
+public class StringDictionary {
+    private String[] strings = new String[16];
+    private int size;
+
+    // Слоти хеш-таблиці: ідентифікатор + 1, 0 — порожній слот
+    private int[] slots = new int[32];
+
+    /**
+     * Повертає ідентифікатор рядка або -1, якщо рядка немає в словнику.
+     */
+    public int find(String value) {
+        if (value == null) {
+            return -1;
+        }
+        int mask = slots.length - 1;
+        for (int slot = spread(value.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (id < 0) {
+                return -1;
+            }
+            if (strings[id].equals(value)) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Повертає ідентифікатор рядка, додаючи рядок до словника, якщо його там ще немає.
+     *
+     * @throws IllegalArgumentException якщо value == null
+     */
+    public int intern(String value) {
+        if (value == null) {
+            throw new IllegalArgumentException("StringDictionary не підтримує null");
+        }
+        int id = find(value);
+        if (id >= 0) {
+            return id;
+        }
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+        }
+        id = size++;
+        strings[id] = value;
+        if (size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        } else {
+            insertSlot(id);
+        }
+        return id;
+    }
+
+    /**
+     * Повертає рядок за ідентифікатором.
+     */
+    public String get(int id) {
+        return strings[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        for (int id = 0; id < size; id++) {
+            insertSlot(id);
+        }
+    }
+
+    private void insertSlot(int id) {
+        int mask = slots.length - 1;
+        int slot = spread(strings[id].hashCode()) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = id + 1;
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+}
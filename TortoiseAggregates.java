@@ -0,0 +1,120 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Клас TortoiseAggregates — потокові агрегації над довільними записами Tortoise -> власник
+ * без повного сортування: top-K за товщиною панциря, кількість записів кожного власника
+ * та top-K власників за кількістю записів.
+ *
+ * <p>Top-K обчислюється купою обмеженого розміру k за O(n log k) часу та O(k) пам'яті.
+ * Від {@link #PARALLEL_THRESHOLD} записів агрегації виконуються паралельними потоками:
+ * кожна частина будує власну купу (чи власну таблицю лічильників), а частини потім зливаються.</p>
+ *
+ * <p>Для TortoiseStore ті самі агрегати підтримуються інкрементально (див. TortoiseStore.thickest(),
+ * topOwners(), countByOwner()); цей клас потрібен для записів, що не мають таких індексів —
+ * знімків, результатів шардованого реєстру, ConcurrentHashMap тощо.</p>
+ */
+public final class TortoiseAggregates {
+    /**
+     * Мінімальна кількість записів, з якої агрегації виконуються паралельно.
+     */
+    static final int PARALLEL_THRESHOLD = 10_000;
+
+    /**
+     * Порядок записів за товщиною панциря за спаданням; при рівності — за Tortoise.KEY_ORDER.
+     */
+    static final Comparator<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> THICKEST_FIRST =
+            Comparator.<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>comparingDouble(
+                            entry -> entry.getKey().getShellThickness()).reversed()
+                    .thenComparing(Map.Entry::getKey, BasicDataOperationUsingMap.Tortoise.KEY_ORDER);
+
+    /**
+     * Порядок лічильників власників за спаданням кількості; при рівності — за ім'ям власника
+     * (OwnerIndex.OWNER_ORDER, як і в кошиках OwnerIndex.topOwners()).
+     */
+    static final Comparator<Map.Entry<String, Long>> LARGEST_COUNT_FIRST =
+            Comparator.<Map.Entry<String, Long>>comparingLong(Map.Entry::getValue).reversed()
+                    .thenComparing(Map.Entry::getKey, OwnerIndex.OWNER_ORDER);
+
+    private TortoiseAggregates() {
+    }
+
+    /**
+     * Повертає колектор перших k елементів у порядку comparator. Колектор зберігає купу
+     * з не більше ніж k елементів, у корені якої — найгірший з відібраних, тому кожен
+     * наступний елемент порівнюється лише з коренем. Підтримує паралельні потоки.
+     *
+     * @return список до k елементів, упорядкований за comparator
+     */
+    static <T> Collector<T, ?, List<T>> topK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k < 0: " + k);
+        }
+        Comparator<? super T> worstFirst = comparator.reversed();
+        return Collector.<T, PriorityQueue<T>, List<T>>of(
+                () -> new PriorityQueue<>(Math.max(1, Math.min(k, 1 << 10)), worstFirst),
+                (heap, element) -> offer(heap, element, k, comparator),
+                (left, right) -> {
+                    for (T element : right) {
+                        offer(left, element, k, comparator);
+                    }
+                    return left;
+                },
+                heap -> {
+                    List<T> result = new ArrayList<>(heap);
+                    result.sort(comparator);
+                    return result;
+                },
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T element, int k, Comparator<? super T> comparator) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (k > 0 && comparator.compare(element, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    /**
+     * Повертає k записів з найбільшою товщиною панциря, за спаданням товщини.
+     */
+    public static List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> topKByShellThickness(
+            Collection<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries, int k) {
+        return stream(entries).collect(topK(k, THICKEST_FIRST));
+    }
+
+    /**
+     * Повертає кількість записів кожного власника одним проходом (паралельно — з окремою таблицею
+     * лічильників для кожної частини). Власник null враховується як звичайний власник,
+     * як і в OwnerIndex.counts().
+     */
+    public static Map<String, Long> countByOwner(Collection<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+        // groupingBy не допускає ключа null, тому лічильники зливаються через HashMap.merge()
+        return stream(entries).collect(Collectors.toMap(Map.Entry::getValue, entry -> 1L, Long::sum));
+    }
+
+    /**
+     * Повертає k власників з найбільшою кількістю записів, за спаданням кількості.
+     */
+    public static List<Map.Entry<String, Long>> topKOwnersByCount(
+            Collection<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries, int k) {
+        Map<String, Long> counts = countByOwner(entries);
+        Stream<Map.Entry<String, Long>> owners = counts.size() >= PARALLEL_THRESHOLD
+                ? counts.entrySet().parallelStream()
+                : counts.entrySet().stream();
+        return owners.collect(topK(k, LARGEST_COUNT_FIRST));
+    }
+
+    private static <T> Stream<T> stream(Collection<T> entries) {
+        return entries.size() >= PARALLEL_THRESHOLD ? entries.parallelStream() : entries.stream();
+    }
+}
@@ -0,0 +1,179 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Клас TortoiseClient — клієнт протоколу TortoiseServer з конвеєризацією запитів.
+ *
+ * <p>Кожен запит отримує id і одразу надсилається, не чекаючи відповідей на попередні запити.
+ * Фоновий потік читає відповіді та завершує CompletableFuture відповідного запиту. Один клієнт
+ * можна безпечно використовувати з кількох потоків.</p>
+ */
+public class TortoiseClient implements AutoCloseable {
+    private final Socket socket;
+    private final Writer out;
+    private final Thread reader;
+    private final AtomicLong nextId = new AtomicLong();
+    private final ConcurrentHashMap<Long, CompletableFuture<List<String>>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Підключається до TortoiseServer на loopback-інтерфейсі.
+     */
+    public TortoiseClient(int port) throws IOException {
+        this.socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        this.socket.setTcpNoDelay(true);
+        this.out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16);
+        this.reader = new Thread(this::readLoop, "tortoise-client-reader");
+        this.reader.setDaemon(true);
+        this.reader.start();
+    }
+
+    /**
+     * Надсилає запит.
+     *
+     * @param operation назва операції (див. TortoiseServer)
+     * @param arguments аргументи операції
+     * @return поля відповіді після "OK"; при відповіді ERR завершується IllegalStateException
+     */
+    public CompletableFuture<List<String>> send(String operation, String... arguments) {
+        long id = nextId.incrementAndGet();
+        CompletableFuture<List<String>> future = new CompletableFuture<>();
+        pending.put(id, future);
+        List<String> fields = new ArrayList<>(arguments.length + 2);
+        fields.add(Long.toString(id));
+        fields.add(operation);
+        for (String argument : arguments) {
+            fields.add(argument);
+        }
+        String line = TortoiseServer.join(fields);
+        try {
+            synchronized (out) {
+                out.write(line);
+                out.write('\n');
+                out.flush();
+            }
+        } catch (IOException e) {
+            pending.remove(id);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public CompletableFuture<String> findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        return send("FIND_BY_KEY", key.getNickname(), key.getSpecies()).thenApply(fields -> fields.get(0));
+    }
+
+    public CompletableFuture<BasicDataOperationUsingMap.Tortoise> findByValue(String owner) {
+        return send("FIND_BY_VALUE", owner).thenApply(fields ->
+                fields.isEmpty() ? null : new BasicDataOperationUsingMap.Tortoise(fields.get(0), fields.get(1)));
+    }
+
+    public CompletableFuture<String> addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        return send("ADD", key.getNickname(), key.getSpecies(), owner).thenApply(fields -> fields.get(0));
+    }
+
+    /**
+     * Додає пакет записів одним запитом ADD_ALL.
+     *
+     * @return кількість нових ключів
+     */
+    public CompletableFuture<Integer> addEntries(List<? extends Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+        String[] arguments = new String[entries.size() * 3];
+        int i = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : entries) {
+            arguments[i++] = entry.getKey().getNickname();
+            arguments[i++] = entry.getKey().getSpecies();
+            arguments[i++] = entry.getValue();
+        }
+        return send("ADD_ALL", arguments).thenApply(fields -> Integer.parseInt(fields.get(0)));
+    }
+
+    public CompletableFuture<String> removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+        return send("REMOVE_BY_KEY", key.getNickname(), key.getSpecies()).thenApply(fields -> fields.get(0));
+    }
+
+    public CompletableFuture<Integer> removeByValue(String owner) {
+        return send("REMOVE_BY_VALUE", owner).thenApply(fields -> Integer.parseInt(fields.get(0)));
+    }
+
+    public CompletableFuture<Integer> sort() {
+        return send("SORT").thenApply(fields -> Integer.parseInt(fields.get(0)));
+    }
+
+    public CompletableFuture<Integer> size() {
+        return send("SIZE").thenApply(fields -> Integer.parseInt(fields.get(0)));
+    }
+
+    /**
+     * Повертає записи останнього відсортованого представлення сервера в діапазоні [offset, offset + limit).
+     */
+    public CompletableFuture<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> scan(int offset, int limit) {
+        return send("SCAN", Integer.toString(offset), Integer.toString(limit)).thenApply(fields -> entries(fields, 0));
+    }
+
+    /**
+     * Сортує дані сервера та повертає записи саме цього сортування в діапазоні [offset, offset + limit),
+     * тож паралельний SORT іншого клієнта не підмінює результат.
+     */
+    public CompletableFuture<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> sortAndScan(int offset, int limit) {
+        return send("SORT", Integer.toString(offset), Integer.toString(limit)).thenApply(fields -> entries(fields, 1));
+    }
+
+    private static List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries(List<String> fields, int from) {
+        List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries = new ArrayList<>((fields.size() - from) / 3);
+        for (int i = from; i + 2 < fields.size(); i += 3) {
+            entries.add(new AbstractMap.SimpleImmutableEntry<>(
+                    new BasicDataOperationUsingMap.Tortoise(fields.get(i), fields.get(i + 1)), fields.get(i + 2)));
+        }
+        return entries;
+    }
+
+    private void readLoop() {
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                List<String> fields = TortoiseServer.split(line);
+                CompletableFuture<List<String>> future = pending.remove(Long.parseLong(fields.get(0)));
+                if (future == null) {
+                    continue;
+                }
+                if ("OK".equals(fields.get(1))) {
+                    future.complete(fields.subList(2, fields.size()));
+                } else {
+                    future.completeExceptionally(new IllegalStateException(fields.size() > 2 ? fields.get(2) : "ERR"));
+                }
+            }
+            failPending(new IOException("З'єднання з сервером закрито"));
+        } catch (IOException e) {
+            failPending(e);
+        }
+    }
+
+    private void failPending(IOException cause) {
+        for (Long id : pending.keySet()) {
+            CompletableFuture<List<String>> future = pending.remove(id);
+            if (future != null) {
+                future.completeExceptionally(new UncheckedIOException(cause));
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,413 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Клас TortoiseCsvLoader — потокове завантаження пар Tortoise -> власник з текстових файлів
+ * без попереднього читання всього файлу в пам'ять.
+ *
+ * <p>Формат рядка (UTF-8): {@code кличка,species,власник}, наприклад
+ * {@code Броня,shellThickness=3.1,Олеся}. Порожні рядки та рядки, що починаються з '#', пропускаються;
+ * рядки з меншою кількістю полів рахуються як некоректні та пропускаються. Екранування ком не підтримується.</p>
+ *
+ * <p>Файл читається через FileChannel блоками в повторно використовуваний буфер. Поля розбираються
+ * прямо з байтів: однакові клички, species та власники декодуються в String лише один раз і
+ * повторно використовуються з кешу, тому на запис не створюються проміжні рядки-підрядки.
+ * Розібрані записи передаються споживачу пакетами через обмежену чергу: якщо споживач (наприклад,
+ * addEntriesToHashMap) не встигає, потоки розбору блокуються (зворотний тиск).
+ * За кількості потоків розбору більше одного файл ділиться на частини за межами рядків, які
+ * розбираються паралельно; тоді порядок пакетів не відповідає порядку рядків у файлі.</p>
+ *
+ * <p>Пропускна здатність (записів/с) та пікова зайнятість купи передаються в PerformanceTracker.</p>
+ */
+public class TortoiseCsvLoader {
+    static final int LOAD_METRIC = PerformanceTracker.metricId("потокове завантаження CSV");
+    static final int BATCH_METRIC = PerformanceTracker.metricId("передача пакета CSV споживачу");
+    static final String RECORDS_PER_SECOND_GAUGE = "завантаження CSV: записів/с";
+    static final String PEAK_HEAP_GAUGE = "завантаження CSV: пікова купа, байт";
+
+    // Порожній пакет-маркер завершення потоку розбору
+    private static final List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> END_OF_CHUNK = Collections.emptyList();
+
+    /**
+     * Параметри завантаження.
+     */
+    public static final class Options {
+        int batchSize = 10_000;
+        int queueCapacity = 8;
+        int parserThreads = 1;
+        int readBufferBytes = 1 << 20;
+
+        /**
+         * Кількість записів в одному пакеті для споживача.
+         */
+        public Options batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Максимальна кількість пакетів, що очікують споживача, до блокування потоків розбору.
+         */
+        public Options queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Кількість потоків розбору (1 — послідовне читання зі збереженням порядку рядків).
+         */
+        public Options parserThreads(int parserThreads) {
+            this.parserThreads = parserThreads;
+            return this;
+        }
+
+        /**
+         * Розмір буфера читання кожного потоку розбору в байтах.
+         */
+        public Options readBufferBytes(int readBufferBytes) {
+            this.readBufferBytes = readBufferBytes;
+            return this;
+        }
+    }
+
+    /**
+     * Підсумок завантаження.
+     */
+    public static final class LoadStats {
+        private final long records;
+        private final long malformed;
+        private final long elapsedNanos;
+        private final long peakHeapBytes;
+
+        LoadStats(long records, long malformed, long elapsedNanos, long peakHeapBytes) {
+            this.records = records;
+            this.malformed = malformed;
+            this.elapsedNanos = elapsedNanos;
+            this.peakHeapBytes = peakHeapBytes;
+        }
+
+        public long getRecords() {
+            return records;
+        }
+
+        public long getMalformed() {
+            return malformed;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long getPeakHeapBytes() {
+            return peakHeapBytes;
+        }
+
+        public long getRecordsPerSecond() {
+            return elapsedNanos > 0 ? (long) (records * 1e9 / elapsedNanos) : records;
+        }
+
+        @Override
+        public String toString() {
+            return "Завантажено " + records + " записів (некоректних: " + malformed + ") за "
+                    + elapsedNanos / 1_000_000 + " мс: " + getRecordsPerSecond() + " записів/с, пікова купа "
+                    + peakHeapBytes / (1024 * 1024) + " МБ";
+        }
+    }
+
+    /**
+     * Завантажує файл у target з параметрами за замовчуванням.
+     */
+    public static LoadStats load(Path file, Map<BasicDataOperationUsingMap.Tortoise, String> target) throws IOException {
+        return load(file, new Options(), batch -> {
+            for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : batch) {
+                target.put(entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    /**
+     * Завантажує файл, передаючи записи споживачу пакетами. Споживач викликається
+     * лише з потоку, що викликав load(), тому може працювати з не потокобезпечними Map.
+     *
+     * @param file файл з даними
+     * @param options параметри завантаження
+     * @param sink споживач пакетів, наприклад {@code operations::addEntriesToHashMap}
+     * @return підсумок завантаження
+     */
+    public static LoadStats load(Path file, Options options,
+                                 Consumer<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> sink) throws IOException {
+        long timeStart = System.nanoTime();
+        List<MemoryPoolMXBean> heapPools = heapPools();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        BlockingQueue<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> queue =
+                new ArrayBlockingQueue<>(options.queueCapacity);
+        LongAdder records = new LongAdder();
+        LongAdder malformed = new LongAdder();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        // Встановлюється, коли load() більше не читає чергу (завершення або помилка споживача)
+        AtomicBoolean consumerDone = new AtomicBoolean();
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            int parsers = (int) Math.max(1, Math.min(options.parserThreads, fileSize / options.readBufferBytes + 1));
+            ExecutorService executor = Executors.newFixedThreadPool(parsers, runnable -> {
+                Thread thread = new Thread(runnable, "tortoise-csv-parser");
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                for (int i = 0; i < parsers; i++) {
+                    long start = fileSize * i / parsers;
+                    long end = fileSize * (i + 1) / parsers;
+                    executor.execute(() -> {
+                        try {
+                            new ChunkParser(channel, options, queue, malformed).parse(start, end);
+                        } catch (Throwable e) {
+                            failure.compareAndSet(null, e);
+                        } finally {
+                            signalEnd(queue, consumerDone);
+                        }
+                    });
+                }
+
+                int finished = 0;
+                while (finished < parsers) {
+                    List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> batch = queue.take();
+                    if (batch == END_OF_CHUNK) {
+                        finished++;
+                        continue;
+                    }
+                    long batchStart = System.nanoTime();
+                    sink.accept(batch);
+                    PerformanceTracker.recordOperationTime(batchStart, BATCH_METRIC);
+                    records.add(batch.size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Завантаження CSV перервано", e);
+            } finally {
+                consumerDone.set(true);
+                executor.shutdownNow();
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error != null) {
+            throw new IOException("Помилка розбору CSV: " + error, error);
+        }
+
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        LoadStats stats = new LoadStats(records.sum(), malformed.sum(), System.nanoTime() - timeStart, peakHeap);
+        PerformanceTracker.recordOperationTime(timeStart, LOAD_METRIC);
+        PerformanceTracker.setGauge(RECORDS_PER_SECOND_GAUGE, stats.getRecordsPerSecond());
+        PerformanceTracker.setGauge(PEAK_HEAP_GAUGE, stats.getPeakHeapBytes());
+        return stats;
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    /**
+     * Передає маркер завершення потоку розбору. Якщо load() вже не читає чергу (споживач кинув
+     * виняток), маркер не потрібен: очікування місця в повній черзі перевіряє consumerDone,
+     * тому потік розбору не блокується назавжди.
+     */
+    private static void signalEnd(BlockingQueue<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> queue,
+                                  AtomicBoolean consumerDone) {
+        try {
+            while (!consumerDone.get() && !queue.offer(END_OF_CHUNK, 10, TimeUnit.MILLISECONDS)) {
+                // Черга повна: споживач ще читає, чекаємо далі
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Розбирає частину файлу [start, end). Частині належать рядки, що починаються в її межах;
+     * останній рядок дочитується за межею end.
+     */
+    private static final class ChunkParser {
+        private final FileChannel channel;
+        private final Options options;
+        private final BlockingQueue<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> queue;
+        private final LongAdder malformed;
+        private final FieldCache cache = new FieldCache(1 << 16);
+        private List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> batch;
+
+        ChunkParser(FileChannel channel, Options options,
+                    BlockingQueue<List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>>> queue, LongAdder malformed) {
+            this.channel = channel;
+            this.options = options;
+            this.queue = queue;
+            this.malformed = malformed;
+            this.batch = new ArrayList<>(options.batchSize);
+        }
+
+        void parse(long start, long end) throws IOException, InterruptedException {
+            ByteBuffer buffer = ByteBuffer.allocate(options.readBufferBytes);
+            long bufferOffset = start;
+            long readPosition = start;
+            int lineStart = 0;
+            int scanned = 0;
+            boolean skipPartialLine = start > 0 && !startsLine(start);
+
+            while (true) {
+                int read = channel.read(buffer, readPosition);
+                if (read > 0) {
+                    readPosition += read;
+                }
+                byte[] bytes = buffer.array();
+                int limit = buffer.position();
+                for (int i = scanned; i < limit; i++) {
+                    if (bytes[i] != '\n') {
+                        continue;
+                    }
+                    if (bufferOffset + lineStart >= end && !skipPartialLine) {
+                        flushBatch();
+                        return;
+                    }
+                    if (skipPartialLine) {
+                        skipPartialLine = false;
+                    } else {
+                        parseLine(bytes, lineStart, i);
+                    }
+                    lineStart = i + 1;
+                }
+                scanned = limit;
+
+                if (read < 0) {
+                    if (lineStart < limit && bufferOffset + lineStart < end && !skipPartialLine) {
+                        parseLine(bytes, lineStart, limit);
+                    }
+                    flushBatch();
+                    return;
+                }
+
+                // Переносимо незавершений рядок на початок буфера; збільшуємо буфер для дуже довгих рядків
+                if (!buffer.hasRemaining()) {
+                    if (lineStart == 0) {
+                        buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, bytes.length * 2)).position(limit);
+                    } else {
+                        System.arraycopy(bytes, lineStart, bytes, 0, limit - lineStart);
+                        buffer.position(limit - lineStart);
+                        bufferOffset += lineStart;
+                        scanned -= lineStart;
+                        lineStart = 0;
+                    }
+                }
+            }
+        }
+
+        private boolean startsLine(long position) throws IOException {
+            ByteBuffer previous = ByteBuffer.allocate(1);
+            channel.read(previous, position - 1);
+            return previous.get(0) == '\n';
+        }
+
+        private void parseLine(byte[] bytes, int from, int to) throws InterruptedException {
+            if (to > from && bytes[to - 1] == '\r') {
+                to--;
+            }
+            if (to == from || bytes[from] == '#') {
+                return;
+            }
+            int firstComma = indexOf(bytes, from, to, (byte) ',');
+            int secondComma = firstComma < 0 ? -1 : indexOf(bytes, firstComma + 1, to, (byte) ',');
+            if (secondComma < 0) {
+                malformed.increment();
+                return;
+            }
+            String nickname = cache.get(bytes, from, firstComma);
+            String species = cache.get(bytes, firstComma + 1, secondComma);
+            String owner = cache.get(bytes, secondComma + 1, to);
+            batch.add(Map.entry(new BasicDataOperationUsingMap.Tortoise(nickname, species), owner));
+            if (batch.size() >= options.batchSize) {
+                flushBatch();
+            }
+        }
+
+        private void flushBatch() throws InterruptedException {
+            if (!batch.isEmpty()) {
+                queue.put(batch);
+                batch = new ArrayList<>(options.batchSize);
+            }
+        }
+
+        private static int indexOf(byte[] bytes, int from, int to, byte value) {
+            for (int i = from; i < to; i++) {
+                if (bytes[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Кеш декодованих полів: повторювані послідовності байтів повертають той самий об'єкт String.
+     * Колізії в слоті витісняють попереднє значення, тому розмір кешу обмежений.
+     */
+    static final class FieldCache {
+        private final int[] hashes;
+        private final byte[][] keys;
+        private final String[] values;
+
+        FieldCache(int capacity) {
+            hashes = new int[capacity];
+            keys = new byte[capacity][];
+            values = new String[capacity];
+        }
+
+        String get(byte[] bytes, int from, int to) {
+            int hash = 1;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + bytes[i];
+            }
+            int slot = (hash ^ (hash >>> 16)) & (hashes.length - 1);
+            byte[] cached = keys[slot];
+            if (cached != null && hashes[slot] == hash && Arrays.equals(cached, 0, cached.length, bytes, from, to)) {
+                return values[slot];
+            }
+            String value = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+            hashes[slot] = hash;
+            keys[slot] = Arrays.copyOfRange(bytes, from, to);
+            values[slot] = value;
+            return value;
+        }
+    }
+}
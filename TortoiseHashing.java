@@ -0,0 +1,139 @@
+import java.security.SecureRandom;
+import java.util.Locale;
+
+/**
+ * Клас TortoiseHashing — хешування ключів Tortoise, стійке до навмисних колізій.
+ *
+ * <p>Класичний хеш Tortoise ({@code 31 * nickname.hashCode() + species.hashCode()}) повністю
+ * передбачуваний: рядки з однаковим String.hashCode() (наприклад, "Aa" і "BB") легко підібрати,
+ * а види "shellThickness=..." відрізняються лише кількома останніми символами. Такі ключі
+ * потрапляють в один кошик HashMap, і пошук деградує до обходу дерева (treeified bin)
+ * з повільними порівняннями compareTo().</p>
+ *
+ * <p>Режим MIXED обчислює SipHash-1-3 над символами nickname та species з випадковим 128-бітним
+ * ключем, що генерується при запуску JVM. Без знання ключа неможливо заздалегідь підібрати
+ * множину ключів з однаковим хешем. Хеш обчислюється один раз і кешується в Tortoise.</p>
+ *
+ * <p>Режим обирається системною властивістю {@code -Dtortoise.hash=classic|mixed} (за замовчуванням
+ * classic, щоб зберегти відтворюваний вивід hashCode у консолі). Для відтворюваних вимірювань ключ
+ * SipHash можна задати властивістю {@code -Dtortoise.hash.seed=<число>}.</p>
+ */
+public class TortoiseHashing {
+    /**
+     * Режим хешування Tortoise.
+     */
+    public enum Mode {
+        /**
+         * 31 * h(nickname) + h(species), як у String.hashCode().
+         */
+        CLASSIC,
+        /**
+         * SipHash-1-3 з випадковим ключем.
+         */
+        MIXED
+    }
+
+    static final Mode MODE = Mode.valueOf(System.getProperty("tortoise.hash", "classic").toUpperCase(Locale.ROOT));
+
+    private static final long K0;
+    private static final long K1;
+
+    static {
+        String seed = System.getProperty("tortoise.hash.seed");
+        if (seed != null) {
+            K0 = Long.parseLong(seed);
+            K1 = Long.rotateLeft(K0, 32) ^ 0x9E3779B97F4A7C15L;
+        } else if (MODE == Mode.MIXED) {
+            SecureRandom random = new SecureRandom();
+            K0 = random.nextLong();
+            K1 = random.nextLong();
+        } else {
+            K0 = 0;
+            K1 = 0;
+        }
+    }
+
+    /**
+     * Обчислює SipHash-1-3 для пари (nickname, species). Перед кожним рядком хешується його
+     * довжина (-1 для null), тому ("ab", "c") та ("a", "bc") дають різні хеші.
+     */
+    static int mixedHash(String nickname, String species) {
+        SipHash sip = new SipHash(K0, K1);
+        sip.addString(nickname);
+        sip.addString(species);
+        long h = sip.finish();
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Потоковий SipHash-1-3 над 16-бітними символами (по 4 символи в 64-бітному слові).
+     */
+    private static final class SipHash {
+        private long v0;
+        private long v1;
+        private long v2;
+        private long v3;
+        private long word;
+        private int charsInWord;
+        private long totalChars;
+
+        SipHash(long k0, long k1) {
+            v0 = k0 ^ 0x736f6d6570736575L;
+            v1 = k1 ^ 0x646f72616e646f6dL;
+            v2 = k0 ^ 0x6c7967656e657261L;
+            v3 = k1 ^ 0x7465646279746573L;
+        }
+
+        void addString(String value) {
+            int length = value != null ? value.length() : -1;
+            addChar((char) length);
+            addChar((char) (length >>> 16));
+            for (int i = 0; i < length; i++) {
+                addChar(value.charAt(i));
+            }
+        }
+
+        private void addChar(char c) {
+            word |= (long) c << (charsInWord * 16);
+            totalChars++;
+            if (++charsInWord == 4) {
+                compress(word);
+                word = 0;
+                charsInWord = 0;
+            }
+        }
+
+        private void compress(long m) {
+            v3 ^= m;
+            round();
+            v0 ^= m;
+        }
+
+        long finish() {
+            long last = word | ((totalChars * 2) & 0xFF) << 56;
+            compress(last);
+            v2 ^= 0xFF;
+            round();
+            round();
+            round();
+            return v0 ^ v1 ^ v2 ^ v3;
+        }
+
+        private void round() {
+            v0 += v1;
+            v1 = Long.rotateLeft(v1, 13);
+            v1 ^= v0;
+            v0 = Long.rotateLeft(v0, 32);
+            v2 += v3;
+            v3 = Long.rotateLeft(v3, 16);
+            v3 ^= v2;
+            v0 += v3;
+            v3 = Long.rotateLeft(v3, 21);
+            v3 ^= v0;
+            v2 += v1;
+            v1 = Long.rotateLeft(v1, 17);
+            v1 ^= v2;
+            v2 = Long.rotateLeft(v2, 32);
+        }
+    }
+}
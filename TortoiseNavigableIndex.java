@@ -0,0 +1,170 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Клас TortoiseNavigableIndex — впорядковані індекси для запитів за префіксом клички
+ * та за діапазоном товщини панциря.
+ *
+ * <p>Основний індекс "кличка -> записи" впорядкований за кличкою, а записи однієї клички —
+ * за Tortoise.KEY_ORDER, тому обхід індексу дає природний порядок compareTo() (кличка, потім товщина).
+ * Додатковий індекс "товщина -> записи" впорядкований за shellThickness. Запит знаходить першу
+ * відповідну групу за O(log n) і далі лише перебирає k результатів, тому коштує O(log n + k)
+ * замість повного проходу по Map.</p>
+ *
+ * <p>Запити повертають ліниві потоки над самими індексами: записи не копіюються, а обхід
+ * зупиняється, щойно споживач потоку припиняє читання (наприклад, limit()). Індекс не можна
+ * змінювати, поки потік результатів не прочитано.</p>
+ */
+public class TortoiseNavigableIndex {
+    private final TreeMap<String, TreeMap<BasicDataOperationUsingMap.Tortoise, String>> byNickname =
+            new TreeMap<>(Comparator.nullsFirst(Comparator.naturalOrder()));
+    private final TreeMap<Double, TreeMap<BasicDataOperationUsingMap.Tortoise, String>> byShellThickness = new TreeMap<>();
+    private int size;
+
+    /**
+     * Створює індекс та заповнює його записами map. Від BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD
+     * записів індекс будується з паралельно відсортованого масиву, а не вставками по одному запису.
+     */
+    public TortoiseNavigableIndex(Map<BasicDataOperationUsingMap.Tortoise, String> map) {
+        if (map.size() >= BasicDataOperationUsingMap.PARALLEL_SORT_THRESHOLD) {
+            buildFromSorted(map);
+            return;
+        }
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Заповнює індекси великої Map: записи впорядковуються Arrays.parallelSort (спершу за
+     * Tortoise.KEY_ORDER, потім стабільно за товщиною), після чого кожна група створюється один раз,
+     * а записи вставляються в неї за зростанням, без пошуку групи для кожного запису.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void buildFromSorted(Map<BasicDataOperationUsingMap.Tortoise, String> map) {
+        Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] sorted = map.entrySet().toArray(new Map.Entry[0]);
+        Comparator<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> keyOrder =
+                Map.Entry.comparingByKey(BasicDataOperationUsingMap.Tortoise.KEY_ORDER);
+        Arrays.parallelSort(sorted, keyOrder);
+        fillGroups(byNickname, sorted, BasicDataOperationUsingMap.Tortoise::getNickname);
+
+        // Сортування стабільне, тому записи з однаковою товщиною лишаються в порядку Tortoise.KEY_ORDER
+        Arrays.parallelSort(sorted, Comparator.comparingDouble(entry -> entry.getKey().getShellThickness()));
+        fillGroups(byShellThickness, sorted, BasicDataOperationUsingMap.Tortoise::getShellThickness);
+        size = sorted.length;
+    }
+
+    /**
+     * Розкладає записи, впорядковані за групою та Tortoise.KEY_ORDER, по групах порожнього index.
+     */
+    private static <G> void fillGroups(TreeMap<G, TreeMap<BasicDataOperationUsingMap.Tortoise, String>> index,
+                                       Map.Entry<BasicDataOperationUsingMap.Tortoise, String>[] sorted,
+                                       Function<BasicDataOperationUsingMap.Tortoise, G> groupOf) {
+        TreeMap<BasicDataOperationUsingMap.Tortoise, String> entries = null;
+        G current = null;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : sorted) {
+            G group = groupOf.apply(entry.getKey());
+            if (entries == null || !Objects.equals(group, current)) {
+                current = group;
+                entries = new TreeMap<>(BasicDataOperationUsingMap.Tortoise.KEY_ORDER);
+                index.put(group, entries);
+            }
+            entries.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Додає запис або оновлює власника існуючого ключа.
+     */
+    public void put(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        String previous = byNickname
+                .computeIfAbsent(key.getNickname(), nickname -> new TreeMap<>(BasicDataOperationUsingMap.Tortoise.KEY_ORDER))
+                .put(key, owner);
+        byShellThickness
+                .computeIfAbsent(key.getShellThickness(), thickness -> new TreeMap<>(BasicDataOperationUsingMap.Tortoise.KEY_ORDER))
+                .put(key, owner);
+        if (previous == null) {
+            size++;
+        }
+    }
+
+    /**
+     * Видаляє запис з обох індексів.
+     */
+    public void remove(BasicDataOperationUsingMap.Tortoise key) {
+        if (removeFrom(byNickname, key.getNickname(), key)) {
+            removeFrom(byShellThickness, key.getShellThickness(), key);
+            size--;
+        }
+    }
+
+    private static <G> boolean removeFrom(TreeMap<G, TreeMap<BasicDataOperationUsingMap.Tortoise, String>> index,
+                                          G group, BasicDataOperationUsingMap.Tortoise key) {
+        TreeMap<BasicDataOperationUsingMap.Tortoise, String> entries = index.get(group);
+        if (entries == null || !entries.containsKey(key)) {
+            return false;
+        }
+        entries.remove(key);
+        if (entries.isEmpty()) {
+            index.remove(group);
+        }
+        return true;
+    }
+
+    /**
+     * Повертає записи, кличка яких починається з prefix, у природному порядку Tortoise.
+     *
+     * @param prefix префікс клички (порожній рядок — усі записи з ненульовою кличкою)
+     */
+    public Stream<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> byNicknamePrefix(String prefix) {
+        return byNickname.tailMap(prefix, true).entrySet().stream()
+                .takeWhile(group -> group.getKey().startsWith(prefix))
+                .flatMap(group -> group.getValue().entrySet().stream());
+    }
+
+    /**
+     * Повертає записи з товщиною панциря в діапазоні [from, to], упорядковані за товщиною.
+     * Ключі, товщину яких не вдалося розібрати, мають товщину Double.MIN_VALUE.
+     *
+     * @param from нижня межа (включно)
+     * @param to верхня межа (включно)
+     */
+    public Stream<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> byShellThicknessRange(double from, double to) {
+        if (!(from <= to)) {
+            return Stream.empty();
+        }
+        return byShellThickness.subMap(from, true, to, true).values().stream()
+                .flatMap(group -> group.entrySet().stream());
+    }
+
+    /**
+     * Повертає записи з найбільшою товщиною панциря, за спаданням товщини, за O(log n + k).
+     *
+     * @param k максимальна кількість записів
+     */
+    public Stream<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> thickest(int k) {
+        return byShellThickness.descendingMap().values().stream()
+                .flatMap(group -> group.entrySet().stream())
+                .limit(k);
+    }
+
+    /**
+     * Повертає всі записи за Tortoise.KEY_ORDER обходом основного індексу за O(n), без сортування.
+     * Записи не можна змінювати через Map.Entry.setValue(), а індекс — поки обхід не завершено.
+     */
+    public Iterable<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries() {
+        return () -> byNickname.values().stream()
+                .flatMap(group -> Collections.unmodifiableMap(group).entrySet().stream())
+                .iterator();
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,431 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Клас TortoiseServer — локальний сервер, що надає операції ConcurrentDataOperationUsingMap
+ * через простий текстовий протокол поверх TCP (лише loopback).
+ *
+ * <p>Протокол: кожен запит і відповідь — один рядок UTF-8 з полями, розділеними табуляцією.
+ * Запит: {@code id OP аргументи...}; відповідь: {@code id OK значення...} або {@code id ERR повідомлення}.
+ * Табуляція, переведення рядка та зворотна коса риска в полях екрануються ({@link #escape(String)}),
+ * null передається як {@code \N}. Операції:</p>
+ * <ul>
+ *   <li>{@code FIND_BY_KEY кличка вид} → власник;</li>
+ *   <li>{@code FIND_BY_VALUE власник} → кличка вид (або порожня відповідь);</li>
+ *   <li>{@code ADD кличка вид власник} → попередній власник;</li>
+ *   <li>{@code ADD_ALL кличка вид власник [кличка вид власник...]} → кількість нових ключів пакета;</li>
+ *   <li>{@code REMOVE_BY_KEY кличка вид} → видалений власник;</li>
+ *   <li>{@code REMOVE_BY_VALUE власник} → кількість видалених записів;</li>
+ *   <li>{@code SORT [зсув кількість]} → розмір нового відсортованого представлення, а з аргументами —
+ *       ще й кличка вид власник для кожного запису цього ж представлення в діапазоні (інші клієнти
+ *       можуть опублікувати новіше представлення до наступного SCAN, тому весь прогін читають так);</li>
+ *   <li>{@code SCAN зсув кількість} → кличка вид власник для кожного запису останнього
+ *       відсортованого представлення в діапазоні;</li>
+ *   <li>{@code SIZE} → кількість записів;</li>
+ *   <li>{@code PING} → порожня відповідь.</li>
+ * </ul>
+ *
+ * <p>Кожен запит виконується у власному віртуальному потоці (JDK 21+; на старіших JDK — у пулі
+ * платформних потоків). Запити одного з'єднання конвеєризуються: клієнт надсилає наступні запити,
+ * не чекаючи відповідей, а відповіді повертаються в порядку завершення і зіставляються за id.
+ * Одночасно виконується не більше {@link #MAX_IN_FLIGHT_PER_CONNECTION} запитів одного з'єднання:
+ * далі з'єднання не читається, доки не завершиться один із запитів, тож на JDK 17 кількість
+ * платформних потоків обмежена кількістю з'єднань, а не глибиною конвеєра клієнта.
+ * Тривалість обробки кожної операції записується в PerformanceTracker.</p>
+ */
+public class TortoiseServer implements AutoCloseable {
+    /**
+     * Операції протоколу.
+     */
+    enum Operation {
+        FIND_BY_KEY, FIND_BY_VALUE, ADD, ADD_ALL, REMOVE_BY_KEY, REMOVE_BY_VALUE, SORT, SCAN, SIZE, PING;
+
+        final int metricId = PerformanceTracker.metricId("сервер: " + name());
+    }
+
+    /**
+     * Максимальна кількість запитів одного з'єднання, що виконуються одночасно.
+     */
+    static final int MAX_IN_FLIGHT_PER_CONNECTION = 64;
+
+    /**
+     * Маркер кінця потоку запитів у черзі відповідей (порівнюється за посиланням).
+     */
+    private static final String END_OF_REQUESTS = new String("");
+
+    private final ConcurrentDataOperationUsingMap operations;
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final Thread acceptor;
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+
+    /**
+     * Запускає сервер на loopback-інтерфейсі.
+     *
+     * @param operations дані, з якими працює сервер
+     * @param port порт (0 — будь-який вільний, див. {@link #getPort()})
+     */
+    public TortoiseServer(ConcurrentDataOperationUsingMap operations, int port) throws IOException {
+        this.operations = operations;
+        this.serverSocket = new ServerSocket();
+        this.serverSocket.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        this.executor = newThreadPerTaskExecutor();
+        this.acceptor = new Thread(this::acceptLoop, "tortoise-server-acceptor");
+        this.acceptor.setDaemon(true);
+        this.acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Повертає true, якщо запити виконуються у віртуальних потоках.
+     */
+    public static boolean virtualThreadsAvailable() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Створює виконавця "потік на задачу": Executors.newVirtualThreadPerTaskExecutor() на JDK 21+
+     * (через рефлексію, щоб код компілювався й на JDK 17), інакше — пул платформних daemon-потоків.
+     */
+    static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "tortoise-server-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private void acceptLoop() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                connections.add(socket);
+                executor.execute(() -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    System.err.println("Помилка прийому з'єднання: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Читає запити з'єднання та передає кожен у власний потік, поки виконується менше
+     * {@link #MAX_IN_FLIGHT_PER_CONNECTION} запитів цього з'єднання. Готові відповіді потрапляють у
+     * чергу з'єднання, яку вичерпує окремий потік-записувач; він скидає буфер, щойно черга
+     * порожніє, тож швидка відповідь не чекає на повільніші запити того ж з'єднання.
+     */
+    private void serve(Socket socket) {
+        BlockingQueue<String> responses = new LinkedBlockingQueue<>();
+        AtomicLong requested = new AtomicLong();
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT_PER_CONNECTION);
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), 1 << 16);
+             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8), 1 << 16)) {
+            Future<?> writer = executor.submit(() -> writeResponses(out, responses, requested));
+            long count = 0;
+            try {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    String request = line;
+                    inFlight.acquire();
+                    executor.execute(() -> {
+                        try {
+                            responses.add(handle(request));
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                    count++;
+                }
+            } finally {
+                // Кількість прийнятих запитів публікується до маркера, тож записувач бачить її
+                requested.set(count);
+                responses.add(END_OF_REQUESTS);
+            }
+            // Клієнт закрив потік запитів: дочікуємося відповідей на вже прийняті запити
+            writer.get();
+        } catch (SocketException e) {
+            // з'єднання розірвано
+        } catch (IOException e) {
+            System.err.println("Помилка з'єднання: " + e.getMessage());
+        } catch (ExecutionException e) {
+            System.err.println("Помилка запису відповідей: " + e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connections.remove(socket);
+        }
+    }
+
+    /**
+     * Записує відповіді з черги з'єднання в порядку готовності. Буфер скидається, коли в черзі
+     * не залишається відповідей; завершується після маркера кінця запитів і відповідей на всі
+     * прийняті запити.
+     */
+    private static Void writeResponses(Writer out, BlockingQueue<String> responses, AtomicLong requested)
+            throws InterruptedException {
+        long written = 0;
+        long expected = -1;
+        try {
+            while (expected < 0 || written < expected) {
+                String response = responses.take();
+                if (response == END_OF_REQUESTS) {
+                    expected = requested.get();
+                } else {
+                    out.write(response);
+                    out.write('\n');
+                    written++;
+                }
+                if (responses.isEmpty()) {
+                    out.flush();
+                }
+            }
+        } catch (IOException e) {
+            // з'єднання закрите клієнтом — відповіді нікому доставляти
+        }
+        return null;
+    }
+
+    /**
+     * Виконує один запит і повертає рядок відповіді (без переведення рядка).
+     */
+    String handle(String request) {
+        List<String> fields = split(request);
+        String id = fields.get(0);
+        Operation operation;
+        try {
+            operation = Operation.valueOf(fields.size() > 1 ? fields.get(1) : "");
+        } catch (IllegalArgumentException e) {
+            return join(List.of(id, "ERR", "Невідома операція: " + (fields.size() > 1 ? fields.get(1) : "")));
+        }
+
+        long timeStart = System.nanoTime();
+        List<String> response = new ArrayList<>();
+        response.add(id);
+        response.add("OK");
+        try {
+            switch (operation) {
+                case FIND_BY_KEY:
+                    response.add(operations.findByKey(key(fields, 2)));
+                    break;
+                case FIND_BY_VALUE: {
+                    BasicDataOperationUsingMap.Tortoise found = operations.findByValue(argument(fields, 2));
+                    if (found != null) {
+                        response.add(found.getNickname());
+                        response.add(found.getSpecies());
+                    }
+                    break;
+                }
+                case ADD:
+                    response.add(operations.addEntry(key(fields, 2), argument(fields, 4)));
+                    break;
+                case ADD_ALL: {
+                    if (fields.size() < 5 || (fields.size() - 2) % 3 != 0) {
+                        throw new IllegalArgumentException("ADD_ALL очікує трійки кличка вид власник");
+                    }
+                    List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries = new ArrayList<>((fields.size() - 2) / 3);
+                    for (int i = 2; i < fields.size(); i += 3) {
+                        entries.add(new AbstractMap.SimpleImmutableEntry<>(key(fields, i), fields.get(i + 2)));
+                    }
+                    response.add(Integer.toString(operations.addEntries(entries)));
+                    break;
+                }
+                case REMOVE_BY_KEY:
+                    response.add(operations.removeByKey(key(fields, 2)));
+                    break;
+                case REMOVE_BY_VALUE:
+                    response.add(Integer.toString(operations.removeByValue(argument(fields, 2))));
+                    break;
+                case SORT: {
+                    List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sorted = operations.sort();
+                    response.add(Integer.toString(sorted.size()));
+                    if (fields.size() > 2) {
+                        addRange(response, sorted, fields, 2);
+                    }
+                    break;
+                }
+                case SCAN:
+                    addRange(response, operations.getSortedEntries(), fields, 2);
+                    break;
+                case SIZE:
+                    response.add(Integer.toString(operations.size()));
+                    break;
+                case PING:
+                    break;
+            }
+        } catch (RuntimeException e) {
+            return join(List.of(id, "ERR", String.valueOf(e.getMessage())));
+        }
+        PerformanceTracker.recordOperationTime(timeStart, operation.metricId);
+        return join(response);
+    }
+
+    /**
+     * Додає до відповіді кличку, вид та власника записів sorted у діапазоні з аргументів зсув і кількість.
+     */
+    private static void addRange(List<String> response, List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sorted,
+                                 List<String> fields, int index) {
+        int from = Math.min(sorted.size(), Math.max(0, Integer.parseInt(argument(fields, index))));
+        int to = (int) Math.min(sorted.size(), (long) from + Math.max(0, Integer.parseInt(argument(fields, index + 1))));
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : sorted.subList(from, to)) {
+            response.add(entry.getKey().getNickname());
+            response.add(entry.getKey().getSpecies());
+            response.add(entry.getValue());
+        }
+    }
+
+    private static BasicDataOperationUsingMap.Tortoise key(List<String> fields, int index) {
+        return new BasicDataOperationUsingMap.Tortoise(argument(fields, index), argument(fields, index + 1));
+    }
+
+    private static String argument(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("Бракує аргументу " + (index - 1));
+        }
+        return fields.get(index);
+    }
+
+    /**
+     * Екранує поле для протоколу; null кодується як \N.
+     */
+    static String escape(String value) {
+        if (value == null) {
+            return "\\N";
+        }
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = c == '\\' ? "\\\\" : c == '\t' ? "\\t" : c == '\n' ? "\\n" : c == '\r' ? "\\r" : null;
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(value.length() + 8).append(value, 0, i);
+            }
+            if (sb != null) {
+                if (replacement != null) {
+                    sb.append(replacement);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb != null ? sb.toString() : value;
+    }
+
+    /**
+     * Об'єднує поля в рядок протоколу, екрануючи кожне поле.
+     */
+    static String join(List<String> fields) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                sb.append('\t');
+            }
+            sb.append(escape(fields.get(i)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Розбирає рядок протоколу на поля, знімаючи екранування.
+     */
+    static List<String> split(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean isNull = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '\t') {
+                fields.add(isNull ? null : field.toString());
+                field.setLength(0);
+                isNull = false;
+            } else if (c == '\\' && i + 1 < line.length()) {
+                char next = line.charAt(++i);
+                switch (next) {
+                    case 't': field.append('\t'); break;
+                    case 'n': field.append('\n'); break;
+                    case 'r': field.append('\r'); break;
+                    case 'N': isNull = true; break;
+                    default: field.append(next); break;
+                }
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(isNull ? null : field.toString());
+        return fields;
+    }
+
+    /**
+     * Зупиняє прийом з'єднань, закриває відкриті з'єднання та виконавця запитів.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        serverSocket.close();
+        for (Socket socket : connections) {
+            socket.close();
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Запускає сервер окремим процесом.
+     *
+     * <p>Аргументи: {@code [порт] [файл.csv]} — порт (за замовчуванням 7070) та необов'язковий
+     * CSV-файл для початкового завантаження (формат TortoiseCsvLoader).</p>
+     */
+    public static void main(String[] args) throws Exception {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+        Map<BasicDataOperationUsingMap.Tortoise, String> initial = new ConcurrentHashMap<>();
+        if (args.length > 1) {
+            TortoiseCsvLoader.load(Path.of(args[1]), initial);
+        }
+        TortoiseServer server = new TortoiseServer(new ConcurrentDataOperationUsingMap(initial), port);
+        System.out.println("TortoiseServer слухає 127.0.0.1:" + server.getPort() + ", записів: " + initial.size()
+                + (virtualThreadsAvailable() ? ", віртуальні потоки" : ", платформні потоки (JDK < 21)"));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,362 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+/**
+ * Клас TortoiseSnapshot — компактний двійковий знімок Map Tortoise -> власник, що відкривається
+ * через FileChannel.map() без побудови HashMap у пам'яті.
+ *
+ * <p>Формат файлу (усі числа big-endian):</p>
+ * <ul>
+ *   <li>заголовок: MAGIC, VERSION, кількість записів (не більше {@link #MAX_RECORDS}), кількість рядків, кількість слотів хеш-таблиці
+ *       та зміщення наступних розділів;</li>
+ *   <li>словник рядків: зміщення int[кількість рядків + 1] та байти UTF-8 всіх кличок, species і власників;</li>
+ *   <li>записи фіксованої ширини {@link #RECORD_BYTES}: id клички, id species, id власника, хеш ключа
+ *       (id -1 означає null);</li>
+ *   <li>хеш-таблиця з відкритою адресацією: номер запису + 1 у кожному слоті (0 — порожній);</li>
+ *   <li>заздалегідь обчислений порядок сортування: номери записів за природним порядком Tortoise.</li>
+ * </ul>
+ *
+ * <p>Відкриття знімка лише відображає файл у пам'ять, тому не залежить від кількості записів;
+ * пошук за ключем читає кілька слотів та байти рядків безпосередньо з відображеного файлу.
+ * Файли більші за 2 ГБ відображаються кількома сегментами.</p>
+ */
+public class TortoiseSnapshot implements AutoCloseable {
+    static final int MAGIC = 0x54525453; // "TRTS"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 16;
+
+    /**
+     * Максимальна кількість записів знімка: хеш-таблиця має щонайменше вдвічі більше слотів,
+     * а їхня кількість — степінь двійки, що вміщується в int.
+     */
+    static final int MAX_RECORDS = 1 << 29;
+
+    private static final int NULL_ID = -1;
+    private static final long SEGMENT_BYTES = 1L << 30;
+    // Перекриття сегментів, щоб читання int/long на межі сегмента не розривалося
+    private static final int SEGMENT_OVERLAP = 8;
+
+    static final int WRITE_METRIC = PerformanceTracker.metricId("запис знімка Map на диск");
+    static final int OPEN_METRIC = PerformanceTracker.metricId("відкриття знімка через FileChannel.map");
+    static final int FIND_BY_KEY_METRIC = PerformanceTracker.metricId("пошук за ключем у знімку");
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final int recordCount;
+    private final int stringCount;
+    private final int hashSlots;
+    private final long stringOffsetsPos;
+    private final long stringDataPos;
+    private final long recordsPos;
+    private final long hashPos;
+    private final long sortedPos;
+
+    private TortoiseSnapshot(FileChannel channel, MappedByteBuffer[] segments) throws IOException {
+        this.channel = channel;
+        this.segments = segments;
+        if (getInt(0) != MAGIC || getInt(4) != VERSION) {
+            throw new IOException("Файл не є знімком TortoiseSnapshot версії " + VERSION);
+        }
+        this.recordCount = getInt(8);
+        this.stringCount = getInt(12);
+        this.hashSlots = getInt(16);
+        if (recordCount < 0 || recordCount > MAX_RECORDS || Integer.bitCount(hashSlots) != 1 || hashSlots <= recordCount) {
+            throw new IOException("Пошкоджений заголовок знімка: записів " + recordCount + ", слотів " + hashSlots);
+        }
+        this.stringOffsetsPos = getLong(24);
+        this.stringDataPos = getLong(32);
+        this.recordsPos = getLong(40);
+        this.hashPos = getLong(48);
+        this.sortedPos = getLong(56);
+    }
+
+    /**
+     * Записує знімок Map у файл і синхронізує його з диском (fsync) перед поверненням.
+     * Записи зберігаються в порядку ітерації map, тому {@link #toLinkedHashMap()} відновлює
+     * той самий порядок.
+     *
+     * @param file шлях до файлу знімка (перезаписується)
+     * @param map Map з даними (ключ: Tortoise, значення: ім'я власника)
+     */
+    public static void write(Path file, Map<BasicDataOperationUsingMap.Tortoise, String> map) throws IOException {
+        long timeStart = System.nanoTime();
+
+        int count = map.size();
+        if (count > MAX_RECORDS) {
+            throw new IOException("Знімок підтримує не більше " + MAX_RECORDS + " записів: " + count);
+        }
+        BasicDataOperationUsingMap.Tortoise[] keys = new BasicDataOperationUsingMap.Tortoise[count];
+        StringDictionary dictionary = new StringDictionary();
+        int[] records = new int[count * 3];
+        int[] hashes = new int[count];
+        int row = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : map.entrySet()) {
+            BasicDataOperationUsingMap.Tortoise key = entry.getKey();
+            keys[row] = key;
+            records[row * 3] = internNullable(dictionary, key.getNickname());
+            records[row * 3 + 1] = internNullable(dictionary, key.getSpecies());
+            records[row * 3 + 2] = internNullable(dictionary, entry.getValue());
+            hashes[row] = keyHash(key.getNickname(), key.getSpecies());
+            row++;
+        }
+
+        int slotCount = Integer.highestOneBit(Math.max(4, count * 2 - 1)) << 1;
+        int[] slots = new int[slotCount];
+        for (int i = 0; i < count; i++) {
+            int slot = spread(hashes[i]) & (slotCount - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slotCount - 1);
+            }
+            slots[slot] = i + 1;
+        }
+
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = i;
+        }
+        ColumnarTortoiseRegistry.sortInts(sorted, (a, b) -> BasicDataOperationUsingMap.Tortoise.KEY_ORDER.compare(keys[a], keys[b]));
+
+        byte[][] encoded = new byte[dictionary.size()][];
+        long stringBytes = 0;
+        for (int id = 0; id < encoded.length; id++) {
+            encoded[id] = dictionary.get(id).getBytes(StandardCharsets.UTF_8);
+            stringBytes += encoded[id].length;
+        }
+        if (stringBytes > Integer.MAX_VALUE) {
+            throw new IOException("Словник рядків знімка перевищує 2 ГБ: " + stringBytes + " байт");
+        }
+
+        long stringOffsetsPos = HEADER_BYTES;
+        long stringDataPos = stringOffsetsPos + 4L * (encoded.length + 1);
+        long recordsPos = stringDataPos + stringBytes;
+        long hashPos = recordsPos + (long) RECORD_BYTES * count;
+        long sortedPos = hashPos + 4L * slotCount;
+
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(encoded.length).putInt(slotCount).putInt(0);
+            buffer.putLong(stringOffsetsPos).putLong(stringDataPos).putLong(recordsPos).putLong(hashPos).putLong(sortedPos);
+
+            int offset = 0;
+            for (byte[] bytes : encoded) {
+                ensureRemaining(out, buffer, 4);
+                buffer.putInt(offset);
+                offset += bytes.length;
+            }
+            ensureRemaining(out, buffer, 4);
+            buffer.putInt(offset);
+            for (byte[] bytes : encoded) {
+                int written = 0;
+                while (written < bytes.length) {
+                    ensureRemaining(out, buffer, 1);
+                    int chunk = Math.min(buffer.remaining(), bytes.length - written);
+                    buffer.put(bytes, written, chunk);
+                    written += chunk;
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                ensureRemaining(out, buffer, RECORD_BYTES);
+                buffer.putInt(records[i * 3]).putInt(records[i * 3 + 1]).putInt(records[i * 3 + 2]).putInt(hashes[i]);
+            }
+            for (int slot : slots) {
+                ensureRemaining(out, buffer, 4);
+                buffer.putInt(slot);
+            }
+            for (int index : sorted) {
+                ensureRemaining(out, buffer, 4);
+                buffer.putInt(index);
+            }
+            flush(out, buffer);
+            // Знімок має бути на диску до повернення: на нього покладаються checkpoint() та recover()
+            out.force(true);
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, WRITE_METRIC);
+    }
+
+    /**
+     * Відкриває знімок, відображаючи файл у пам'ять. Записи не читаються до першого звернення.
+     */
+    public static TortoiseSnapshot open(Path file) throws IOException {
+        long timeStart = System.nanoTime();
+
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            long fileSize = channel.size();
+            int segmentCount = (int) Math.max(1, (fileSize + SEGMENT_BYTES - 1) / SEGMENT_BYTES);
+            MappedByteBuffer[] segments = new MappedByteBuffer[segmentCount];
+            for (int i = 0; i < segmentCount; i++) {
+                long position = i * SEGMENT_BYTES;
+                long length = Math.min(SEGMENT_BYTES + SEGMENT_OVERLAP, fileSize - position);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            }
+            TortoiseSnapshot snapshot = new TortoiseSnapshot(channel, segments);
+
+            PerformanceTracker.recordOperationTime(timeStart, OPEN_METRIC);
+            return snapshot;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * Здійснює пошук за ключем безпосередньо у відображеному файлі.
+     *
+     * @return ім'я власника або null, якщо ключ відсутній
+     */
+    public String findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        long timeStart = System.nanoTime();
+
+        String owner = null;
+        int hash = keyHash(key.getNickname(), key.getSpecies());
+        byte[] nickname = encode(key.getNickname());
+        byte[] species = encode(key.getSpecies());
+        int mask = hashSlots - 1;
+        for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+            int record = getInt(hashPos + 4L * slot) - 1;
+            if (record < 0) {
+                break;
+            }
+            long position = recordsPos + (long) RECORD_BYTES * record;
+            if (getInt(position + 12) == hash
+                    && stringEquals(getInt(position), nickname)
+                    && stringEquals(getInt(position + 4), species)) {
+                owner = string(getInt(position + 8));
+                break;
+            }
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, FIND_BY_KEY_METRIC);
+        return owner;
+    }
+
+    /**
+     * Перебирає записи за природним порядком Tortoise, використовуючи збережений порядок сортування.
+     */
+    public void forEachSorted(BiConsumer<BasicDataOperationUsingMap.Tortoise, String> action) {
+        for (int i = 0; i < recordCount; i++) {
+            int record = getInt(sortedPos + 4L * i);
+            action.accept(keyAt(record), ownerAt(record));
+        }
+    }
+
+    /**
+     * Матеріалізує знімок у LinkedHashMap у порядку, в якому записи були збережені.
+     */
+    public LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> toLinkedHashMap() {
+        LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> map =
+                new LinkedHashMap<>(BasicDataOperationUsingMap.capacityFor(recordCount));
+        for (int record = 0; record < recordCount; record++) {
+            map.put(keyAt(record), ownerAt(record));
+        }
+        return map;
+    }
+
+    /**
+     * Закриває канал файлу. Відображення звільняється збирачем сміття.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private BasicDataOperationUsingMap.Tortoise keyAt(int record) {
+        long position = recordsPos + (long) RECORD_BYTES * record;
+        return new BasicDataOperationUsingMap.Tortoise(string(getInt(position)), string(getInt(position + 4)));
+    }
+
+    private String ownerAt(int record) {
+        return string(getInt(recordsPos + (long) RECORD_BYTES * record + 8));
+    }
+
+    private String string(int id) {
+        if (id == NULL_ID) {
+            return null;
+        }
+        long start = stringDataPos + getInt(stringOffsetsPos + 4L * id);
+        int length = (int) (stringDataPos + getInt(stringOffsetsPos + 4L * (id + 1)) - start);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = getByte(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private boolean stringEquals(int id, byte[] expected) {
+        if (id == NULL_ID || expected == null) {
+            return id == NULL_ID && expected == null;
+        }
+        long start = stringDataPos + getInt(stringOffsetsPos + 4L * id);
+        long end = stringDataPos + getInt(stringOffsetsPos + 4L * (id + 1));
+        if (end - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (getByte(start + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte getByte(long position) {
+        return segments[(int) (position / SEGMENT_BYTES)].get((int) (position % SEGMENT_BYTES));
+    }
+
+    private int getInt(long position) {
+        return segments[(int) (position / SEGMENT_BYTES)].getInt((int) (position % SEGMENT_BYTES));
+    }
+
+    private long getLong(long position) {
+        return segments[(int) (position / SEGMENT_BYTES)].getLong((int) (position % SEGMENT_BYTES));
+    }
+
+    private static byte[] encode(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static int internNullable(StringDictionary dictionary, String value) {
+        return value != null ? dictionary.intern(value) : NULL_ID;
+    }
+
+    /**
+     * Хеш ключа, що зберігається у файлі. Обчислюється лише з String.hashCode() (його алгоритм
+     * зафіксовано специфікацією), тому не залежить від реалізації Tortoise.hashCode().
+     */
+    static int keyHash(String nickname, String species) {
+        return 31 * (nickname != null ? nickname.hashCode() : 0) + (species != null ? species.hashCode() : 0);
+    }
+
+    private static int spread(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9;
+    }
+
+    private static void ensureRemaining(FileChannel out, ByteBuffer buffer, int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush(out, buffer);
+        }
+    }
+
+    private static void flush(FileChannel out, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,346 @@
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Клас TortoiseStore — єдине сховище записів Tortoise -> власник з кількома представленнями.
+ *
+ * <p>Кожен запис зберігається один раз — у вузлі LinkedHashMap, що одночасно дає пошук за ключем
+ * за O(1) та порядок вставки. Представлення ({@link Order}) не копіюють записи:</p>
+ * <ul>
+ *   <li>UNORDERED — записи без гарантованого порядку (обхід вузлів сховища);</li>
+ *   <li>INSERTION — записи в порядку вставки (той самий обхід, але порядок гарантовано);</li>
+ *   <li>KEY — записи за Tortoise.KEY_ORDER з навігаційного індексу (TortoiseNavigableIndex),
+ *   що будується під час першого такого читання і далі оновлюється при кожній зміні.</li>
+ * </ul>
+ *
+ * <p>Тому кожна зміна коштує одну вставку чи видалення в LinkedHashMap плюс оновлення
+ * підключених індексів (власників, навігаційного, кешу, журналу змін), незалежно від кількості
+ * представлень: O(1) без навігаційного індексу та O(log n) з ним. Обхід у порядку ключів
+ * коштує O(n) без сортування, навіть якщо кожне читання чергується зі зміною.</p>
+ *
+ * <p>Клас не потокобезпечний, як і BasicDataOperationUsingMap.</p>
+ */
+public class TortoiseStore {
+    /**
+     * Порядок обходу записів представлення.
+     */
+    public enum Order { UNORDERED, INSERTION, KEY }
+
+    private LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> entries;
+
+    // Зворотний індекс "власник -> ключі Tortoise" для пошуку та видалення за значенням
+    private final OwnerIndex<BasicDataOperationUsingMap.Tortoise> ownerIndex;
+
+    // Впорядковані індекси для представлення KEY та запитів за префіксом клички і діапазоном товщини
+    // (будуються під час першого такого запиту, до цього null)
+    private TortoiseNavigableIndex navigableIndex;
+
+    // Кеш LRU для пошуку за ключем (null, якщо кеш вимкнено)
+    private LruCache<BasicDataOperationUsingMap.Tortoise, String> cache;
+
+    // Журнал змін для відновлення після збою (null, якщо журнал не підключено)
+    private MutationLog log;
+
+    /**
+     * Створює сховище з копією початкових даних у порядку їх ітерації.
+     */
+    public TortoiseStore(Map<BasicDataOperationUsingMap.Tortoise, String> initial) {
+        this.entries = new LinkedHashMap<>(BasicDataOperationUsingMap.capacityFor(initial.size()));
+        this.entries.putAll(initial);
+        this.ownerIndex = new OwnerIndex<>(entries);
+    }
+
+    /**
+     * Вмикає кеш LRU перед сховищем для {@link #getCached(BasicDataOperationUsingMap.Tortoise)}.
+     * Зміни записів видаляють відповідні ключі з кешу, тому кеш ніколи не повертає застарілого значення.
+     */
+    void setCache(LruCache<BasicDataOperationUsingMap.Tortoise, String> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Підключає журнал змін: кожне додавання та видалення спочатку записується в журнал,
+     * а операція завершується відповідно до політики fsync журналу.
+     */
+    void setLog(MutationLog log) {
+        this.log = log;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Повертає записи представлення order. Записи є вузлами сховища або навігаційного індексу,
+     * тому їх не можна змінювати через Map.Entry.setValue(), а сховище — поки обхід не завершено.
+     */
+    public Iterable<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries(Order order) {
+        if (order == Order.KEY) {
+            return navigableIndex().entries();
+        }
+        return Collections.unmodifiableSet(entries.entrySet());
+    }
+
+    /**
+     * Повертає значення ключа або null. Кеш не використовується.
+     */
+    public String get(BasicDataOperationUsingMap.Tortoise key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Повертає значення ключа (з кешу, якщо його ввімкнено) або null.
+     * Через кеш шукають лише методи LinkedHashMap, для яких його ввімкнено.
+     * У кеш потрапляють лише знайдені значення, відмінні від null: промахи не витісняють живих записів.
+     */
+    public String getCached(BasicDataOperationUsingMap.Tortoise key) {
+        if (cache != null) {
+            String value = cache.get(key);
+            if (value != null) {
+                return value;
+            }
+        }
+        String value = entries.get(key);
+        if (cache != null && value != null) {
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    public boolean containsKey(BasicDataOperationUsingMap.Tortoise key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Повертає ключі власника за O(1) плюс кількість знайдених ключів.
+     *
+     * @return незмінна множина ключів (порожня, якщо власника немає)
+     */
+    public Set<BasicDataOperationUsingMap.Tortoise> findByOwner(String owner) {
+        return ownerIndex.find(owner);
+    }
+
+    /**
+     * Додає або замінює запис.
+     *
+     * @return попереднє значення ключа або null
+     */
+    public String put(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        long logSequence = log != null ? log.appendPut(key, owner) : 0;
+        String previousValue = putEntry(key, owner);
+        if (log != null) {
+            log.commit(logSequence);
+        }
+        return previousValue;
+    }
+
+    /**
+     * Видаляє запис за ключем.
+     *
+     * @return видалене значення або null, якщо ключ відсутній
+     */
+    public String remove(BasicDataOperationUsingMap.Tortoise key) {
+        long logSequence = log != null ? log.appendRemoveKey(key) : 0;
+        String removedValue = removeEntry(key);
+        if (log != null) {
+            log.commit(logSequence);
+        }
+        return removedValue;
+    }
+
+    /**
+     * Видаляє всі записи власника. Ключі беруться з індексу власників без проходу по сховищу.
+     *
+     * @return видалені ключі
+     */
+    public Set<BasicDataOperationUsingMap.Tortoise> removeOwner(String owner) {
+        long logSequence = log != null ? log.appendRemoveValue(owner) : 0;
+        Set<BasicDataOperationUsingMap.Tortoise> keys = removeOwnerEntries(owner);
+        if (log != null) {
+            log.commit(logSequence);
+        }
+        return keys;
+    }
+
+    /**
+     * Додає пакет записів з одним очікуванням журналу на весь пакет. Якщо пакет більший за поточний
+     * розмір сховища, таблиця один раз перебудовується з ємністю для всіх записів.
+     *
+     * @return кількість нових ключів
+     */
+    public int putAll(Collection<? extends Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> batch) {
+        int sizeBefore = entries.size();
+        if (batch.size() > sizeBefore) {
+            LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> resized =
+                    new LinkedHashMap<>(BasicDataOperationUsingMap.capacityFor(sizeBefore + batch.size()));
+            resized.putAll(entries);
+            entries = resized;
+        }
+        long logSequence = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : batch) {
+            if (log != null) {
+                logSequence = log.appendPut(entry.getKey(), entry.getValue());
+            }
+            putEntry(entry.getKey(), entry.getValue());
+        }
+        if (log != null) {
+            log.commit(logSequence);
+        }
+        return entries.size() - sizeBefore;
+    }
+
+    /**
+     * Видаляє пакет ключів з одним очікуванням журналу на весь пакет.
+     *
+     * @return кількість видалених записів
+     */
+    public int removeAll(Collection<BasicDataOperationUsingMap.Tortoise> keys) {
+        int sizeBefore = entries.size();
+        long logSequence = 0;
+        for (BasicDataOperationUsingMap.Tortoise key : keys) {
+            if (log != null) {
+                logSequence = log.appendRemoveKey(key);
+            }
+            removeEntry(key);
+        }
+        if (log != null) {
+            log.commit(logSequence);
+        }
+        return sizeBefore - entries.size();
+    }
+
+    /**
+     * Видаляє записи всіх власників пакета з одним очікуванням журналу на весь пакет.
+     *
+     * @return кількість видалених записів
+     */
+    public int removeOwners(Collection<String> owners) {
+        int removed = 0;
+        long logSequence = 0;
+        for (String owner : owners) {
+            if (log != null) {
+                logSequence = log.appendRemoveValue(owner);
+            }
+            removed += removeOwnerEntries(owner).size();
+        }
+        if (log != null) {
+            log.commit(logSequence);
+        }
+        return removed;
+    }
+
+    /**
+     * Перебудовує сховище так, щоб порядок вставки збігався з порядком ключів. Після цього
+     * представлення INSERTION та KEY обходять записи однаково. Порядок ключів береться з
+     * навігаційного індексу, тому перебудова коштує O(n) без сортування.
+     */
+    public void sortByKey() {
+        LinkedHashMap<BasicDataOperationUsingMap.Tortoise, String> reordered =
+                new LinkedHashMap<>(BasicDataOperationUsingMap.capacityFor(entries.size()));
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : navigableIndex().entries()) {
+            reordered.put(entry.getKey(), entry.getValue());
+        }
+        entries = reordered;
+    }
+
+    /**
+     * Повертає записи, кличка яких починається з prefix, у природному порядку Tortoise.
+     * Під час першого виклику будується TortoiseNavigableIndex, який далі оновлюється
+     * при кожній зміні сховища; кожен наступний запит коштує O(log n + k).
+     */
+    public Stream<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> byNicknamePrefix(String prefix) {
+        return navigableIndex().byNicknamePrefix(prefix);
+    }
+
+    /**
+     * Повертає записи з товщиною панциря в діапазоні [from, to], упорядковані за товщиною.
+     *
+     * @see #byNicknamePrefix(String)
+     */
+    public Stream<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> byShellThicknessRange(double from, double to) {
+        return navigableIndex().byShellThicknessRange(from, to);
+    }
+
+    /**
+     * Повертає k записів з найбільшою товщиною панциря з навігаційного індексу, що підтримується
+     * при кожній зміні, тому запит коштує O(log n + k) без сортування.
+     */
+    public Stream<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> thickest(int k) {
+        return navigableIndex().thickest(k);
+    }
+
+    /**
+     * Повертає до k власників з найбільшою кількістю записів з кошиків індексу власників.
+     */
+    public List<Map.Entry<String, Integer>> topOwners(int k) {
+        return ownerIndex.topOwners(k);
+    }
+
+    /**
+     * Повертає кількість записів кожного власника за кількість власників, без проходу по сховищу.
+     */
+    public Map<String, Integer> countByOwner() {
+        return ownerIndex.counts();
+    }
+
+    /**
+     * Повертає кількість записів власника за O(1).
+     */
+    public int countOf(String owner) {
+        return ownerIndex.count(owner);
+    }
+
+    private TortoiseNavigableIndex navigableIndex() {
+        if (navigableIndex == null) {
+            navigableIndex = new TortoiseNavigableIndex(entries);
+        }
+        return navigableIndex;
+    }
+
+    private String putEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        String previousValue = entries.put(key, owner);
+        ownerIndex.put(key, previousValue, owner);
+        if (navigableIndex != null) {
+            navigableIndex.put(key, owner);
+        }
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+        return previousValue;
+    }
+
+    private String removeEntry(BasicDataOperationUsingMap.Tortoise key) {
+        int sizeBefore = entries.size();
+        String removedValue = entries.remove(key);
+        if (entries.size() == sizeBefore) {
+            return null;
+        }
+        ownerIndex.remove(key, removedValue);
+        if (navigableIndex != null) {
+            navigableIndex.remove(key);
+        }
+        if (cache != null) {
+            cache.invalidate(key);
+        }
+        return removedValue;
+    }
+
+    private Set<BasicDataOperationUsingMap.Tortoise> removeOwnerEntries(String owner) {
+        Set<BasicDataOperationUsingMap.Tortoise> keys = ownerIndex.removeOwner(owner);
+        for (BasicDataOperationUsingMap.Tortoise key : keys) {
+            entries.remove(key);
+            if (navigableIndex != null) {
+                navigableIndex.remove(key);
+            }
+            if (cache != null) {
+                cache.invalidate(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,58 @@
+import java.util.HashMap;
+
+/**
+ * Бенчмарк адаптивного сховища: послідовні фази навантаження (точкові пошуки, сортування та запити
+ * за префіксом, пошук за значенням, зміни) для AdaptiveDataOperationUsingMap з адаптацією та для кожного
+ * фіксованого представлення. Наприкінці виводяться рішення адаптивного сховища з причинами.
+ *
+ * <p>Запуск: {@code java AdaptiveWorkloadBenchmark --size=100000}</p>
+ */
+public class AdaptiveWorkloadBenchmark {
+    /**
+     * Фаза навантаження: одна операція на виклик.
+     */
+    interface Phase {
+        long run(AdaptiveDataOperationUsingMap map, int i);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 100_000);
+        int owners = size / 4 + 1;
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, owners);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+
+        String[] names = {"точкові пошуки", "сортування та префікси", "пошук за значенням", "зміни"};
+        int[] invocations = {100_000, 100, 100, 100_000};
+        Phase[] phases = {
+                (map, i) -> map.findByKey(keys[i % keys.length]) != null ? 1 : 0,
+                // Клички мають вигляд "Черепаха-<номер>"; кожен 50-й виклик — повне сортування
+                (map, i) -> i % 50 == 0 ? map.sort().size() : map.findByNicknamePrefix("Черепаха-" + (i % 1000)).size(),
+                (map, i) -> map.findByValue(BenchmarkData.owner(i % owners)).size(),
+                (map, i) -> i % 2 == 0
+                        ? (map.addEntry(keys[i % keys.length], BenchmarkData.owner(i % owners)) != null ? 1 : 0)
+                        : (map.removeByKey(keys[(i + keys.length / 2) % keys.length]) != null ? 1 : 0)
+        };
+
+        try (AdaptiveDataOperationUsingMap adaptive = new AdaptiveDataOperationUsingMap(data)) {
+            measure("адаптивне", adaptive, names, invocations, phases, options);
+            for (AdaptiveDataOperationUsingMap.Decision decision : adaptive.decisions()) {
+                BenchmarkHarness.report("рішення: " + decision);
+            }
+        }
+        for (AdaptiveDataOperationUsingMap.Layout layout : AdaptiveDataOperationUsingMap.Layout.values()) {
+            try (AdaptiveDataOperationUsingMap fixed = new AdaptiveDataOperationUsingMap(data, layout, true, false)) {
+                measure(AdaptiveDataOperationUsingMap.describe(layout, true), fixed, names, invocations, phases, options);
+            }
+        }
+    }
+
+    private static void measure(String name, AdaptiveDataOperationUsingMap map, String[] names, int[] invocations,
+                                Phase[] phases, BenchmarkHarness.Options options) throws InterruptedException {
+        for (int p = 0; p < phases.length; p++) {
+            Phase phase = phases[p];
+            BenchmarkHarness.run(names[p] + ", " + name, options, invocations[p], i -> phase.run(map, i));
+            map.awaitMigration();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Бенчмарк top-K та агрегатів за власником: повне сортування з відсіканням перших k
+ * проти потокової купи обмеженого розміру (TortoiseAggregates) та інкрементальних
+ * індексів TortoiseStore (запит після кожної зміни).
+ *
+ * <p>Запуск: {@code java AggregationBenchmark --sizes=100000,1000000 --k=10}</p>
+ */
+public class AggregationBenchmark {
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int k = options.getInt("k", 10);
+        BenchmarkHarness.silenceConsole();
+        for (int size : options.getInts("sizes", 100_000, 1_000_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+            BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(data);
+            BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+
+            // Купа та кошики індексу мають повертати тих самих власників у тому самому порядку
+            List<Map.Entry<String, Long>> heapOwners = TortoiseAggregates.topKOwnersByCount(data.entrySet(), k);
+            List<Map.Entry<String, Integer>> indexOwners = operations.findTopOwnersInHashMap(k);
+            for (int i = 0; i < Math.max(heapOwners.size(), indexOwners.size()); i++) {
+                if (i >= heapOwners.size() || i >= indexOwners.size()
+                        || !Objects.equals(heapOwners.get(i).getKey(), indexOwners.get(i).getKey())
+                        || heapOwners.get(i).getValue() != indexOwners.get(i).getValue().longValue()) {
+                    throw new IllegalStateException("top-" + k + " власників купи та індексу відрізняються на позиції " + i);
+                }
+            }
+
+            BenchmarkHarness.run("top-" + k + " товщина, сортування/" + size, options, 5, i -> {
+                List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries = new ArrayList<>(data.entrySet());
+                entries.sort(TortoiseAggregates.THICKEST_FIRST);
+                return entries.subList(0, Math.min(k, entries.size())).size();
+            });
+            BenchmarkHarness.run("top-" + k + " товщина, купа/" + size, options, 5,
+                    i -> TortoiseAggregates.topKByShellThickness(data.entrySet(), k).size());
+            BenchmarkHarness.run("top-" + k + " товщина, індекс після зміни/" + size, options, 10_000, i -> {
+                BasicDataOperationUsingMap.Tortoise key = keys[i % keys.length];
+                operations.addEntryToHashMap(key, BenchmarkData.owner(i));
+                return operations.findThickestInHashMap(k).size();
+            });
+
+            BenchmarkHarness.run("top-" + k + " власники, сортування/" + size, options, 5, i -> {
+                Map<String, Long> counts = data.values().stream()
+                        .collect(Collectors.toMap(owner -> owner, owner -> 1L, Long::sum));
+                List<Map.Entry<String, Long>> owners = new ArrayList<>(counts.entrySet());
+                owners.sort(TortoiseAggregates.LARGEST_COUNT_FIRST);
+                return owners.subList(0, Math.min(k, owners.size())).size();
+            });
+            BenchmarkHarness.run("top-" + k + " власники, купа/" + size, options, 5,
+                    i -> TortoiseAggregates.topKOwnersByCount(data.entrySet(), k).size());
+            BenchmarkHarness.run("top-" + k + " власники, кошики після зміни/" + size, options, 10_000, i -> {
+                BasicDataOperationUsingMap.Tortoise key = keys[i % keys.length];
+                operations.addEntryToHashMap(key, BenchmarkData.owner(i));
+                return operations.findTopOwnersInHashMap(k).size();
+            });
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Бенчмарк пакетних операцій TortoiseStore проти тих самих змін поодинокими викликами:
+ * додавання пакета записів, видалення пакета ключів та видалення пакета власників.
+ *
+ * <p>Запуск: {@code java BatchMutationBenchmark --sizes=100000 --batch=20000}</p>
+ */
+public class BatchMutationBenchmark {
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int batchSize = options.getInt("batch", 20_000);
+        BenchmarkHarness.silenceConsole();
+
+        for (int size : options.getInts("sizes", 10_000, 100_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+            List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> newEntries = new ArrayList<>(batchSize);
+            for (int i = 0; i < batchSize; i++) {
+                newEntries.add(Map.entry(new BasicDataOperationUsingMap.Tortoise("Нова-" + i, "shellThickness=" + i + ".5"), "Аркадій"));
+            }
+            List<BasicDataOperationUsingMap.Tortoise> keys = new ArrayList<>(data.keySet()).subList(0, Math.min(batchSize, size));
+            List<String> owners = new ArrayList<>();
+            for (int i = 0; i < Math.min(batchSize, size / 4); i++) {
+                owners.add(BenchmarkData.owner(i));
+            }
+
+            // Обидві сторони порівняння викликають TortoiseStore напряму, без консольних обгорток
+            TortoiseStore[] fresh = new TortoiseStore[1];
+            Runnable setUp = () -> fresh[0] = new TortoiseStore(data);
+
+            run(options, "додавання поодинці/" + size, setUp, () -> {
+                for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : newEntries) {
+                    fresh[0].put(entry.getKey(), entry.getValue());
+                }
+            });
+            run(options, "putAll/" + size, setUp, () -> fresh[0].putAll(newEntries));
+
+            run(options, "видалення ключів поодинці/" + size, setUp, () -> {
+                for (BasicDataOperationUsingMap.Tortoise key : keys) {
+                    fresh[0].remove(key);
+                }
+            });
+            run(options, "removeAll/" + size, setUp, () -> fresh[0].removeAll(keys));
+
+            run(options, "видалення власників поодинці/" + size, setUp, () -> {
+                for (String owner : owners) {
+                    fresh[0].removeOwner(owner);
+                }
+            });
+            run(options, "removeOwners/" + size, setUp, () -> fresh[0].removeOwners(owners));
+        }
+    }
+
+    private static void run(BenchmarkHarness.Options options, String name, Runnable setUp, Runnable batch) {
+        BenchmarkHarness.run(name, options, 1, new BenchmarkHarness.Workload() {
+            public void setUp() { setUp.run(); }
+            public long invoke(int i) {
+                batch.run();
+                return i;
+            }
+        });
+    }
+}
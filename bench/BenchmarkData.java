@@ -0,0 +1,63 @@
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Random;
+
+/**
+ * Клас BenchmarkData генерує набори даних Tortoise -> власник для бенчмарків.
+ *
+ * <p>Генерація детермінована (фіксований seed), тому різні запуски та різні
+ * реалізації порівнюються на однакових даних.</p>
+ */
+public class BenchmarkData {
+    private static final long SEED = 42L;
+
+    /**
+     * Генерує HashMap з count записами.
+     *
+     * @param count кількість записів
+     * @param nicknames кількість різних кличок (менше значення дає більше записів з однаковою кличкою, як "Броня")
+     * @param owners кількість різних власників
+     */
+    public static HashMap<BasicDataOperationUsingMap.Tortoise, String> generate(int count, int nicknames, int owners) {
+        Random random = new Random(SEED);
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = new HashMap<>(BasicDataOperationUsingMap.capacityFor(count));
+        int i = 0;
+        while (data.size() < count) {
+            String nickname = "Черепаха-" + random.nextInt(nicknames);
+            String species = "shellThickness=" + (i++) + "." + random.nextInt(10);
+            data.put(new BasicDataOperationUsingMap.Tortoise(nickname, species), owner(random.nextInt(owners)));
+        }
+        return data;
+    }
+
+    /**
+     * Генерує послідовність індексів з розподілом Ципфа: індекс k (від 0) обирається з імовірністю,
+     * пропорційною 1 / (k + 1)^exponent. Малі індекси — "гарячі" ключі.
+     *
+     * @param samples довжина послідовності
+     * @param range кількість різних індексів
+     * @param exponent показник розподілу (0.99 — типова асиметрія, як у YCSB)
+     */
+    public static int[] zipfian(int samples, int range, double exponent) {
+        double[] cumulative = new double[range];
+        double total = 0;
+        for (int k = 0; k < range; k++) {
+            total += 1.0 / Math.pow(k + 1, exponent);
+            cumulative[k] = total;
+        }
+        Random random = new Random(SEED);
+        int[] result = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            result[i] = Math.min(range - 1, index >= 0 ? index : -index - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Повертає ім'я власника з номером index.
+     */
+    public static String owner(int index) {
+        return "Власник-" + index;
+    }
+}
@@ -0,0 +1,202 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Клас BenchmarkHarness — мінімальний вимірювальний каркас для бенчмарків без зовнішніх залежностей.
+ *
+ * <p>Кожен бенчмарк виконується у кілька ітерацій прогріву (результати відкидаються) та
+ * вимірювальних ітерацій. Для вимірювань повертаються пропускна здатність (оп/с), середній час
+ * операції (нс/оп), виділена пам'ять на операцію та швидкість виділення пам'яті (аналог профайлера gc у JMH).</p>
+ *
+ * <p>Консольний вивід операцій, що вимірюються, вимикається методом {@link #silenceConsole()};
+ * звіт друкується в оригінальний System.out.</p>
+ *
+ * <p>Файлу збірки немає: бенчмарки компілюються разом з кодом з кореня репозиторію (JDK 17+)
+ * скриптом {@code bench/run.sh <Бенчмарк> [параметри]}, який виконує ті самі команди, що й нижче.
+ * Вихідні файли містять українські коментарі та рядки, тому {@code -encoding UTF-8} обов'язковий —
+ * без нього javac на платформі з іншим кодуванням за замовчуванням завершується помилками
+ * "unmappable character". Властивості stdout.encoding (JDK 19+) та sun.stdout.encoding (JDK 17–18)
+ * потрібні лише для читабельного звіту в консолі UTF-8:</p>
+ * <pre>
+ * javac -encoding UTF-8 -d out *.java bench/*.java
+ * java -Dstdout.encoding=UTF-8 -Dsun.stdout.encoding=UTF-8 -cp out &lt;Бенчмарк&gt; [--warmup=3] [--iterations=5] [параметри]
+ * </pre>
+ */
+public class BenchmarkHarness {
+    private static final PrintStream REPORT = System.out;
+    private static final PrintStream DISCARD = new PrintStream(OutputStream.nullOutputStream());
+
+    private static volatile long sink;
+
+    /**
+     * Навантаження, що вимірюється.
+     */
+    public interface Workload {
+        /**
+         * Готує стан перед кожною ітерацією (не входить у вимірювання).
+         */
+        default void setUp() {
+        }
+
+        /**
+         * Виконує одну операцію.
+         *
+         * @param invocation номер виклику в межах ітерації
+         * @return довільне значення, що споживається, щоб JIT не усунув операцію
+         */
+        long invoke(int invocation);
+    }
+
+    /**
+     * Результат вимірювання одного бенчмарку.
+     */
+    public static final class Result {
+        final String name;
+        final double nanosPerOp;
+        final double opsPerSecond;
+        final double bytesPerOp;
+        final double allocationMbPerSecond;
+        final long gcCount;
+
+        Result(String name, long operations, long elapsedNanos, long allocatedBytes, long gcCount) {
+            this.name = name;
+            this.nanosPerOp = (double) elapsedNanos / operations;
+            this.opsPerSecond = operations * 1e9 / elapsedNanos;
+            this.bytesPerOp = (double) allocatedBytes / operations;
+            this.allocationMbPerSecond = allocatedBytes / 1048576.0 / (elapsedNanos / 1e9);
+            this.gcCount = gcCount;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-60s %14.1f оп/с %14.1f нс/оп %12.1f Б/оп %10.1f МБ/с gc=%d",
+                    name, opsPerSecond, nanosPerOp, bytesPerOp, allocationMbPerSecond, gcCount);
+        }
+    }
+
+    /**
+     * Параметри запуску, що читаються з аргументів командного рядка виду --назва=значення.
+     */
+    public static final class Options {
+        private final Map<String, String> values = new HashMap<>();
+
+        public Options(String[] args) {
+            for (String arg : args) {
+                if (arg.startsWith("--") && arg.contains("=")) {
+                    int idx = arg.indexOf('=');
+                    values.put(arg.substring(2, idx), arg.substring(idx + 1));
+                }
+            }
+        }
+
+        public int getInt(String name, int defaultValue) {
+            String value = values.get(name);
+            return value != null ? Integer.parseInt(value.replace("_", "")) : defaultValue;
+        }
+
+        public int[] getInts(String name, int... defaultValues) {
+            String value = values.get(name);
+            if (value == null) {
+                return defaultValues;
+            }
+            String[] parts = value.split(",");
+            int[] result = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                result[i] = (int) Double.parseDouble(parts[i].replace("_", ""));
+            }
+            return result;
+        }
+
+        public String get(String name, String defaultValue) {
+            return values.getOrDefault(name, defaultValue);
+        }
+
+        public int warmupIterations() {
+            return getInt("warmup", 3);
+        }
+
+        public int measurementIterations() {
+            return getInt("iterations", 5);
+        }
+    }
+
+    /**
+     * Вимикає консольний вивід (System.out) операцій, що вимірюються.
+     */
+    public static void silenceConsole() {
+        System.setOut(DISCARD);
+    }
+
+    /**
+     * Друкує рядок звіту в оригінальний System.out.
+     */
+    public static void report(Object line) {
+        REPORT.println(line);
+    }
+
+    /**
+     * Виконує бенчмарк з параметрами прогріву та вимірювань з options.
+     */
+    public static Result run(String name, Options options, int invocationsPerIteration, Workload workload) {
+        return run(name, options.warmupIterations(), options.measurementIterations(), invocationsPerIteration, workload);
+    }
+
+    /**
+     * Виконує бенчмарк та друкує його результат.
+     *
+     * @param name назва бенчмарку у звіті
+     * @param warmupIterations кількість ітерацій прогріву
+     * @param measurementIterations кількість вимірювальних ітерацій
+     * @param invocationsPerIteration кількість операцій в одній ітерації
+     * @param workload навантаження
+     */
+    public static Result run(String name, int warmupIterations, int measurementIterations,
+                             int invocationsPerIteration, Workload workload) {
+        long consumed = 0;
+        for (int iteration = 0; iteration < warmupIterations; iteration++) {
+            workload.setUp();
+            for (int i = 0; i < invocationsPerIteration; i++) {
+                consumed += workload.invoke(i);
+            }
+        }
+
+        long elapsed = 0;
+        long allocated = 0;
+        long gcStart = gcCount();
+        for (int iteration = 0; iteration < measurementIterations; iteration++) {
+            workload.setUp();
+            long bytesStart = allocatedBytes();
+            long timeStart = System.nanoTime();
+            for (int i = 0; i < invocationsPerIteration; i++) {
+                consumed += workload.invoke(i);
+            }
+            elapsed += System.nanoTime() - timeStart;
+            allocated += allocatedBytes() - bytesStart;
+        }
+        sink += consumed;
+
+        Result result = new Result(name, (long) measurementIterations * invocationsPerIteration,
+                Math.max(1, elapsed), allocated, gcCount() - gcStart);
+        report(result);
+        return result;
+    }
+
+    /**
+     * Повертає кількість байтів, виділених поточним потоком.
+     */
+    public static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+}
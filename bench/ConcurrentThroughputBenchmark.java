@@ -0,0 +1,104 @@
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Багатопотоковий бенчмарк пропускної здатності: сховище BasicDataOperationUsingMap (TortoiseStore)
+ * під глобальним блокуванням проти ConcurrentDataOperationUsingMap при 1..64 потоках.
+ *
+ * <p>Навантаження: 90% пошуків за ключем, 4.9% додавань, 5% видалень за ключем, 0.1% пошуків за значенням.</p>
+ *
+ * <p>Обидві сторони виконують однакову роботу на операцію: запит до Map, запис тривалості
+ * в PerformanceTracker та подію JFR MapOperationEvent, без консольного виводу, який додають методи *InHashMap.</p>
+ *
+ * <p>Запуск: {@code java ConcurrentThroughputBenchmark --size=100000 --threads=1,2,4,8,16,32,64 --millis=1000}</p>
+ */
+public class ConcurrentThroughputBenchmark {
+    /**
+     * Операції сховища, що вимірюються.
+     */
+    interface Store {
+        Object findByKey(BasicDataOperationUsingMap.Tortoise key);
+
+        Object findByValue(String owner);
+
+        Object add(BasicDataOperationUsingMap.Tortoise key, String owner);
+
+        Object removeByKey(BasicDataOperationUsingMap.Tortoise key);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 100_000);
+        int millis = options.getInt("millis", 1_000);
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+
+        BenchmarkHarness.silenceConsole();
+        for (int threads : options.getInts("threads", 1, 2, 4, 8, 16, 32, 64)) {
+            LockedTortoiseStore locked = new LockedTortoiseStore(data);
+            Store globalLock = new Store() {
+                public Object findByKey(BasicDataOperationUsingMap.Tortoise key) { return locked.findByKey(key); }
+                public Object findByValue(String owner) { return locked.findByValue(owner); }
+                public Object add(BasicDataOperationUsingMap.Tortoise key, String owner) { return locked.addEntry(key, owner); }
+                public Object removeByKey(BasicDataOperationUsingMap.Tortoise key) { return locked.removeByKey(key); }
+            };
+
+            ConcurrentDataOperationUsingMap concurrent = new ConcurrentDataOperationUsingMap(data);
+            Store lockFree = new Store() {
+                public Object findByKey(BasicDataOperationUsingMap.Tortoise key) { return concurrent.findByKey(key); }
+                public Object findByValue(String owner) { return concurrent.findByValue(owner); }
+                public Object add(BasicDataOperationUsingMap.Tortoise key, String owner) { return concurrent.addEntry(key, owner); }
+                public Object removeByKey(BasicDataOperationUsingMap.Tortoise key) { return concurrent.removeByKey(key); }
+            };
+
+            report("глобальне блокування", threads, run(globalLock, keys, threads, millis), millis);
+            report("ConcurrentHashMap", threads, run(lockFree, keys, threads, millis), millis);
+        }
+    }
+
+    private static long run(Store store, BasicDataOperationUsingMap.Tortoise[] keys, int threads, int millis)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + millis * 1_000_000L;
+                while (System.nanoTime() < deadline) {
+                    BasicDataOperationUsingMap.Tortoise key = keys[random.nextInt(keys.length)];
+                    int dice = random.nextInt(1000);
+                    if (dice < 900) {
+                        store.findByKey(key);
+                    } else if (dice < 949) {
+                        store.add(key, "Аркадій");
+                    } else if (dice < 999) {
+                        store.removeByKey(key);
+                    } else {
+                        store.findByValue(BenchmarkData.owner(random.nextInt(keys.length / 4 + 1)));
+                    }
+                    count++;
+                }
+                operations.add(count);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum();
+    }
+
+    private static void report(String name, int threads, long operations, int millis) {
+        BenchmarkHarness.report(String.format("%-22s потоків=%2d: %14.1f оп/с", name, threads, operations * 1000.0 / millis));
+    }
+}
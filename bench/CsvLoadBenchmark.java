@@ -0,0 +1,51 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Бенчмарк потокового завантаження TortoiseCsvLoader: послідовний та паралельний розбір у HashMap,
+ * а також завантаження в BasicDataOperationUsingMap пакетами addEntriesToHashMap.
+ *
+ * <p>Запуск: {@code java CsvLoadBenchmark --size=1000000 --threads=1,2,4}</p>
+ */
+public class CsvLoadBenchmark {
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 1_000_000);
+        Path file = Files.createTempFile("tortoises", ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("# кличка,species,власник\n");
+                for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry
+                        : BenchmarkData.generate(size, size / 10 + 1, 10_000).entrySet()) {
+                    writer.write(entry.getKey().getNickname() + "," + entry.getKey().getSpecies() + "," + entry.getValue() + "\n");
+                }
+            }
+            BenchmarkHarness.report(String.format("Файл: %,d байт, %d записів", Files.size(file), size));
+
+            for (int threads : options.getInts("threads", 1, 2, 4)) {
+                HashMap<BasicDataOperationUsingMap.Tortoise, String> target = new HashMap<>(BasicDataOperationUsingMap.capacityFor(size));
+                TortoiseCsvLoader.LoadStats stats = TortoiseCsvLoader.load(file,
+                        new TortoiseCsvLoader.Options().parserThreads(threads), batch -> {
+                            for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : batch) {
+                                target.put(entry.getKey(), entry.getValue());
+                            }
+                        });
+                BenchmarkHarness.report("HashMap, потоків розбору=" + threads + ": " + stats);
+            }
+
+            BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(new LinkedHashMap<>());
+            BenchmarkHarness.silenceConsole();
+            TortoiseCsvLoader.LoadStats stats = TortoiseCsvLoader.load(file,
+                    new TortoiseCsvLoader.Options().batchSize(50_000), operations::addEntriesToHashMap);
+            BenchmarkHarness.report("BasicDataOperationUsingMap.addEntriesToHashMap: " + stats);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
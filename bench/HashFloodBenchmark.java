@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Бенчмарк хешування Tortoise на ворожих наборах ключів: класичний хеш проти SipHash (TortoiseHashing).
+ *
+ * <p>Набори ключів:</p>
+ * <ul>
+ *   <li>одна кличка — "Броня" з різними shellThickness (види відрізняються лише цифрами);</li>
+ *   <li>колізії String.hashCode — клички з блоків "Aa"/"BB", що мають однаковий String.hashCode(),
+ *       та однаковий вид, тобто однаковий класичний хеш Tortoise;</li>
+ *   <li>випадкові ключі BenchmarkData для порівняння.</li>
+ * </ul>
+ *
+ * <p>Режим хешування фіксується при завантаженні класу, тому кожен режим виконується в окремій JVM
+ * (аналог fork у JMH). Для кожного набору виводиться діагностика кошиків, час заповнення HashMap
+ * та час пошуку всіх ключів.</p>
+ *
+ * <p>Запуск: {@code java HashFloodBenchmark --size=65536}; один режим у поточній JVM:
+ * {@code java -Dtortoise.hash=mixed HashFloodBenchmark --mode=mixed}</p>
+ */
+public class HashFloodBenchmark {
+    public static void main(String[] args) throws Exception {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        if (options.get("mode", null) == null) {
+            for (TortoiseHashing.Mode mode : TortoiseHashing.Mode.values()) {
+                fork(mode, args);
+            }
+            return;
+        }
+
+        int size = options.getInt("size", 65_536);
+        BenchmarkHarness.report("========= Режим хешування " + TortoiseHashing.MODE + " =========");
+        run("одна кличка", sharedNickname(size), options);
+        run("колізії String.hashCode", collidingNicknames(size), options);
+        run("випадкові ключі", new ArrayList<>(BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1).keySet()), options);
+    }
+
+    private static void run(String name, List<BasicDataOperationUsingMap.Tortoise> keys, BenchmarkHarness.Options options) {
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> map = new HashMap<>();
+        for (BasicDataOperationUsingMap.Tortoise key : keys) {
+            map.put(key, "Власник");
+        }
+        BenchmarkHarness.report(name + ": " + HashBucketDiagnostics.analyze(map));
+
+        BasicDataOperationUsingMap.Tortoise[] lookups = keys.toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+        BenchmarkHarness.run(name + ", заповнення HashMap/" + keys.size(), options, 1, i -> {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> filled = new HashMap<>();
+            for (BasicDataOperationUsingMap.Tortoise key : lookups) {
+                filled.put(key, "Власник");
+            }
+            return filled.size();
+        });
+        BenchmarkHarness.run(name + ", пошук за ключем/" + keys.size(), options, lookups.length,
+                i -> map.get(lookups[i]).length());
+    }
+
+    private static List<BasicDataOperationUsingMap.Tortoise> sharedNickname(int size) {
+        List<BasicDataOperationUsingMap.Tortoise> keys = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(new BasicDataOperationUsingMap.Tortoise("Броня", "shellThickness=" + (i / 10) + "." + (i % 10)));
+        }
+        return keys;
+    }
+
+    /**
+     * Генерує клички з блоків "Aa" та "BB": "Aa".hashCode() == "BB".hashCode(), тому всі клички
+     * однакової довжини мають однаковий String.hashCode().
+     */
+    private static List<BasicDataOperationUsingMap.Tortoise> collidingNicknames(int size) {
+        int blocks = 32 - Integer.numberOfLeadingZeros(Math.max(1, size - 1));
+        List<BasicDataOperationUsingMap.Tortoise> keys = new ArrayList<>(size);
+        StringBuilder nickname = new StringBuilder(blocks * 2);
+        for (int i = 0; i < size; i++) {
+            nickname.setLength(0);
+            for (int bit = 0; bit < blocks; bit++) {
+                nickname.append((i >>> bit & 1) == 0 ? "Aa" : "BB");
+            }
+            keys.add(new BasicDataOperationUsingMap.Tortoise(nickname.toString(), "shellThickness=3.1"));
+        }
+        return keys;
+    }
+
+    private static void fork(TortoiseHashing.Mode mode, String[] args) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.add("-Dtortoise.hash=" + mode.name().toLowerCase());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(HashFloodBenchmark.class.getName());
+        command.addAll(List.of(args));
+        command.add("--mode=" + mode.name().toLowerCase());
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Бенчмарк у режимі " + mode + " завершився з кодом " + process.exitValue());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Клас LockedTortoiseStore — базова лінія "глобальне блокування" для багатопотокових бенчмарків:
+ * сховище TortoiseStore, з яким працюють методи BasicDataOperationUsingMap, під одним блокуванням.
+ *
+ * <p>Кожна операція записує тривалість у ті самі метрики PerformanceTracker та події JFR, що й методи
+ * BasicDataOperationUsingMap, але без консольного виводу, який додають методи *InHashMap, — тому
+ * порівняння з конкурентними сховищами вимірює саме блокування, а не форматування повідомлень.</p>
+ */
+public class LockedTortoiseStore {
+    private static final BasicDataOperationUsingMap.MapView VIEW = BasicDataOperationUsingMap.HASH_MAP_VIEW;
+
+    private final TortoiseStore store;
+
+    LockedTortoiseStore(Map<BasicDataOperationUsingMap.Tortoise, String> data) {
+        this.store = new TortoiseStore(data);
+    }
+
+    /**
+     * Повертає власника черепахи або null.
+     */
+    synchronized String findByKey(BasicDataOperationUsingMap.Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+        String value = store.get(key);
+        PerformanceTracker.recordOperationTime(timeStart, VIEW.findByKeyMetric);
+        MapOperationEvent.finish(event, VIEW.findByKeyMetric, VIEW.name, store.size(), value != null ? 1 : 0);
+        return value;
+    }
+
+    /**
+     * Повертає першу черепаху власника (через індекс власників) або null.
+     */
+    synchronized BasicDataOperationUsingMap.Tortoise findByValue(String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+        Iterator<BasicDataOperationUsingMap.Tortoise> keys = store.findByOwner(owner).iterator();
+        BasicDataOperationUsingMap.Tortoise found = keys.hasNext() ? keys.next() : null;
+        PerformanceTracker.recordOperationTime(timeStart, VIEW.findByValueMetric);
+        MapOperationEvent.finish(event, VIEW.findByValueMetric, VIEW.name, store.size(), found != null ? 1 : 0);
+        return found;
+    }
+
+    /**
+     * Додає запис і повертає попереднього власника або null.
+     */
+    synchronized String addEntry(BasicDataOperationUsingMap.Tortoise key, String owner) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+        String previousValue = store.put(key, owner);
+        PerformanceTracker.recordOperationTime(timeStart, VIEW.addMetric);
+        MapOperationEvent.finish(event, VIEW.addMetric, VIEW.name, store.size(), 1);
+        return previousValue;
+    }
+
+    /**
+     * Видаляє запис і повертає його власника або null.
+     */
+    synchronized String removeByKey(BasicDataOperationUsingMap.Tortoise key) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+        String removedValue = store.remove(key);
+        PerformanceTracker.recordOperationTime(timeStart, VIEW.removeByKeyMetric);
+        MapOperationEvent.finish(event, VIEW.removeByKeyMetric, VIEW.name, store.size(), removedValue != null ? 1 : 0);
+        return removedValue;
+    }
+
+    /**
+     * Сортує записи так само, як {@link BasicDataOperationUsingMap#sort(BasicDataOperationUsingMap.MapView)}:
+     * для INSERTION сховище переупорядковується, для інших представлень повертається порядок ключів.
+     * Результат матеріалізується під блокуванням.
+     *
+     * @return кількість відсортованих записів
+     */
+    synchronized int sort(BasicDataOperationUsingMap.MapView view) {
+        MapOperationEvent event = MapOperationEvent.start();
+        long timeStart = System.nanoTime();
+
+        Iterable<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> sorted;
+        if (view.order == TortoiseStore.Order.INSERTION) {
+            store.sortByKey();
+            sorted = store.entries(TortoiseStore.Order.INSERTION);
+        } else {
+            sorted = store.entries(TortoiseStore.Order.KEY);
+        }
+        int count = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : sorted) {
+            count += entry.getValue() != null ? 1 : 0;
+        }
+
+        PerformanceTracker.recordOperationTime(timeStart, view.sortMetric);
+        MapOperationEvent.finish(event, view.sortMetric, view.name, store.size(), count);
+        return count;
+    }
+}
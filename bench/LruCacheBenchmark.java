@@ -0,0 +1,35 @@
+import java.util.HashMap;
+
+/**
+ * Бенчмарк кешу LRU перед сховищем TortoiseStore: пошук за ключем з розподілом ключів Ципфа
+ * без кешу та з кешами різного розміру. Для кожного розміру кешу виводяться частка влучань
+ * та кількість витіснень.
+ *
+ * <p>Запуск: {@code java LruCacheBenchmark --size=1000000 --cacheSizes=1000,10000,100000 --exponent=0.99}</p>
+ */
+public class LruCacheBenchmark {
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 1_000_000);
+        int lookups = options.getInt("lookups", 1_000_000);
+        double exponent = Double.parseDouble(options.get("exponent", "0.99"));
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+        int[] sequence = BenchmarkData.zipfian(lookups, keys.length, exponent);
+
+        BenchmarkHarness.silenceConsole();
+        // Пошук іде напряму через TortoiseStore: get() без кешу проти getCached() з кешем
+        TortoiseStore uncached = new TortoiseStore(data);
+        BenchmarkHarness.run("пошук без кешу/" + size, options, lookups,
+                i -> uncached.get(keys[sequence[i]]) != null ? 1 : 0);
+
+        for (int cacheSize : options.getInts("cacheSizes", 1_000, 10_000, 100_000)) {
+            TortoiseStore cached = new TortoiseStore(data);
+            LruCache<BasicDataOperationUsingMap.Tortoise, String> cache = new LruCache<>(cacheSize, (key, value) -> { });
+            cached.setCache(cache);
+            BenchmarkHarness.run("пошук з кешем LRU " + cacheSize + "/" + size, options, lookups,
+                    i -> cached.getCached(keys[sequence[i]]) != null ? 1 : 0);
+            BenchmarkHarness.report("  " + cache);
+        }
+    }
+}
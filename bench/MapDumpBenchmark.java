@@ -0,0 +1,75 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Бенчмарк вивантаження Map: колишнє виведення конкатенацією рядків через println проти
+ * MapDumpWriter у текстовому та двійковому форматі (в порожній потік та у файл).
+ * Головний показник — виділена пам'ять на одне вивантаження (Б/оп) та її частка на запис.
+ *
+ * <p>Запуск: {@code java MapDumpBenchmark --sizes=100000,1000000}</p>
+ */
+public class MapDumpBenchmark {
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        PrintStream nullPrintStream = new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+        WritableByteChannel nullChannel = Channels.newChannel(OutputStream.nullOutputStream());
+
+        for (int size : options.getInts("sizes", 100_000, 1_000_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+            BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(data);
+
+            report(size, BenchmarkHarness.run("println з конкатенацією/" + size, options, 1, i -> {
+                for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : data.entrySet()) {
+                    nullPrintStream.println("  " + entry.getKey() + " -> " + entry.getValue());
+                }
+                return data.size();
+            }));
+
+            MapDumpWriter text = new MapDumpWriter(nullChannel, StandardCharsets.UTF_8, MapDumpWriter.Format.TEXT);
+            report(size, BenchmarkHarness.run("MapDumpWriter TEXT/" + size, options, 1, i -> dump(operations, text)));
+            MapDumpWriter binary = new MapDumpWriter(nullChannel, StandardCharsets.UTF_8, MapDumpWriter.Format.BINARY);
+            report(size, BenchmarkHarness.run("MapDumpWriter BINARY/" + size, options, 1, i -> dump(operations, binary)));
+
+            Path file = Files.createTempFile("tortoise", ".dump");
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                for (MapDumpWriter.Format format : MapDumpWriter.Format.values()) {
+                    MapDumpWriter writer = new MapDumpWriter(channel, StandardCharsets.UTF_8, format);
+                    report(size, BenchmarkHarness.run("MapDumpWriter " + format + " у файл/" + size, options, 1, i -> {
+                        try {
+                            channel.truncate(0);
+                            channel.position(0);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return dump(operations, writer);
+                    }));
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static long dump(BasicDataOperationUsingMap operations, MapDumpWriter writer) {
+        try {
+            return operations.dumpHashMap(writer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void report(int size, BenchmarkHarness.Result result) {
+        BenchmarkHarness.report(String.format("  виділено на запис: %.2f Б", result.bytesPerOp / size));
+    }
+}
@@ -0,0 +1,157 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Набір бенчмарків для всіх операцій BasicDataOperationUsingMap:
+ * пошук за ключем, пошук за значенням, додавання, видалення за ключем, видалення за значенням,
+ * сортування та виведення — без консольного виводу, який додають методи *InHashMap/*InLinkedHashMap.
+ *
+ * <p>Методи HashMap та LinkedHashMap працюють з одним сховищем TortoiseStore, тому точкові операції
+ * (пошук, додавання, видалення) вимірюються один раз — безпосередньо над сховищем. Для кожного
+ * представлення (HashMap, LinkedHashMap та LinkedHashMap у впорядкованому режимі) вимірюються лише
+ * операції, що від нього залежать: сортування (з обходом результату) та виведення через
+ * MapDumpWriter у порожній канал.</p>
+ *
+ * <p>Параметри: розміри Map (--sizes, за замовчуванням 1e3,1e4,1e5; допустимо до 1e7) та
+ * розподіл ключів (--distributions: UNIQUE — унікальні клички, COLLIDING — багато черепах з
+ * однаковою кличкою, як два записи "Броня").</p>
+ *
+ * <p>JMH та збірка Maven/Gradle не використовуються: усі класи лежать у пакеті за замовчуванням,
+ * а JMH відхиляє бенчмарки в ньому, тоді як клас з іменованого пакета не може імпортувати класи
+ * пакета за замовчуванням. Прогрів, ітерації та вимірювання виділеної пам'яті виконує BenchmarkHarness;
+ * кожен запуск — одна JVM без форків, тому для порівнянь запуск повторюють кілька разів.
+ * Збірка та запуск з кореня репозиторію (JDK 17+) — див. BenchmarkHarness:</p>
+ * <pre>
+ * javac -encoding UTF-8 -d out *.java bench/*.java
+ * java -Dstdout.encoding=UTF-8 -Dsun.stdout.encoding=UTF-8 -cp out MapOperationsBenchmark \
+ *     --sizes=1e3,1e5 --distributions=UNIQUE,COLLIDING --ops=10000 --warmup=3 --iterations=5
+ * </pre>
+ */
+public class MapOperationsBenchmark {
+    /**
+     * Розподіл кличок серед ключів.
+     */
+    enum KeyDistribution {
+        UNIQUE {
+            int nicknames(int size) { return size; }
+        },
+        COLLIDING {
+            int nicknames(int size) { return Math.max(1, size / 1000); }
+        };
+
+        abstract int nicknames(int size);
+    }
+
+    enum MapKind { HASH_MAP, LINKED_HASH_MAP, ORDERED_LINKED_HASH_MAP }
+
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int[] sizes = options.getInts("sizes", 1_000, 10_000, 100_000);
+        int pointOps = options.getInt("ops", 10_000);
+        List<KeyDistribution> distributions = new ArrayList<>();
+        for (String name : options.get("distributions", "UNIQUE,COLLIDING").split(",")) {
+            distributions.add(KeyDistribution.valueOf(name));
+        }
+
+        BenchmarkHarness.silenceConsole();
+        for (int size : sizes) {
+            for (KeyDistribution distribution : distributions) {
+                HashMap<BasicDataOperationUsingMap.Tortoise, String> data =
+                        BenchmarkData.generate(size, distribution.nicknames(size), Math.max(1, size / 4));
+                runPointOperations(options, String.format("TortoiseStore/%s/%d", distribution, size), data, pointOps);
+                for (MapKind kind : MapKind.values()) {
+                    runOrderedOperations(options, String.format("%s/%s/%d", kind, distribution, size), kind, data);
+                }
+            }
+        }
+    }
+
+    private static void runPointOperations(BenchmarkHarness.Options options, String prefix,
+                                           HashMap<BasicDataOperationUsingMap.Tortoise, String> data, int pointOps) {
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+        String[] owners = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            owners[i] = data.get(keys[i]);
+        }
+        BasicDataOperationUsingMap.Tortoise[] newKeys = new BasicDataOperationUsingMap.Tortoise[pointOps];
+        for (int i = 0; i < pointOps; i++) {
+            newKeys[i] = new BasicDataOperationUsingMap.Tortoise("Нова-" + i, "shellThickness=" + i + ".5");
+        }
+        int removeOps = Math.min(pointOps, keys.length);
+        TortoiseStore shared = new TortoiseStore(data);
+        TortoiseStore[] fresh = new TortoiseStore[1];
+
+        BenchmarkHarness.run(prefix + " findByKey", options, pointOps,
+                i -> length(shared.get(keys[i % keys.length])));
+
+        BenchmarkHarness.run(prefix + " findByValue", options, pointOps,
+                i -> shared.findByOwner(owners[i % owners.length]).size());
+
+        BenchmarkHarness.run(prefix + " add", options, pointOps, new BenchmarkHarness.Workload() {
+            public void setUp() { fresh[0] = new TortoiseStore(data); }
+            public long invoke(int i) { return length(fresh[0].put(newKeys[i], "Аркадій")); }
+        });
+
+        BenchmarkHarness.run(prefix + " removeByKey", options, removeOps, new BenchmarkHarness.Workload() {
+            public void setUp() { fresh[0] = new TortoiseStore(data); }
+            public long invoke(int i) { return length(fresh[0].remove(keys[i])); }
+        });
+
+        BenchmarkHarness.run(prefix + " removeByValue", options, removeOps, new BenchmarkHarness.Workload() {
+            public void setUp() { fresh[0] = new TortoiseStore(data); }
+            public long invoke(int i) { return fresh[0].removeOwner(owners[i]).size(); }
+        });
+    }
+
+    private static void runOrderedOperations(BenchmarkHarness.Options options, String prefix, MapKind kind,
+                                             HashMap<BasicDataOperationUsingMap.Tortoise, String> data) {
+        BasicDataOperationUsingMap shared = create(kind, data);
+        BasicDataOperationUsingMap[] fresh = new BasicDataOperationUsingMap[1];
+        WritableByteChannel nullChannel = Channels.newChannel(OutputStream.nullOutputStream());
+        MapDumpWriter writer = new MapDumpWriter(nullChannel, StandardCharsets.UTF_8, MapDumpWriter.Format.TEXT);
+
+        // Кожна ітерація сортує сховище в початковому порядку, включно з побудовою індексу ключів
+        BenchmarkHarness.run(prefix + " sort", options, 1, new BenchmarkHarness.Workload() {
+            public void setUp() { fresh[0] = create(kind, data); }
+            public long invoke(int i) {
+                return count(kind == MapKind.HASH_MAP ? fresh[0].sortHashMap() : fresh[0].sortLinkedHashMap());
+            }
+        });
+
+        BenchmarkHarness.run(prefix + " print", options, 1, i -> {
+            try {
+                return kind == MapKind.HASH_MAP ? shared.dumpHashMap(writer) : shared.dumpLinkedHashMap(writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static BasicDataOperationUsingMap create(MapKind kind, HashMap<BasicDataOperationUsingMap.Tortoise, String> data) {
+        BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(data);
+        if (kind == MapKind.ORDERED_LINKED_HASH_MAP) {
+            operations.enableOrderedMode();
+        }
+        return operations;
+    }
+
+    private static long count(Iterable<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries) {
+        long count = 0;
+        for (Map.Entry<BasicDataOperationUsingMap.Tortoise, String> entry : entries) {
+            count += entry.getValue() != null ? 1 : 0;
+        }
+        return count;
+    }
+
+    private static long length(String value) {
+        return value != null ? value.length() : 0;
+    }
+}
@@ -0,0 +1,60 @@
+import java.util.HashMap;
+
+/**
+ * Бенчмарк обсягу пам'яті: HashMap&lt;Tortoise, String&gt; проти ColumnarTortoiseRegistry
+ * на однакових даних (за замовчуванням 10 млн записів).
+ *
+ * <p>Обсяг вимірюється як різниця зайнятої купи після примусового збирання сміття до та після
+ * побудови структури. Імена 100 000 власників створюються один раз до вимірювань і спільно
+ * використовуються обома структурами, як рядки власників у реальних даних: HashMap зберігає посилання
+ * на спільний рядок, а не окрему копію в кожному записі. Для 10 млн записів HashMap потрібно кілька ГБ купи, наприклад -Xmx6g.</p>
+ *
+ * <p>Запуск: {@code java -Xmx6g MemoryFootprintBenchmark --size=10000000}</p>
+ */
+public class MemoryFootprintBenchmark {
+    private static final int OWNERS = 100_000;
+
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 10_000_000);
+        String[] owners = new String[OWNERS];
+        for (int i = 0; i < OWNERS; i++) {
+            owners[i] = BenchmarkData.owner(i);
+        }
+
+        long baseline = usedHeap();
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> map = new HashMap<>(BasicDataOperationUsingMap.capacityFor(size));
+        for (int i = 0; i < size; i++) {
+            map.put(key(i), owners[i % OWNERS]);
+        }
+        long mapBytes = usedHeap() - baseline;
+        report("HashMap<Tortoise, String>", size, mapBytes);
+        map = null;
+
+        baseline = usedHeap();
+        ColumnarTortoiseRegistry registry = new ColumnarTortoiseRegistry(size);
+        for (int i = 0; i < size; i++) {
+            registry.addEntry(key(i), owners[i % OWNERS]);
+        }
+        long registryBytes = usedHeap() - baseline;
+        report("ColumnarTortoiseRegistry", registry.size(), registryBytes);
+
+        BenchmarkHarness.report(String.format("Економія пам'яті: x%.1f", (double) mapBytes / Math.max(1, registryBytes)));
+    }
+
+    private static BasicDataOperationUsingMap.Tortoise key(int i) {
+        return new BasicDataOperationUsingMap.Tortoise("Черепаха-" + i / 100, "shellThickness=" + (i % 100) / 10.0);
+    }
+
+    private static void report(String name, int entries, long bytes) {
+        BenchmarkHarness.report(String.format("%-28s записів=%d: %,d байт, %.1f байт/запис", name, entries, bytes, (double) bytes / entries));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,134 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Бенчмарк журналу змін MutationLog: пропускна здатність змін за кожної політики fsync
+ * (без журналу, NEVER, PERIODIC, ALWAYS), вплив group commit при кількох потоках
+ * та час відновлення зі знімка й хвоста журналу при різній кількості потоків.
+ *
+ * <p>Запуск: {@code java MutationLogBenchmark --size=100000 --ops=2000 --threads=1,4,16 --millis=1000 --log=200000}</p>
+ */
+public class MutationLogBenchmark {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 100_000);
+        int ops = options.getInt("ops", 2_000);
+        int millis = options.getInt("millis", 1_000);
+        long groupCommitMillis = options.getInt("groupCommitMillis", 5);
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+
+        BenchmarkHarness.silenceConsole();
+
+        // Одиночні зміни з одного потоку: додавання та видалення за ключем по черзі
+        // Вимірюється саме сховище з журналом, без консольних обгорток BasicDataOperationUsingMap
+        TortoiseStore unlogged = new TortoiseStore(data);
+        BenchmarkHarness.run("зміни без журналу", options, ops, i -> mutate(unlogged, keys, i));
+        for (MutationLog.FsyncPolicy policy : MutationLog.FsyncPolicy.values()) {
+            Path file = Files.createTempFile("tortoise", ".wal");
+            try (MutationLog log = MutationLog.open(file, policy, groupCommitMillis)) {
+                TortoiseStore store = new TortoiseStore(data);
+                store.setLog(log);
+                BenchmarkHarness.run("зміни з журналом " + policy, options, ops, i -> mutate(store, keys, i));
+
+                // Пакет з 1000 додавань завершується одним commit
+                List<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> batch = new ArrayList<>();
+                for (int i = 0; i < 1_000; i++) {
+                    batch.add(Map.entry(keys[i % keys.length], BenchmarkData.owner(i)));
+                }
+                BenchmarkHarness.run("пакет 1000 додавань з журналом " + policy, options, 10,
+                        i -> store.putAll(batch));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        // Group commit: кілька потоків чекають на спільний fsync
+        for (int threads : options.getInts("threads", 1, 4, 16)) {
+            Path file = Files.createTempFile("tortoise", ".wal");
+            try (MutationLog log = MutationLog.open(file, MutationLog.FsyncPolicy.ALWAYS, groupCommitMillis)) {
+                long flushesBefore = PerformanceTracker.snapshot().get("скидання журналу на диск (group commit)").getCount();
+                long mutations = appendConcurrently(log, keys, threads, millis);
+                long flushes = PerformanceTracker.snapshot().get("скидання журналу на диск (group commit)").getCount() - flushesBefore;
+                BenchmarkHarness.report(String.format("ALWAYS, потоків %d: %,.0f змін/с, змін на один fsync: %.1f",
+                        threads, mutations * 1000.0 / millis, (double) mutations / Math.max(1, flushes)));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+
+        // Відновлення: знімок size записів та журнал з logSize змін
+        int logSize = options.getInt("log", 200_000);
+        Path snapshotFile = Files.createTempFile("tortoise", ".snapshot");
+        Path logFile = Files.createTempFile("tortoise", ".wal");
+        try {
+            TortoiseSnapshot.write(snapshotFile, data);
+            try (MutationLog log = MutationLog.open(logFile, MutationLog.FsyncPolicy.NEVER, groupCommitMillis)) {
+                for (int i = 0; i < logSize; i++) {
+                    if (i % 10_000 == 9_999) {
+                        log.appendRemoveValue(BenchmarkData.owner(i));
+                    } else if (i % 3 == 0) {
+                        log.appendRemoveKey(keys[i % keys.length]);
+                    } else {
+                        log.appendPut(keys[i % keys.length], BenchmarkData.owner(i));
+                    }
+                }
+            }
+            for (int threads : new int[]{1, Runtime.getRuntime().availableProcessors()}) {
+                BenchmarkHarness.run("відновлення " + size + " + " + logSize + " змін, потоків " + threads, options, 1, i -> {
+                    try {
+                        return MutationLog.recover(snapshotFile, logFile, threads).size();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+            }
+        } finally {
+            Files.deleteIfExists(snapshotFile);
+            Files.deleteIfExists(logFile);
+        }
+    }
+
+    private static long mutate(TortoiseStore store, BasicDataOperationUsingMap.Tortoise[] keys, int i) {
+        BasicDataOperationUsingMap.Tortoise key = keys[(i / 2) % keys.length];
+        if (i % 2 == 0) {
+            return store.remove(key) != null ? 1 : 0;
+        }
+        return store.put(key, BenchmarkData.owner(i)) != null ? 1 : 0;
+    }
+
+    private static long appendConcurrently(MutationLog log, BasicDataOperationUsingMap.Tortoise[] keys, int threads, int millis)
+            throws InterruptedException {
+        LongAdder mutations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int offset = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + millis * 1_000_000L;
+                for (int i = offset; System.nanoTime() < deadline; i += threads) {
+                    log.commit(log.appendPut(keys[i % keys.length], BenchmarkData.owner(i)));
+                    mutations.increment();
+                }
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return mutations.sum();
+    }
+}
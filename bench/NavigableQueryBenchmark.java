@@ -0,0 +1,34 @@
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Бенчмарк запитів за префіксом клички та діапазоном товщини: TortoiseNavigableIndex
+ * (O(log n + k)) проти повного проходу по HashMap з фільтром (O(n)).
+ *
+ * <p>Запуск: {@code java NavigableQueryBenchmark --sizes=100000,1000000}</p>
+ */
+public class NavigableQueryBenchmark {
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        BenchmarkHarness.silenceConsole();
+        for (int size : options.getInts("sizes", 100_000, 1_000_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+            BasicDataOperationUsingMap operations = new BasicDataOperationUsingMap(data);
+            // Клички мають вигляд "Черепаха-<номер>", тому префікс "Черепаха-123" відбирає ~1/1000 кличок
+            String prefix = "Черепаха-123";
+            double from = size / 2.0;
+            double to = from + 100;
+
+            BenchmarkHarness.run("префікс, індекс/" + size, options, 1_000,
+                    i -> operations.findByNicknamePrefixInHashMap(prefix).size());
+            BenchmarkHarness.run("префікс, повний прохід/" + size, options, 5,
+                    i -> data.keySet().stream().filter(key -> key.getNickname().startsWith(prefix)).count());
+            BenchmarkHarness.run("діапазон товщини, індекс/" + size, options, 1_000,
+                    i -> operations.findByShellThicknessRangeInHashMap(from, to).size());
+            BenchmarkHarness.run("діапазон товщини, повний прохід/" + size, options, 5,
+                    i -> data.keySet().stream().filter(key -> key.getShellThickness() >= from && key.getShellThickness() <= to).count());
+            BenchmarkHarness.run("перші 10 за префіксом, індекс/" + size, options, 10_000,
+                    i -> operations.findByNicknamePrefixInHashMap("Черепаха-1", 10).stream().mapToInt(Map.Entry::hashCode).sum());
+        }
+    }
+}
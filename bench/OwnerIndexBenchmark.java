@@ -0,0 +1,36 @@
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+
+/**
+ * Бенчмарк пошуку за значенням: сортування + бінарний пошук по LinkedList
+ * (попередня реалізація findByValueInHashMap) проти зворотного індексу OwnerIndex.
+ *
+ * <p>Запуск: {@code java OwnerIndexBenchmark --sizes=1000,10000,100000}</p>
+ */
+public class OwnerIndexBenchmark {
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        for (int size : options.getInts("sizes", 1_000, 10_000, 100_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+            OwnerIndex<BasicDataOperationUsingMap.Tortoise> index = new OwnerIndex<>(data);
+            String owner = BenchmarkData.owner(size / 8);
+
+            BenchmarkHarness.run("сортування+бінарний пошук/" + size, options, 1, i -> sortAndBinarySearch(data, owner));
+            BenchmarkHarness.run("OwnerIndex/" + size, options, 10_000, i -> index.find(owner).size());
+        }
+    }
+
+    /**
+     * Попередня реалізація пошуку за значенням, збережена для порівняння.
+     */
+    static int sortAndBinarySearch(Map<BasicDataOperationUsingMap.Tortoise, String> map, String owner) {
+        LinkedList<Map.Entry<BasicDataOperationUsingMap.Tortoise, String>> entries = new LinkedList<>(map.entrySet());
+        BasicDataOperationUsingMap.OwnerValueComparator comparator = new BasicDataOperationUsingMap.OwnerValueComparator();
+        Collections.sort(entries, comparator);
+        Map.Entry<BasicDataOperationUsingMap.Tortoise, String> searchEntry = new AbstractMap.SimpleEntry<>(null, owner);
+        return Collections.binarySearch(entries, searchEntry, comparator);
+    }
+}
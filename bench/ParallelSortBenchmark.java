@@ -0,0 +1,44 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+/**
+ * Бенчмарк сортування ключів: попередній послідовний шлях (Collections.sort по LinkedList)
+ * проти Arrays.parallelSort, що використовується від PARALLEL_SORT_THRESHOLD записів під час першого
+ * sortHashMap/sortLinkedHashMap (побудова TortoiseNavigableIndex), у SnapshotDataOperationUsingMap та
+ * AdaptiveDataOperationUsingMap. Перед вимірюванням перевіряє, що порядок результатів ідентичний.
+ *
+ * <p>Запуск: {@code java ParallelSortBenchmark --sizes=100000,1000000,5000000}</p>
+ */
+public class ParallelSortBenchmark {
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        for (int size : options.getInts("sizes", 100_000, 1_000_000, 5_000_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 1000 + 1, 100);
+            BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+
+            LinkedList<BasicDataOperationUsingMap.Tortoise> sequential = new LinkedList<>(data.keySet());
+            Collections.sort(sequential);
+            BasicDataOperationUsingMap.Tortoise[] parallel = keys.clone();
+            Arrays.parallelSort(parallel);
+            int i = 0;
+            for (BasicDataOperationUsingMap.Tortoise key : sequential) {
+                if (key != parallel[i++]) {
+                    throw new IllegalStateException("Порядок паралельного сортування відрізняється на позиції " + (i - 1));
+                }
+            }
+
+            BenchmarkHarness.run("Collections.sort(LinkedList)/" + size, options, 1, n -> {
+                LinkedList<BasicDataOperationUsingMap.Tortoise> list = new LinkedList<>(data.keySet());
+                Collections.sort(list);
+                return list.size();
+            });
+            BenchmarkHarness.run("Arrays.parallelSort/" + size, options, 1, n -> {
+                BasicDataOperationUsingMap.Tortoise[] copy = keys.clone();
+                Arrays.parallelSort(copy);
+                return copy.length;
+            });
+        }
+    }
+}
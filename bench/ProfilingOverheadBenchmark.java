@@ -0,0 +1,43 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+import jdk.jfr.Recording;
+
+/**
+ * Бенчмарк накладних витрат подій MapOperationEvent на пошук та додавання за ключем:
+ * без запису JFR, із записом JFR при вимкнених у застосунку подіях та із записом усіх подій.
+ * Після вимірювань запис зводиться MapOperationReport.
+ *
+ * <p>Запуск: {@code java ProfilingOverheadBenchmark --size=100000}</p>
+ */
+public class ProfilingOverheadBenchmark {
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 100_000);
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+        ConcurrentDataOperationUsingMap operations = new ConcurrentDataOperationUsingMap(data);
+
+        measure("без запису JFR", options, operations, keys);
+        Path file = Files.createTempFile("map-operations", ".jfr");
+        try (Recording recording = MapOperationEvent.startRecording()) {
+            MapOperationEvent.setEnabled(false);
+            measure("запис JFR, події вимкнено", options, operations, keys);
+            MapOperationEvent.setEnabled(true);
+            measure("запис JFR, події увімкнено", options, operations, keys);
+            recording.dump(file);
+        }
+        MapOperationReport.summarize(file, System.out);
+        Files.delete(file);
+    }
+
+    private static void measure(String name, BenchmarkHarness.Options options, ConcurrentDataOperationUsingMap operations,
+                                BasicDataOperationUsingMap.Tortoise[] keys) {
+        BenchmarkHarness.run("пошук за ключем, " + name, options, 100_000,
+                i -> operations.findByKey(keys[i % keys.length]) != null ? 1 : 0);
+        BenchmarkHarness.run("додавання запису, " + name, options, 100_000,
+                i -> operations.addEntry(keys[i % keys.length], "Аркадій") != null ? 1 : 0);
+    }
+}
@@ -0,0 +1,113 @@
+import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Генератор навантаження для TortoiseServer: кілька з'єднань, у кожному до depth запитів
+ * в обробці одночасно (конвеєризація). Затримка кожного запиту від надсилання до отримання
+ * відповіді записується в гістограму PerformanceTracker; звіт містить пропускну здатність,
+ * p50/p99/p999 на стороні клієнта та статистику обробки операцій на стороні сервера.
+ *
+ * <p>Навантаження: 90% пошуків за ключем, 4.9% додавань, 5% видалень за ключем, 0.1% пошуків
+ * за значенням; раз на 10 000 запитів — SCAN з 100 записів.</p>
+ *
+ * <p>Запуск: {@code java ServerLoadBenchmark --size=100000 --connections=1,4,16 --depth=1,16 --millis=2000};
+ * для вже запущеного сервера ({@code java TortoiseServer 7070}) — {@code --port=7070}.</p>
+ */
+public class ServerLoadBenchmark {
+    private static final int REQUEST_METRIC = PerformanceTracker.metricId("клієнт: запит до TortoiseServer");
+
+    public static void main(String[] args) throws Exception {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 100_000);
+        int millis = options.getInt("millis", 2_000);
+        int externalPort = options.getInt("port", 0);
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+
+        TortoiseServer server = null;
+        int port = externalPort;
+        if (externalPort == 0) {
+            server = new TortoiseServer(new ConcurrentDataOperationUsingMap(data), 0);
+            port = server.getPort();
+        }
+        BenchmarkHarness.report("Потоки обробки запитів: " + (TortoiseServer.virtualThreadsAvailable() ? "віртуальні" : "платформні (JDK < 21)"));
+        try (TortoiseClient warmup = new TortoiseClient(port)) {
+            warmup.sort().get();
+        }
+
+        for (int connections : options.getInts("connections", 1, 4, 16)) {
+            for (int depth : options.getInts("depth", 1, 16)) {
+                PerformanceTracker.reset();
+                long completed = run(port, keys, connections, depth, millis);
+                LatencyHistogram.Snapshot latency = PerformanceTracker.snapshot().get("клієнт: запит до TortoiseServer");
+                BenchmarkHarness.report(String.format(
+                        "з'єднань %d, глибина конвеєра %d: %,.0f запитів/с, p50 %,d нс, p99 %,d нс, p999 %,d нс, max %,d нс",
+                        connections, depth, completed * 1000.0 / millis,
+                        latency.getP50(), latency.getP99(), latency.getP999(), latency.getMax()));
+            }
+        }
+        PerformanceTracker.exportTo(System.out);
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    private static long run(int port, BasicDataOperationUsingMap.Tortoise[] keys, int connections, int depth, int millis)
+            throws Exception {
+        LongAdder completed = new LongAdder();
+        CountDownLatch done = new CountDownLatch(connections);
+        TortoiseClient[] clients = new TortoiseClient[connections];
+        for (int c = 0; c < connections; c++) {
+            clients[c] = new TortoiseClient(port);
+        }
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        for (int c = 0; c < connections; c++) {
+            TortoiseClient client = clients[c];
+            Thread sender = new Thread(() -> {
+                Semaphore window = new Semaphore(depth);
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long sent = 0;
+                try {
+                    while (System.nanoTime() < deadline) {
+                        window.acquire();
+                        long timeStart = System.nanoTime();
+                        BasicDataOperationUsingMap.Tortoise key = keys[random.nextInt(keys.length)];
+                        int dice = random.nextInt(1000);
+                        CompletableFuture<?> response;
+                        if (++sent % 10_000 == 0) {
+                            response = client.scan(random.nextInt(keys.length), 100);
+                        } else if (dice < 900) {
+                            response = client.findByKey(key);
+                        } else if (dice < 949) {
+                            response = client.addEntry(key, "Аркадій");
+                        } else if (dice < 999) {
+                            response = client.removeByKey(key);
+                        } else {
+                            response = client.findByValue(BenchmarkData.owner(random.nextInt(keys.length / 4 + 1)));
+                        }
+                        response.whenComplete((result, error) -> {
+                            PerformanceTracker.recordOperationTime(timeStart, REQUEST_METRIC);
+                            completed.increment();
+                            window.release();
+                        });
+                    }
+                    window.acquire(depth);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-generator-" + c);
+            sender.start();
+        }
+        done.await();
+        for (TortoiseClient client : clients) {
+            client.close();
+        }
+        return completed.sum();
+    }
+}
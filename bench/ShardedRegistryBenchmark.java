@@ -0,0 +1,108 @@
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Бенчмарк шардованого реєстру: пропускна здатність записів (50% додавань, 50% видалень за ключем)
+ * для BasicDataOperationUsingMap під глобальним блокуванням та ShardedTortoiseRegistry з різною
+ * кількістю локальних шардів, а також тривалість sort() — сортування одного сховища проти
+ * k-шляхового злиття відсортованих прогонів шардів.
+ *
+ * <p>З параметром --processes=N додатково вимірюється реєстр з N шардами в окремих процесах
+ * TortoiseServer (loopback).</p>
+ *
+ * <p>Запуск: {@code java ShardedRegistryBenchmark --size=200000 --shards=1,2,4,8 --threads=8 --millis=1000 --processes=4}</p>
+ */
+public class ShardedRegistryBenchmark {
+    /**
+     * Операції запису, що вимірюються.
+     */
+    interface Store {
+        Object add(BasicDataOperationUsingMap.Tortoise key, String owner);
+
+        Object removeByKey(BasicDataOperationUsingMap.Tortoise key);
+    }
+
+    public static void main(String[] args) throws InterruptedException, IOException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 200_000);
+        int threads = options.getInt("threads", 8);
+        int millis = options.getInt("millis", 1_000);
+        int processes = options.getInt("processes", 0);
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+        BenchmarkHarness.silenceConsole();
+
+        LockedTortoiseStore locked = new LockedTortoiseStore(data);
+        report("глобальне блокування", threads, run(new Store() {
+            public Object add(BasicDataOperationUsingMap.Tortoise key, String owner) { return locked.addEntry(key, owner); }
+            public Object removeByKey(BasicDataOperationUsingMap.Tortoise key) { return locked.removeByKey(key); }
+        }, keys, threads, millis), millis);
+        // Усі відсортовані записи обходяться під блокуванням, як registry.sort() обходить злиті прогони шардів
+        BenchmarkHarness.run("sort: одне сховище", options, 1, i -> locked.sort(BasicDataOperationUsingMap.HASH_MAP_VIEW));
+
+        for (int shards : options.getInts("shards", 1, 2, 4, 8)) {
+            try (ShardedTortoiseRegistry registry =
+                         new ShardedTortoiseRegistry(data, shards, ShardedTortoiseRegistry.Partitioning.CONSISTENT)) {
+                measure("шардів=" + shards, registry, keys, threads, millis, options);
+            }
+        }
+
+        if (processes > 0) {
+            try (ShardedTortoiseRegistry registry =
+                         ShardedTortoiseRegistry.startProcesses(data, processes, ShardedTortoiseRegistry.Partitioning.CONSISTENT)) {
+                measure("процесів=" + processes, registry, keys, threads, millis, options);
+            }
+        }
+    }
+
+    private static void measure(String name, ShardedTortoiseRegistry registry, BasicDataOperationUsingMap.Tortoise[] keys,
+                                int threads, int millis, BenchmarkHarness.Options options) throws InterruptedException {
+        report(name, threads, run(new Store() {
+            public Object add(BasicDataOperationUsingMap.Tortoise key, String owner) { return registry.addEntry(key, owner); }
+            public Object removeByKey(BasicDataOperationUsingMap.Tortoise key) { return registry.removeByKey(key); }
+        }, keys, threads, millis), millis);
+        BenchmarkHarness.run("sort: k-шляхове злиття, " + name, options, 1, i -> registry.sort().size());
+    }
+
+    private static long run(Store store, BasicDataOperationUsingMap.Tortoise[] keys, int threads, int millis)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long count = 0;
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + millis * 1_000_000L;
+                while (System.nanoTime() < deadline) {
+                    BasicDataOperationUsingMap.Tortoise key = keys[random.nextInt(keys.length)];
+                    if (random.nextBoolean()) {
+                        store.add(key, "Аркадій");
+                    } else {
+                        store.removeByKey(key);
+                    }
+                    count++;
+                }
+                operations.add(count);
+            });
+            workers[t].start();
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return operations.sum();
+    }
+
+    private static void report(String name, int threads, long operations, int millis) {
+        BenchmarkHarness.report(String.format("%-22s потоків=%2d: %14.1f записів/с", name, threads, operations * 1000.0 / millis));
+    }
+}
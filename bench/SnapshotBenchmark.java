@@ -0,0 +1,45 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+
+/**
+ * Бенчмарк знімка TortoiseSnapshot: час запису, час відкриття через FileChannel.map,
+ * пошук за ключем у відображеному файлі проти HashMap та повна матеріалізація знімка.
+ *
+ * <p>Запуск: {@code java SnapshotBenchmark --sizes=100000,1000000}</p>
+ */
+public class SnapshotBenchmark {
+    public static void main(String[] args) throws IOException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        for (int size : options.getInts("sizes", 100_000, 1_000_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+            BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+            Path file = Files.createTempFile("tortoise", ".snapshot");
+            try {
+                long timeStart = System.nanoTime();
+                TortoiseSnapshot.write(file, data);
+                BenchmarkHarness.report(String.format("запис знімка/%d: %.1f мс, %,d байт",
+                        size, (System.nanoTime() - timeStart) / 1e6, Files.size(file)));
+
+                BenchmarkHarness.run("відкриття знімка/" + size, options, 1, i -> {
+                    try (TortoiseSnapshot snapshot = TortoiseSnapshot.open(file)) {
+                        return snapshot.size();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                });
+                try (TortoiseSnapshot snapshot = TortoiseSnapshot.open(file)) {
+                    BenchmarkHarness.run("пошук у знімку/" + size, options, 100_000,
+                            i -> snapshot.findByKey(keys[i % keys.length]).length());
+                    BenchmarkHarness.run("пошук у HashMap/" + size, options, 100_000,
+                            i -> data.get(keys[i % keys.length]).length());
+                    BenchmarkHarness.run("матеріалізація знімка в LinkedHashMap/" + size, options, 1,
+                            i -> snapshot.toLinkedHashMap().size());
+                }
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
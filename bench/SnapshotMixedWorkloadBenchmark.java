@@ -0,0 +1,117 @@
+import java.util.HashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Бенчмарк змішаного навантаження "читання / довгі проходи / запис" для трьох сховищ:
+ * BasicDataOperationUsingMap під глобальним блокуванням (сортування блокує всіх),
+ * ConcurrentDataOperationUsingMap (слабко-узгоджені проходи) та SnapshotDataOperationUsingMap
+ * (узгоджені знімки HAMT).
+ *
+ * <p>Потоки-читачі шукають за ключем, потоки-записувачі додають та видаляють записи, а один потік
+ * безперервно сортує. Для записувачів виводиться p99 затримки — саме вона показує, чи блокує
+ * сортування записи.</p>
+ *
+ * <p>Запуск: {@code java SnapshotMixedWorkloadBenchmark --size=100000 --readers=2 --writers=2 --millis=2000}</p>
+ */
+public class SnapshotMixedWorkloadBenchmark {
+    /**
+     * Операції сховища, що вимірюються.
+     */
+    interface Store {
+        Object findByKey(BasicDataOperationUsingMap.Tortoise key);
+
+        Object add(BasicDataOperationUsingMap.Tortoise key, String owner);
+
+        Object removeByKey(BasicDataOperationUsingMap.Tortoise key);
+
+        int sort();
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        int size = options.getInt("size", 100_000);
+        int readers = options.getInt("readers", 2);
+        int writers = options.getInt("writers", 2);
+        int millis = options.getInt("millis", 2_000);
+        HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 2 + 1, size / 4 + 1);
+        BasicDataOperationUsingMap.Tortoise[] keys = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+        BenchmarkHarness.silenceConsole();
+
+        LockedTortoiseStore locked = new LockedTortoiseStore(data);
+        run("глобальне блокування", new Store() {
+            public Object findByKey(BasicDataOperationUsingMap.Tortoise key) { return locked.findByKey(key); }
+            public Object add(BasicDataOperationUsingMap.Tortoise key, String owner) { return locked.addEntry(key, owner); }
+            public Object removeByKey(BasicDataOperationUsingMap.Tortoise key) { return locked.removeByKey(key); }
+            public int sort() { return locked.sort(BasicDataOperationUsingMap.LINKED_HASH_MAP_VIEW); }
+        }, keys, readers, writers, millis);
+
+        ConcurrentDataOperationUsingMap concurrent = new ConcurrentDataOperationUsingMap(data);
+        run("ConcurrentHashMap", new Store() {
+            public Object findByKey(BasicDataOperationUsingMap.Tortoise key) { return concurrent.findByKey(key); }
+            public Object add(BasicDataOperationUsingMap.Tortoise key, String owner) { return concurrent.addEntry(key, owner); }
+            public Object removeByKey(BasicDataOperationUsingMap.Tortoise key) { return concurrent.removeByKey(key); }
+            public int sort() { return concurrent.sort().size(); }
+        }, keys, readers, writers, millis);
+
+        SnapshotDataOperationUsingMap snapshots = new SnapshotDataOperationUsingMap(data);
+        run("знімки HAMT", new Store() {
+            public Object findByKey(BasicDataOperationUsingMap.Tortoise key) { return snapshots.findByKey(key); }
+            public Object add(BasicDataOperationUsingMap.Tortoise key, String owner) { return snapshots.addEntry(key, owner); }
+            public Object removeByKey(BasicDataOperationUsingMap.Tortoise key) { return snapshots.removeByKey(key); }
+            public int sort() { return snapshots.sort().size(); }
+        }, keys, readers, writers, millis);
+    }
+
+    private static void run(String name, Store store, BasicDataOperationUsingMap.Tortoise[] keys,
+                            int readers, int writers, int millis) throws InterruptedException {
+        int writeMetric = PerformanceTracker.metricId("змішане навантаження, запис: " + name);
+        LongAdder reads = new LongAdder();
+        LongAdder writes = new LongAdder();
+        LongAdder scans = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[readers + writers + 1];
+        for (int t = 0; t < threads.length; t++) {
+            int role = t < readers ? 0 : t < readers + writers ? 1 : 2;
+            threads[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                long deadline = System.nanoTime() + millis * 1_000_000L;
+                while (System.nanoTime() < deadline) {
+                    BasicDataOperationUsingMap.Tortoise key = keys[random.nextInt(keys.length)];
+                    if (role == 0) {
+                        store.findByKey(key);
+                        reads.increment();
+                    } else if (role == 1) {
+                        long timeStart = System.nanoTime();
+                        if (random.nextBoolean()) {
+                            store.add(key, "Аркадій");
+                        } else {
+                            store.removeByKey(key);
+                        }
+                        PerformanceTracker.recordOperationTime(timeStart, writeMetric);
+                        writes.increment();
+                    } else {
+                        store.sort();
+                        scans.increment();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        LatencyHistogram.Snapshot writeLatency = PerformanceTracker.snapshot().get("змішане навантаження, запис: " + name);
+        BenchmarkHarness.report(String.format(
+                "%-22s читань %,12.0f/с, записів %,10.0f/с, сортувань %,6.1f/с, запис p50 %,d нс, p99 %,d нс, max %,d нс",
+                name, reads.sum() * 1000.0 / millis, writes.sum() * 1000.0 / millis, scans.sum() * 1000.0 / millis,
+                writeLatency.getP50(), writeLatency.getP99(), writeLatency.getMax()));
+    }
+}
@@ -0,0 +1,73 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Бенчмарк сортування ключів Tortoise: попередній compareTo з розбором species
+ * при кожному порівнянні проти compareTo з кешованим shellThickness (режими EAGER та LAZY).
+ *
+ * <p>У режимі LAZY shellThickness кешується при першому порівнянні, тому перед кожною ітерацією
+ * (включно з прогрівом) створюються нові ключі — інакше вимірювалось би сортування вже розібраних ключів.</p>
+ *
+ * <p>Запуск: {@code java TortoiseSortBenchmark --sizes=10000,1000000,10000000}</p>
+ */
+public class TortoiseSortBenchmark {
+    /**
+     * Попередня реалізація Tortoise.compareTo(): розбирає species при кожному порівнянні.
+     */
+    static final Comparator<BasicDataOperationUsingMap.Tortoise> LEGACY_ORDER = (a, b) -> {
+        int nicknameComparison = a.getNickname().compareTo(b.getNickname());
+        if (nicknameComparison != 0) {
+            return nicknameComparison;
+        }
+        return Double.compare(legacyParse(a.getSpecies()), legacyParse(b.getSpecies()));
+    };
+
+    public static void main(String[] args) {
+        BenchmarkHarness.Options options = new BenchmarkHarness.Options(args);
+        for (int size : options.getInts("sizes", 10_000, 1_000_000, 10_000_000)) {
+            HashMap<BasicDataOperationUsingMap.Tortoise, String> data = BenchmarkData.generate(size, size / 10 + 1, 100);
+            BasicDataOperationUsingMap.Tortoise[] eager = data.keySet().toArray(new BasicDataOperationUsingMap.Tortoise[0]);
+
+            sort(options, "попередній compareTo/" + size, eager, UnaryOperator.identity(), LEGACY_ORDER);
+            sort(options, "кешований EAGER/" + size, eager, UnaryOperator.identity(), Comparator.naturalOrder());
+            sort(options, "кешований LAZY/" + size, eager, key -> new BasicDataOperationUsingMap.Tortoise(
+                    key.getNickname(), key.getSpecies(), BasicDataOperationUsingMap.Tortoise.ParseMode.LAZY),
+                    Comparator.naturalOrder());
+        }
+    }
+
+    /**
+     * Сортує копію keys; copyKey створює ключ для копії перед кожною ітерацією (поза вимірюванням).
+     */
+    private static void sort(BenchmarkHarness.Options options, String name, BasicDataOperationUsingMap.Tortoise[] keys,
+                             UnaryOperator<BasicDataOperationUsingMap.Tortoise> copyKey,
+                             Comparator<BasicDataOperationUsingMap.Tortoise> order) {
+        BasicDataOperationUsingMap.Tortoise[] copy = new BasicDataOperationUsingMap.Tortoise[keys.length];
+        BenchmarkHarness.run(name, options, 1, new BenchmarkHarness.Workload() {
+            public void setUp() {
+                for (int i = 0; i < keys.length; i++) {
+                    copy[i] = copyKey.apply(keys[i]);
+                }
+            }
+            public long invoke(int i) {
+                Arrays.sort(copy, order);
+                return copy.length;
+            }
+        });
+    }
+
+    private static double legacyParse(String species) {
+        if (species == null) return Double.MIN_VALUE;
+        try {
+            int idx = species.indexOf("shellThickness=");
+            if (idx >= 0) {
+                return Double.parseDouble(species.substring(idx + "shellThickness=".length()));
+            }
+        } catch (Exception e) {
+            // ігноруємо помилки парсингу
+        }
+        return Double.MIN_VALUE;
+    }
+}
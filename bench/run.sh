@@ -0,0 +1,24 @@
+#!/bin/sh
+# Компілює код з кореня репозиторію разом з бенчмарками в bench/out та запускає один бенчмарк.
+#
+# Використання: bench/run.sh <Бенчмарк> [--warmup=3] [--iterations=5] [параметри]
+# Додаткові параметри JVM (наприклад, -Xmx4g -XX:+UseParallelGC) передаються через JAVA_OPTS.
+set -eu
+
+if [ $# -lt 1 ]; then
+    echo "Використання: bench/run.sh <Бенчмарк> [параметри]" >&2
+    exit 2
+fi
+benchmark=$1
+shift
+
+cd "$(dirname "$0")/.."
+out=bench/out
+rm -rf "$out"
+mkdir -p "$out"
+javac -encoding UTF-8 -d "$out" ./*.java bench/*.java
+
+# Версія JDK друкується разом зі звітом, щоб результати різних запусків можна було зіставити
+java -version 2>&1 | head -n 1 >&2
+# shellcheck disable=SC2086
+exec java ${JAVA_OPTS:-} -Dstdout.encoding=UTF-8 -Dsun.stdout.encoding=UTF-8 -cp "$out" "$benchmark" "$@"